@@ -0,0 +1,102 @@
+#!/usr/bin/env bash
+# Thin client of the shell server that does not start a JVM, see ShellProtocol for the protocol.
+# Needs a bash with /dev/tcp, which most builds have.
+#
+# Usage: shell-client.sh [--port <port>] (-c <command line> | <script file>)
+
+export LC_ALL=C
+
+usage() {
+    echo "Usage: shell-client.sh [--port <port>] (-c <command line> | <script file>)" >&2
+    exit 2
+}
+
+port=4218
+if [ "$1" = "--port" ] && [ $# -gt 1 ]; then
+    port=$2
+    shift 2
+fi
+if [ $# -eq 2 ] && [ "$1" = "-c" ]; then
+    command_line=$2
+elif [ $# -eq 1 ] && [ "${1#-}" = "$1" ]; then
+    # the x keeps the trailing newlines of the script
+    command_line=$(cat -- "$1" && printf x) || { echo "shell-client: $1: cannot read the script" >&2; exit 3; }
+    command_line=${command_line%x}
+else
+    usage
+fi
+
+token_file="$HOME/.cs4218-shell-$port.token"
+token=$(cat -- "$token_file" 2>/dev/null) || {
+    echo "shell-client: Cannot read the token of the server from $token_file" >&2
+    exit 1
+}
+
+exec 3<>"/dev/tcp/127.0.0.1/$port" || exit 1
+
+# Writes a frame: the type byte, the length of the payload in 4 bytes, big-endian, and the payload.
+write_frame() {
+    local length=${#2}
+    printf "%s\\$(printf %03o $((length >> 24 & 255)))\\$(printf %03o $((length >> 16 & 255)))\\$(printf %03o \
+$((length >> 8 & 255)))\\$(printf %03o $((length & 255)))%s" "$1" "$2" >&3
+}
+
+# Reads a byte of the connection into the variable byte as a number, failing at the end of it.
+read_byte() {
+    local char
+    IFS= read -r -d '' -n 1 char <&3 || [ -n "$char" ] || return 1
+    if [ -z "$char" ]; then
+        byte=0
+    else
+        printf -v byte %d "'$char"
+        byte=$((byte & 255))
+    fi
+}
+
+read_int() {
+    local i
+    int=0
+    for i in 1 2 3 4; do
+        read_byte || return 1
+        int=$((int << 8 | byte))
+    done
+}
+
+write_frame T "$token"
+write_frame D "$PWD"
+write_frame C "$command_line"
+
+# pass stdin on in chunks, each written to a file first since bash variables cannot hold NUL bytes
+(
+    chunk=$(mktemp) || exit 1
+    trap 'rm -f "$chunk"' EXIT
+    while dd bs=8192 count=1 of="$chunk" 2>/dev/null && [ -s "$chunk" ]; do
+        length=$(wc -c < "$chunk")
+        printf "I\\$(printf %03o $((length >> 24 & 255)))\\$(printf %03o $((length >> 16 & 255)))\\$(printf %03o \
+$((length >> 8 & 255)))\\$(printf %03o $((length & 255)))" >&3 && cat "$chunk" >&3 || exit 0
+    done
+    printf 'Z\0\0\0\0' >&3
+) <&0 2>/dev/null &
+stdin_pid=$!
+
+status=
+while read_byte; do
+    type=$byte
+    read_int || break
+    case $type in
+        79) head -c "$int" <&3 ;;                          # O: stdout
+        69) head -c "$int" <&3 >&2 ;;                      # E: stderr
+        88) read_int && status=$((int >= 2147483648 ? int - 4294967296 : int)); break ;;  # X: exit status
+        *) break ;;
+    esac
+done
+
+# the reader of stdin may still be blocked on a terminal
+pkill -P "$stdin_pid" 2>/dev/null
+kill "$stdin_pid" 2>/dev/null
+exec 3>&-
+if [ -z "$status" ]; then
+    echo "shell-client: Server closed the connection without an exit status" >&2
+    exit 1
+fi
+exit $((status & 255))
@@ -0,0 +1,42 @@
+package sg.edu.nus.comp.cs4218.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sg.edu.nus.comp.cs4218.impl.app.FindApplication;
+import sg.edu.nus.comp.cs4218.impl.app.LsApplication;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the applications that walk directories, on directory trees generated by
+ * InputFiles. The size of a tree is its number of files rather than its bytes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DirectoryAppBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int numOfFiles;
+
+    private String directory;
+
+    private final FindApplication findApplication = new FindApplication();
+    private final LsApplication lsApplication = new LsApplication();
+
+    @Setup
+    public void setUp() {
+        directory = InputFiles.directoryTree(numOfFiles).toString();
+    }
+
+    @Benchmark
+    public String findFolderContent() throws Exception {
+        return findApplication.findFolderContent("file-1*", directory);
+    }
+
+    @Benchmark
+    public String listFolderContent() throws Exception {
+        return lsApplication.listFolderContent(false, true, directory);
+    }
+}
@@ -0,0 +1,91 @@
+package sg.edu.nus.comp.cs4218.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sg.edu.nus.comp.cs4218.impl.app.*;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the core method of each application that reads files, on text inputs of 1 MB,
+ * 100 MB and 1 GB generated by InputFiles.
+ * <p>
+ * Most of these methods return their whole output as a String, so the 1 GB inputs need a large
+ * heap. diffTwoFiles compares the lines of the files pairwise, so its time grows with the
+ * square of the size and it does not finish on the larger inputs in reasonable time. Restrict
+ * the sizes with e.g. {@code -Djmh.args="FileAppBenchmark -p sizeMb=1,100"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class FileAppBenchmark {
+    @Param({"1", "100", "1024"})
+    private int sizeMb;
+
+    private String file;
+    private String modifiedFile;
+
+    private final GrepApplication grepApplication = new GrepApplication();
+    private final SortApplication sortApplication = new SortApplication();
+    private final WcApplication wcApplication = new WcApplication();
+    private final CutApplication cutApplication = new CutApplication();
+    private final SedApplication sedApplication = new SedApplication();
+    private final DiffApplication diffApplication = new DiffApplication();
+
+    @Setup
+    public void setUp() {
+        file = InputFiles.textFile(sizeMb).toString();
+        modifiedFile = InputFiles.modifiedTextFile(sizeMb).toString();
+    }
+
+    @Benchmark
+    public String grepFromFiles() throws Exception {
+        return grepApplication.grepFromFiles(InputFiles.NEEDLE, false, false, file);
+    }
+
+    @Benchmark
+    public String grepFromFilesCaseInsensitive() throws Exception {
+        return grepApplication.grepFromFiles("NEEDLE", true, false, file);
+    }
+
+    @Benchmark
+    public String grepFromFilesCount() throws Exception {
+        return grepApplication.grepFromFiles("alpha|zulu", false, true, file);
+    }
+
+    @Benchmark
+    public String sortFromFiles() throws Exception {
+        return sortApplication.sortFromFiles(false, false, false, file);
+    }
+
+    @Benchmark
+    public String sortFromFilesNumeric() throws Exception {
+        return sortApplication.sortFromFiles(true, false, false, file);
+    }
+
+    @Benchmark
+    public long[] getCountReport() throws Exception {
+        try (InputStream input = Files.newInputStream(InputFiles.textFile(sizeMb))) {
+            return wcApplication.getCountReport(input);
+        }
+    }
+
+    @Benchmark
+    public String cutFromFiles() throws Exception {
+        return cutApplication.cutFromFiles(true, false, true, 1, 10, file);
+    }
+
+    @Benchmark
+    public String replaceSubstringInFile() throws Exception {
+        return sedApplication.replaceSubstringInFile(InputFiles.NEEDLE, "pin", 1, file);
+    }
+
+    @Benchmark
+    public String diffTwoFiles() throws Exception {
+        return diffApplication.diffTwoFiles(file, modifiedFile, false, false, false);
+    }
+}
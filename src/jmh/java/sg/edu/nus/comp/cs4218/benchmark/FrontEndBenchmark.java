@@ -0,0 +1,173 @@
+package sg.edu.nus.comp.cs4218.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sg.edu.nus.comp.cs4218.Command;
+import sg.edu.nus.comp.cs4218.ShellContext;
+import sg.edu.nus.comp.cs4218.impl.parser.CutArgsParser;
+import sg.edu.nus.comp.cs4218.impl.parser.LsArgsParser;
+import sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner;
+import sg.edu.nus.comp.cs4218.impl.util.ArgumentResolver;
+import sg.edu.nus.comp.cs4218.impl.util.CommandBuilder;
+import sg.edu.nus.comp.cs4218.impl.util.CommandCache;
+import sg.edu.nus.comp.cs4218.impl.util.RegexArgument;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the front end that runs for every command before its application: parsing the
+ * command line, resolving the arguments, globbing and parsing the flags of an application.
+ * <p>
+ * Run with the GC profiler, which the benchmark profile enables by default, to see the bytes
+ * allocated per operation ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FrontEndBenchmark {
+    private static final String SHORT_COMMAND = "echo hello";
+    private static final String LONG_COMMAND = "grep -i \"foo bar\" 'single quoted *' file-1*.txt "
+            + "| sort -r -n | cut -c 1-10 > \"out put.txt\"; "
+            + "echo \"result: `grep -c needle a.txt` lines\" 'and `not substituted`' *.log; "
+            + "paste - - < in.txt | wc -l | sed s/a/b/g";
+    private static final List<String> ARGUMENTS = Arrays.asList("grep", "-i", "\"foo bar\"",
+            "'single quoted *'", "plain", "file-1*.txt", "\"double `echo quoted`\"");
+
+    /**
+     * Command lines to parse, with or without the parse cache.
+     */
+    @State(Scope.Benchmark)
+    public static class CommandLines {
+        @Param({"short", "long"})
+        private String length;
+        @Param({"true", "false"})
+        private boolean isCached;
+
+        private String commandLine;
+        private int previousMaxSize;
+
+        @Setup
+        public void setUp() {
+            commandLine = "short".equals(length) ? SHORT_COMMAND : LONG_COMMAND;
+            CommandCache cache = CommandBuilder.getCommandCache();
+            previousMaxSize = cache.getMaxSize();
+            cache.clear();
+            cache.setMaxSize(isCached ? previousMaxSize : 0);
+        }
+
+        @TearDown
+        public void tearDown() {
+            CommandBuilder.getCommandCache().setMaxSize(previousMaxSize);
+        }
+    }
+
+    /**
+     * An ArgumentResolver running in a directory of 100 files, bound to the benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class Resolver {
+        private ArgumentResolver argumentResolver;
+        private ShellContext.Scope scope;
+
+        @Setup
+        public void setUp() {
+            argumentResolver = new ArgumentResolver(new ApplicationRunner());
+            scope = new ShellContext(InputFiles.flatDirectory(100).toString()).bind();
+        }
+
+        @TearDown
+        public void tearDown() {
+            scope.close();
+        }
+    }
+
+    /**
+     * An argument of each kind the ArgumentResolver handles differently.
+     */
+    @State(Scope.Benchmark)
+    public static class Argument {
+        @Param({"plain", "quoted", "glob", "substitution"})
+        private String kind;
+
+        private String argument;
+
+        @Setup
+        public void setUp() {
+            switch (kind) {
+                case "plain":
+                    argument = "plain-argument";
+                    break;
+                case "quoted":
+                    argument = "\"double quoted 'single' *\"'single \"double\" *'";
+                    break;
+                case "glob":
+                    argument = "file-1*.txt";
+                    break;
+                default:
+                    argument = "\"before `echo substituted words` after\"";
+            }
+        }
+    }
+
+    /**
+     * A directory of 10, 10k or 100k files to glob in, bound to the benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class GlobDirectory {
+        @Param({"10", "10000", "100000"})
+        private int numOfEntries;
+
+        private ShellContext.Scope scope;
+
+        @Setup
+        public void setUp() {
+            scope = new ShellContext(InputFiles.flatDirectory(numOfEntries).toString()).bind();
+        }
+
+        @TearDown
+        public void tearDown() {
+            scope.close();
+        }
+    }
+
+    @Benchmark
+    public Command parseCommand(CommandLines commandLines) throws Exception {
+        return CommandBuilder.parseCommand(commandLines.commandLine, new ApplicationRunner());
+    }
+
+    @Benchmark
+    public List<String> parseArguments(Resolver resolver) throws Exception {
+        return resolver.argumentResolver.parseArguments(ARGUMENTS);
+    }
+
+    @Benchmark
+    public List<String> resolveOneArgument(Resolver resolver, Argument argument) throws Exception {
+        return resolver.argumentResolver.resolveOneArgument(argument.argument);
+    }
+
+    @Benchmark
+    public List<String> globFiles(GlobDirectory directory) {
+        RegexArgument regexArgument = new RegexArgument();
+        regexArgument.merge("file-1");
+        regexArgument.appendAsterisk();
+        regexArgument.merge(".txt");
+        return regexArgument.globFiles();
+    }
+
+    @Benchmark
+    public CutArgsParser parseCutArgs() throws Exception {
+        CutArgsParser parser = new CutArgsParser();
+        parser.parse("-c", "1-10", "a.txt", "b.txt", "c.txt");
+        return parser;
+    }
+
+    @Benchmark
+    public LsArgsParser parseLsArgs() throws Exception {
+        LsArgsParser parser = new LsArgsParser();
+        parser.parse("-dR", "first", "second", "third");
+        return parser;
+    }
+}
@@ -0,0 +1,74 @@
+package sg.edu.nus.comp.cs4218.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sg.edu.nus.comp.cs4218.ShellContext;
+import sg.edu.nus.comp.cs4218.impl.app.GrepApplication;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of grep over many files with 1 to 8 search threads, to show how searching several
+ * files at the same time scales with the number of cores. The files are NUM_OF_FILES copies of
+ * the 1 MB text input of InputFiles.
+ * <p>
+ * The number of threads of grep is fixed when GrepApplication is loaded, so it is set in the
+ * setup of each fork, before GrepApplication is first used. Thread counts beyond the number of
+ * processors of the machine are not expected to be faster.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GrepScalingBenchmark {
+    public static final int NUM_OF_FILES = 200;
+    public static final int FILE_SIZE_MB = 1;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private String directory;
+    private String[] fileNames;
+    private GrepApplication grepApplication;
+
+    @Setup
+    public void setUp() {
+        System.setProperty(GrepApplication.PROP_THREADS, String.valueOf(threads));
+        directory = InputFiles.textDirectory(NUM_OF_FILES, FILE_SIZE_MB).toString();
+        fileNames = new String[NUM_OF_FILES];
+        for (int i = 0; i < NUM_OF_FILES; i++) {
+            fileNames[i] = "text-" + i + ".txt";
+        }
+        grepApplication = new GrepApplication();
+    }
+
+    @Benchmark
+    public void grepFromFiles() throws Exception {
+        try (ShellContext.Scope scope = new ShellContext(directory).bind()) {
+            grepApplication.grepFromFiles(InputFiles.NEEDLE, false, false, DiscardingOutputStream.INSTANCE, fileNames);
+        }
+    }
+
+    @Benchmark
+    public void grepFromFilesCount() throws Exception {
+        try (ShellContext.Scope scope = new ShellContext(directory).bind()) {
+            grepApplication.grepFromFiles("alpha|zulu", false, true, DiscardingOutputStream.INSTANCE, fileNames);
+        }
+    }
+
+    private static final class DiscardingOutputStream extends OutputStream {
+        private static final DiscardingOutputStream INSTANCE = new DiscardingOutputStream();
+
+        @Override
+        public void write(int b) {
+            // output is discarded, only the search is measured
+        }
+
+        @Override
+        public void write(byte[] bytes, int off, int len) {
+            // output is discarded, only the search is measured
+        }
+    }
+}
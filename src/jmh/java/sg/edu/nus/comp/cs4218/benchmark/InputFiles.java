@@ -0,0 +1,162 @@
+package sg.edu.nus.comp.cs4218.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+/**
+ * Generates the inputs of the benchmarks, by default under target/jmh-inputs.
+ * <p>
+ * Generating a gigabyte takes longer than most benchmarks, so inputs are kept between runs and
+ * reused. Every input is generated from a fixed seed, so the same input is generated on every
+ * machine. An input is generated under a temporary name and then renamed, so that an
+ * interrupted run never leaves a partial input behind.
+ */
+public final class InputFiles {
+    /**
+     * System property of the directory the inputs are kept in,
+     * e.g. {@code -Dcs4218.benchmark.dir=/tmp/inputs}.
+     */
+    public static final String PROP_DIR = "cs4218.benchmark.dir";
+    /**
+     * Word that appears in one line out of every NEEDLE_INTERVAL lines of a text input, for
+     * benchmarks that need sparse matches.
+     */
+    public static final String NEEDLE = "needle";
+    public static final int NEEDLE_INTERVAL = 1000;
+    /**
+     * Lines of a modified text input differ from the original text input once every
+     * MODIFIED_INTERVAL lines.
+     */
+    public static final int MODIFIED_INTERVAL = 5000;
+    public static final int ENTRIES_PER_DIR = 100;
+
+    private static final long BYTES_PER_MB = 1024 * 1024;
+    private static final int MAX_WORDS_PER_LINE = 12;
+    private static final String[] WORDS = {"alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf",
+            "hotel", "india", "juliet", "kilo", "lima", "mike", "november", "oscar", "papa", "quebec", "romeo",
+            "sierra", "tango", "uniform", "victor", "whiskey", "xray", "yankee", "zulu", "Alpha", "Zulu", "42"};
+
+    private InputFiles() {
+    }
+
+    private static Path getDirectory() throws IOException {
+        Path directory = Paths.get(System.getProperty(PROP_DIR, Paths.get("target", "jmh-inputs").toString()))
+                .toAbsolutePath();
+        Files.createDirectories(directory);
+        return directory;
+    }
+
+    /**
+     * Returns a text file of about the given size, made of numbered lines of 1 to 12 words, e.g.
+     * {@code 1234 tango Alpha kilo}.
+     */
+    public static Path textFile(int sizeMb) {
+        return generate("text-" + sizeMb + "mb.txt", file -> writeText(file, sizeMb, false));
+    }
+
+    /**
+     * Returns a copy of textFile(sizeMb) with one line out of every MODIFIED_INTERVAL lines
+     * changed, for diff.
+     */
+    public static Path modifiedTextFile(int sizeMb) {
+        return generate("text-" + sizeMb + "mb-modified.txt", file -> writeText(file, sizeMb, true));
+    }
+
+    /**
+     * Returns a directory tree with the given number of files, ENTRIES_PER_DIR per directory.
+     */
+    public static Path directoryTree(int numOfFiles) {
+        return generate("tree-" + numOfFiles, directory -> {
+            Files.createDirectory(directory);
+            for (int i = 0; i < numOfFiles; i++) {
+                Path parent = directory.resolve("dir-" + i / ENTRIES_PER_DIR);
+                if (i % ENTRIES_PER_DIR == 0) {
+                    Files.createDirectory(parent);
+                }
+                Files.createFile(parent.resolve("file-" + i + (i % 2 == 0 ? ".txt" : ".log")));
+            }
+        });
+    }
+
+    /**
+     * Returns a directory with the given number of files directly in it, half of them ending
+     * with .txt, for globbing.
+     */
+    public static Path flatDirectory(int numOfFiles) {
+        return generate("flat-" + numOfFiles, directory -> {
+            Files.createDirectory(directory);
+            for (int i = 0; i < numOfFiles; i++) {
+                Files.createFile(directory.resolve("file-" + i + (i % 2 == 0 ? ".txt" : ".log")));
+            }
+        });
+    }
+
+    /**
+     * Returns a directory with the given number of copies of textFile(sizeMb) directly in it,
+     * named text-0.txt, text-1.txt and so on.
+     */
+    public static Path textDirectory(int numOfFiles, int sizeMb) {
+        Path text = textFile(sizeMb);
+        return generate("texts-" + numOfFiles + "x" + sizeMb + "mb", directory -> {
+            Files.createDirectory(directory);
+            for (int i = 0; i < numOfFiles; i++) {
+                Files.copy(text, directory.resolve("text-" + i + ".txt"));
+            }
+        });
+    }
+
+    private static void writeText(Path file, int sizeMb, boolean isModified) throws IOException {
+        Random random = new Random(sizeMb);
+        long size = sizeMb * BYTES_PER_MB;
+        long written = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            StringBuilder line = new StringBuilder(128);
+            for (long lineNum = 0; written < size; lineNum++) {
+                line.setLength(0);
+                line.append(random.nextInt(100_000));
+                int numOfWords = 1 + random.nextInt(MAX_WORDS_PER_LINE);
+                for (int i = 0; i < numOfWords; i++) {
+                    line.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+                }
+                if (lineNum % NEEDLE_INTERVAL == 0) {
+                    line.append(' ').append(NEEDLE);
+                }
+                if (isModified && lineNum % MODIFIED_INTERVAL == 0) {
+                    line.append(" modified");
+                }
+                line.append(STRING_NEWLINE);
+                writer.write(line.toString());
+                written += line.length();
+            }
+        }
+    }
+
+    private static Path generate(String name, Generator generator) {
+        try {
+            Path target = getDirectory().resolve(name);
+            if (Files.exists(target)) {
+                return target;
+            }
+            Path temporary = Files.createTempDirectory(target.getParent(), name).resolve(name);
+            generator.generate(temporary);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(temporary.getParent());
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Generator {
+        void generate(Path path) throws IOException;
+    }
+}
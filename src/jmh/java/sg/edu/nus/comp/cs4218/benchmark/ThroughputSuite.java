@@ -0,0 +1,343 @@
+package sg.edu.nus.comp.cs4218.benchmark;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import sg.edu.nus.comp.cs4218.ShellContext;
+import sg.edu.nus.comp.cs4218.impl.ShellImpl;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+/**
+ * Runs realistic command lines end to end through ShellImpl.parseAndEvaluate and reports, for
+ * each scenario, its throughput, latency percentiles, garbage collections, GC time and peak heap.
+ * <p>
+ * GC time is the collection time reported by the collectors, which for concurrent collectors
+ * includes work done alongside the application and so is not the time it was paused. Peak heap
+ * is the largest total heap in use, taken from the heap before each collection and from samples
+ * between collections.
+ * <p>
+ * The inputs are generated by InputFiles, so the suite runs offline. The results are written as
+ * properties to target/throughput-result.properties; a copy of them can be kept as the baseline
+ * of later runs, which then report the change of each scenario and fail if the throughput of a
+ * scenario dropped by more than the threshold.
+ * <p>
+ * Run with {@code mvn -P benchmark compile exec:exec@throughput}. Tunables are system
+ * properties, passed with e.g. {@code -Dthroughput.args="-Dcs4218.throughput.sizeMb=10"}:
+ * <ul>
+ * <li>{@code cs4218.throughput.sizeMb}: size of the text input, 100 by default.</li>
+ * <li>{@code cs4218.throughput.files}: number of files of each directory tree, 10000 by default.</li>
+ * <li>{@code cs4218.throughput.warmups} and {@code cs4218.throughput.runs}: runs of each scenario
+ * before and while measuring, 2 and 10 by default.</li>
+ * <li>{@code cs4218.throughput.baseline}: properties file of an earlier run to compare with.</li>
+ * <li>{@code cs4218.throughput.threshold}: largest drop of throughput in percent that is not a
+ * regression, 10 by default.</li>
+ * </ul>
+ */
+public final class ThroughputSuite {
+    public static final String PROP_SIZE_MB = "cs4218.throughput.sizeMb";
+    public static final String PROP_FILES = "cs4218.throughput.files";
+    public static final String PROP_WARMUPS = "cs4218.throughput.warmups";
+    public static final String PROP_RUNS = "cs4218.throughput.runs";
+    public static final String PROP_BASELINE = "cs4218.throughput.baseline";
+    public static final String PROP_THRESHOLD = "cs4218.throughput.threshold";
+    public static final String RESULT_FILE = "target/throughput-result.properties";
+
+    private static final String KEY_THROUGHPUT = ".throughput";
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double BYTES_PER_MB = 1024 * 1024;
+    private static final double PERCENT = 100;
+    private static final String ROW_FORMAT = "%-14s %16s %10s %10s %10s %10s %6s %10s %10s%n";
+    private static final long SAMPLE_MILLIS = 10;
+
+    private ThroughputSuite() {
+    }
+
+    /**
+     * A command line run in the directory of the inputs, and the size of the input it processes
+     * in the unit its throughput is reported in.
+     */
+    private static final class Scenario {
+        private final String name;
+        private final String commandLine;
+        private final double inputSize;
+        private final String unit;
+
+        private Scenario(String name, String commandLine, double inputSize, String unit) {
+            this.name = name;
+            this.commandLine = commandLine;
+            this.inputSize = inputSize;
+            this.unit = unit;
+        }
+    }
+
+    public static void main(String... args) throws Exception {
+        int sizeMb = Integer.getInteger(PROP_SIZE_MB, 100);
+        int numOfFiles = Integer.getInteger(PROP_FILES, 10_000);
+        int numOfWarmups = Integer.getInteger(PROP_WARMUPS, 2);
+        int numOfRuns = Integer.getInteger(PROP_RUNS, 10);
+
+        String text = InputFiles.textFile(sizeMb).getFileName().toString();
+        String tree = InputFiles.directoryTree(numOfFiles).getFileName().toString();
+        String flat = InputFiles.flatDirectory(numOfFiles).getFileName().toString();
+        Path directory = InputFiles.textFile(sizeMb).getParent();
+        double textMb = Files.size(directory.resolve(text)) / BYTES_PER_MB;
+
+        List<Scenario> scenarios = Arrays.asList(
+                new Scenario("grep-sort", "grep " + InputFiles.NEEDLE + " " + text + " | sort", textMb, "MB/s"),
+                new Scenario("cut-sort", "cut -c 1-10 " + text + " | sort", textMb, "MB/s"),
+                new Scenario("sed-grep-wc", "sed s/alpha/omega/ " + text + " | grep omega | wc -l", textMb, "MB/s"),
+                new Scenario("find", "find " + tree + " " + flat + " -name \"file-1*\"", 2.0 * numOfFiles,
+                        "files/s"),
+                new Scenario("ls-recursive", "ls -R " + tree, numOfFiles, "files/s"));
+
+        Map<String, Double> results = new TreeMap<>();
+        System.out.printf(ROW_FORMAT, "scenario", "throughput", "p50 ms", "p90 ms", "p99 ms", "max ms", "gc",
+                "gc time ms", "peak MB");
+        for (Scenario scenario : scenarios) {
+            run(scenario, directory, numOfWarmups, numOfRuns, results);
+        }
+
+        Path resultFile = Paths.get(RESULT_FILE);
+        Files.createDirectories(resultFile.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(resultFile)) {
+            for (Map.Entry<String, Double> entry : results.entrySet()) {
+                writer.write(entry.getKey() + "=" + entry.getValue() + STRING_NEWLINE);
+            }
+        }
+        System.out.println("Results written to " + resultFile.toAbsolutePath());
+
+        String baseline = System.getProperty(PROP_BASELINE);
+        if (baseline != null && !compare(scenarios, results, Paths.get(baseline))) {
+            System.exit(1);
+        }
+    }
+
+    private static void run(Scenario scenario, Path directory, int numOfWarmups, int numOfRuns,
+                            Map<String, Double> results) throws Exception {
+        ShellImpl shell = new ShellImpl(new ShellContext(directory.toString()));
+        OutputStream discard = new OutputStream() {
+            @Override
+            public void write(int byteValue) {
+                // the output is not part of the measurement
+            }
+
+            @Override
+            public void write(byte[] bytes, int off, int len) {
+                // the output is not part of the measurement
+            }
+        };
+        InputStream stdin = new InputStream() {
+            @Override
+            public int read() {
+                return -1;
+            }
+        };
+        for (int i = 0; i < numOfWarmups; i++) {
+            shell.parseAndEvaluate(scenario.commandLine, stdin, discard);
+        }
+
+        System.gc();
+        HeapPeak heapPeak = new HeapPeak();
+        long gcCount = -getGcCount();
+        long gcMillis = -getGcMillis();
+        long[] latencies = new long[numOfRuns];
+        heapPeak.start();
+        try {
+            for (int i = 0; i < numOfRuns; i++) {
+                long start = System.nanoTime();
+                shell.parseAndEvaluate(scenario.commandLine, stdin, discard);
+                latencies[i] = System.nanoTime() - start;
+            }
+        } finally {
+            heapPeak.stop();
+        }
+        gcCount += getGcCount();
+        gcMillis += getGcMillis();
+        long peakHeap = heapPeak.getPeak();
+
+        Arrays.sort(latencies);
+        double throughput = scenario.inputSize / (percentile(latencies, 0.5) / NANOS_PER_SECOND);
+        String prefix = scenario.name;
+        results.put(prefix + KEY_THROUGHPUT, throughput);
+        results.put(prefix + ".p50Millis", percentile(latencies, 0.5) / NANOS_PER_MILLI);
+        results.put(prefix + ".p90Millis", percentile(latencies, 0.9) / NANOS_PER_MILLI);
+        results.put(prefix + ".p99Millis", percentile(latencies, 0.99) / NANOS_PER_MILLI);
+        results.put(prefix + ".maxMillis", latencies[latencies.length - 1] / NANOS_PER_MILLI);
+        results.put(prefix + ".gcCount", (double) gcCount);
+        results.put(prefix + ".gcMillis", (double) gcMillis);
+        results.put(prefix + ".peakHeapMb", peakHeap / BYTES_PER_MB);
+
+        System.out.printf(ROW_FORMAT, scenario.name, String.format("%.1f %s", throughput, scenario.unit),
+                format(results.get(prefix + ".p50Millis")), format(results.get(prefix + ".p90Millis")),
+                format(results.get(prefix + ".p99Millis")), format(results.get(prefix + ".maxMillis")),
+                gcCount, gcMillis, format(results.get(prefix + ".peakHeapMb")));
+    }
+
+    /**
+     * Tracks the largest total heap in use while started.
+     * <p>
+     * The peaks of the heap pools are reached at different times, so their sum overstates the
+     * peak. Instead, the heap in use is summed over all pools just before each collection, from
+     * its GC notification, and is sampled from the MemoryMXBean in between, which covers runs
+     * without collections.
+     */
+    private static final class HeapPeak implements NotificationListener {
+        private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        private final Set<String> heapPools = new HashSet<>();
+        private final List<NotificationEmitter> emitters = new ArrayList<>();
+        private final Thread sampler = new Thread(this::sample, "heap-sampler");
+        private volatile boolean isStopped;
+        private long peak;
+
+        private void start() {
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    heapPools.add(pool.getName());
+                }
+            }
+            for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (bean instanceof NotificationEmitter) {
+                    ((NotificationEmitter) bean).addNotificationListener(this, null, null);
+                    emitters.add((NotificationEmitter) bean);
+                }
+            }
+            update(memoryBean.getHeapMemoryUsage().getUsed());
+            sampler.setDaemon(true);
+            sampler.start();
+        }
+
+        private void stop() throws InterruptedException {
+            isStopped = true;
+            sampler.join();
+            for (NotificationEmitter emitter : emitters) {
+                try {
+                    emitter.removeNotificationListener(this);
+                } catch (ListenerNotFoundException e) {
+                    // already removed
+                }
+            }
+            update(memoryBean.getHeapMemoryUsage().getUsed());
+        }
+
+        private void sample() {
+            while (!isStopped) {
+                update(memoryBean.getHeapMemoryUsage().getUsed());
+                try {
+                    Thread.sleep(SAMPLE_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                return;
+            }
+            GarbageCollectionNotificationInfo info =
+                    GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            long used = 0;
+            for (Map.Entry<String, MemoryUsage> entry : info.getGcInfo().getMemoryUsageBeforeGc().entrySet()) {
+                if (heapPools.contains(entry.getKey())) {
+                    used += entry.getValue().getUsed();
+                }
+            }
+            update(used);
+        }
+
+        private synchronized void update(long used) {
+            peak = Math.max(peak, used);
+        }
+
+        private synchronized long getPeak() {
+            return peak;
+        }
+    }
+
+    /**
+     * Compares the throughput of each scenario with the baseline.
+     *
+     * @return False if the throughput of a scenario dropped by more than the threshold.
+     */
+    private static boolean compare(List<Scenario> scenarios, Map<String, Double> results, Path baselineFile)
+            throws IOException {
+        Properties baseline = new Properties();
+        try (InputStream input = Files.newInputStream(baselineFile)) {
+            baseline.load(input);
+        }
+        double threshold = Double.parseDouble(System.getProperty(PROP_THRESHOLD, "10"));
+
+        boolean isPassed = true;
+        System.out.println("Compared with " + baselineFile + ":");
+        for (Scenario scenario : scenarios) {
+            String key = scenario.name + KEY_THROUGHPUT;
+            String expected = baseline.getProperty(key);
+            if (expected == null) {
+                System.out.printf("%-14s not in baseline%n", scenario.name);
+                continue;
+            }
+            double change = (results.get(key) / Double.parseDouble(expected) - 1) * PERCENT;
+            boolean isRegression = change < -threshold;
+            isPassed = isPassed && !isRegression;
+            System.out.printf("%-14s %+8.1f%% throughput%s%n", scenario.name, change,
+                    isRegression ? "  REGRESSION" : "");
+        }
+        return isPassed;
+    }
+
+    /**
+     * Returns the nearest-rank percentile of sorted values.
+     */
+    private static long percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static String format(double value) {
+        return String.format("%.1f", value);
+    }
+
+    private static long getGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long getGcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, bean.getCollectionTime());
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,29 @@
+package sg.edu.nus.comp.cs4218;
+
+/**
+ * Service provider for applications other than the built-in ones. Providers are discovered with
+ * java.util.ServiceLoader, by listing their class names in
+ * META-INF/services/sg.edu.nus.comp.cs4218.ApplicationProvider.
+ */
+public interface ApplicationProvider {
+
+    /**
+     * Returns the command name the application is run with, e.g. "ls".
+     */
+    String getName();
+
+    /**
+     * Creates a new instance of the application.
+     *
+     * @throws IllegalStateException If the application cannot be created.
+     */
+    Application createApplication();
+
+    /**
+     * Returns true if the application keeps no state between runs, so that a single instance can
+     * be reused for every run, including concurrent ones.
+     */
+    default boolean isStateless() {
+        return false;
+    }
+}
@@ -14,6 +14,17 @@ public interface Command {
     void evaluate(InputStream stdin, OutputStream stdout)
             throws AbstractApplicationException, ShellException;
 
+    /**
+     * Evaluates command in the given shell context, which is bound to the current thread while
+     * the command runs, see ShellContext.
+     */
+    default void evaluate(InputStream stdin, OutputStream stdout, ShellContext context)
+            throws AbstractApplicationException, ShellException {
+        try (ShellContext.Scope ignored = context.bind()) {
+            evaluate(stdin, stdout);
+        }
+    }
+
     /**
      * Terminates current execution of the command.
      */
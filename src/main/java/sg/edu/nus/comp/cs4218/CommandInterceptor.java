@@ -0,0 +1,25 @@
+package sg.edu.nus.comp.cs4218;
+
+import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+
+/**
+ * Hook around every application run by an ApplicationRunner, e.g. to time, trace or cache runs.
+ * Interceptors are registered on the runner, or discovered with java.util.ServiceLoader by
+ * listing their class names in META-INF/services/sg.edu.nus.comp.cs4218.CommandInterceptor.
+ * <p>
+ * Interceptors form a chain in the order they were registered. Each one is called with the
+ * invocation, and runs the rest of the chain and finally the application by calling proceed.
+ * An interceptor that does not call proceed short-circuits the run, and may write the output of
+ * the run to the output stream of the invocation itself, e.g. from a cache.
+ * <p>
+ * Interceptors may be called by several threads at the same time.
+ */
+public interface CommandInterceptor {
+
+    /**
+     * Intercepts a run of an application. Exceptions thrown by proceed, e.g. because the
+     * application failed, are seen by the interceptor and should normally be rethrown.
+     */
+    void intercept(CommandInvocation invocation) throws AbstractApplicationException, ShellException;
+}
@@ -0,0 +1,81 @@
+package sg.edu.nus.comp.cs4218;
+
+import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * A run of an application as seen by a CommandInterceptor.
+ * <p>
+ * The byte counts are those of the streams of the invocation, whoever reads or writes them. The
+ * times are those of the application run by proceed, so they are zero before proceed returns or
+ * throws, and stay zero if the run is short-circuited.
+ */
+public interface CommandInvocation {
+
+    /**
+     * Returns the command name of the application, after quoting, globbing and command
+     * substitution.
+     */
+    String getApp();
+
+    /**
+     * Returns the arguments passed to the application, after quoting, globbing and command
+     * substitution. The array is passed to the application as is.
+     */
+    String[] getArgs();
+
+    /**
+     * Returns the IO redirections of the Call Command as operator and resolved file name pairs,
+     * e.g. {@code [<, in.txt, >, out.txt]}, or an empty list if there are none.
+     */
+    List<String> getRedirections();
+
+    /**
+     * Returns the stream the application reads from, after IO redirection.
+     */
+    InputStream getInputStream();
+
+    /**
+     * Returns the stream the application writes to, after IO redirection.
+     */
+    OutputStream getOutputStream();
+
+    /**
+     * Returns the ShellContext the application runs in.
+     */
+    ShellContext getContext();
+
+    /**
+     * Runs the next interceptor of the chain, or the application after the last one. Must be
+     * called at most once.
+     *
+     * @throws AbstractApplicationException If the application fails.
+     * @throws ShellException               If the application is invalid or is interrupted.
+     */
+    void proceed() throws AbstractApplicationException, ShellException;
+
+    /**
+     * Returns the number of bytes read from the input stream.
+     */
+    long getBytesIn();
+
+    /**
+     * Returns the number of bytes written to the output stream.
+     */
+    long getBytesOut();
+
+    /**
+     * Returns the wall-clock time the application ran for, in nanoseconds.
+     */
+    long getWallTimeNanos();
+
+    /**
+     * Returns the CPU time of the thread running the application while it ran, in nanoseconds,
+     * or -1 if the JVM cannot measure it.
+     */
+    long getCpuTimeNanos();
+}
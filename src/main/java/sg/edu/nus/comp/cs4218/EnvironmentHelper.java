@@ -5,6 +5,9 @@ public final class EnvironmentHelper {
     /**
      * Java VM does not support changing the current working directory.
      * For this reason, we use EnvironmentHelper.currentDirectory instead.
+     * <p>
+     * This is the current directory of the global ShellContext. Sessions with a ShellContext of
+     * their own neither read nor change it.
      */
     public static volatile String currentDirectory = System.getProperty("user.dir");
 
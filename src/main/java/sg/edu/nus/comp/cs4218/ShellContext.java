@@ -0,0 +1,100 @@
+package sg.edu.nus.comp.cs4218;
+
+import sg.edu.nus.comp.cs4218.impl.util.JobTable;
+
+/**
+ * State of a shell session, such as its current directory and background jobs, carried through the Commands of the
+ * session to the applications they run.
+ * <p>
+ * Applications find the context of the Command running them with current(), since Commands bind
+ * their context to the thread they run on. Without a bound context, the global context is used,
+ * whose current directory is EnvironmentHelper.currentDirectory.
+ */
+public class ShellContext {
+    private static final ThreadLocal<ShellContext> BOUND_CONTEXT = new ThreadLocal<>();
+    private static final ShellContext GLOBAL_CONTEXT = new GlobalShellContext();
+
+    private final JobTable jobTable = new JobTable();
+    private volatile String currentDirectory;
+
+    /**
+     * @param currentDirectory Absolute path of the current directory of the session.
+     */
+    public ShellContext(String currentDirectory) {
+        this.currentDirectory = currentDirectory;
+    }
+
+    public String getCurrentDirectory() {
+        return currentDirectory;
+    }
+
+    public void setCurrentDirectory(String currentDirectory) {
+        this.currentDirectory = currentDirectory;
+    }
+
+    public JobTable getJobTable() {
+        return jobTable;
+    }
+
+    /**
+     * Returns the context backed by EnvironmentHelper, shared by everything that runs without a
+     * context of its own, such as the interactive shell.
+     */
+    public static ShellContext global() {
+        return GLOBAL_CONTEXT;
+    }
+
+    /**
+     * Returns the context bound to the current thread, or the global context if there is none.
+     */
+    public static ShellContext current() {
+        ShellContext context = BOUND_CONTEXT.get();
+        return context == null ? GLOBAL_CONTEXT : context;
+    }
+
+    /**
+     * Binds this context to the current thread until the returned scope is closed, which
+     * restores the context bound before.
+     */
+    public Scope bind() {
+        Scope scope = new Scope(BOUND_CONTEXT.get());
+        BOUND_CONTEXT.set(this);
+        return scope;
+    }
+
+    /**
+     * Binding of a context to a thread, to be closed on the same thread.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final ShellContext previousContext;
+
+        private Scope(ShellContext previousContext) {
+            this.previousContext = previousContext;
+        }
+
+        @Override
+        public void close() {
+            if (previousContext == null) {
+                BOUND_CONTEXT.remove();
+            } else {
+                BOUND_CONTEXT.set(previousContext);
+            }
+        }
+    }
+
+    private static final class GlobalShellContext extends ShellContext {
+        GlobalShellContext() {
+            super(null);
+        }
+
+        @Override
+        public String getCurrentDirectory() {
+            return EnvironmentHelper.currentDirectory;
+        }
+
+        @Override
+        public void setCurrentDirectory(String currentDirectory) {
+            EnvironmentHelper.currentDirectory = currentDirectory;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package sg.edu.nus.comp.cs4218.app;
+
+import sg.edu.nus.comp.cs4218.Application;
+
+public interface JobsInterface extends Application {
+    /**
+     * Returns the background jobs of the session and their status, one per line.
+     *
+     * @throws Exception
+     */
+    String listJobs() throws Exception;
+}
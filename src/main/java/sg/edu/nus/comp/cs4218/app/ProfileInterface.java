@@ -0,0 +1,18 @@
+package sg.edu.nus.comp.cs4218.app;
+
+import sg.edu.nus.comp.cs4218.Application;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface ProfileInterface extends Application {
+    /**
+     * Runs a command line while recording it, then writes a summary of the recording.
+     *
+     * @param commandLine Command line to run
+     * @param stdin       InputStream of the command
+     * @param stdout      OutputStream of the command, followed by the summary
+     * @throws Exception
+     */
+    void profile(String commandLine, InputStream stdin, OutputStream stdout) throws Exception;
+}
@@ -0,0 +1,18 @@
+package sg.edu.nus.comp.cs4218.app;
+
+import sg.edu.nus.comp.cs4218.Application;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface TimeInterface extends Application {
+    /**
+     * Runs a command line while measuring each of its stages, then writes the measurements.
+     *
+     * @param commandLine Command line to run
+     * @param stdin       InputStream of the command
+     * @param stdout      OutputStream of the command, followed by the measurements
+     * @throws Exception
+     */
+    void time(String commandLine, InputStream stdin, OutputStream stdout) throws Exception;
+}
@@ -0,0 +1,21 @@
+package sg.edu.nus.comp.cs4218.app;
+
+import sg.edu.nus.comp.cs4218.Application;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface TimeoutInterface extends Application {
+    /**
+     * Runs an application, stopping it if it is still running after the given duration.
+     *
+     * @param seconds Duration in seconds, may be fractional
+     * @param app     Name of the application to run
+     * @param args    Arguments of the application
+     * @param stdin   InputStream of the application
+     * @param stdout  OutputStream of the application
+     * @throws Exception
+     */
+    void runWithTimeout(double seconds, String app, String[] args, InputStream stdin, OutputStream stdout)
+            throws Exception;
+}
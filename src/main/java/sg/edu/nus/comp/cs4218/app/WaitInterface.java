@@ -0,0 +1,17 @@
+package sg.edu.nus.comp.cs4218.app;
+
+import sg.edu.nus.comp.cs4218.Application;
+
+import java.io.OutputStream;
+
+public interface WaitInterface extends Application {
+    /**
+     * Waits for background jobs of the session to finish and writes their output to stdout.
+     *
+     * @param stdout OutputStream the output of the jobs is written to
+     * @param jobIds Numbers of the jobs to wait for, optionally prefixed with %, or none to wait
+     *               for every job
+     * @throws Exception
+     */
+    void waitForJobs(OutputStream stdout, String... jobIds) throws Exception;
+}
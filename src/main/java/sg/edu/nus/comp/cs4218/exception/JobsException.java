@@ -0,0 +1,10 @@
+package sg.edu.nus.comp.cs4218.exception;
+
+public class JobsException extends AbstractApplicationException {
+
+    private static final long serialVersionUID = 1090300278163092505L;
+
+    public JobsException(String message) {
+        super("jobs: " + message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package sg.edu.nus.comp.cs4218.exception;
+
+public class ProfileException extends AbstractApplicationException {
+
+    private static final long serialVersionUID = 5294461750394081127L;
+
+    public ProfileException(String message) {
+        super("profile: " + message);
+    }
+}
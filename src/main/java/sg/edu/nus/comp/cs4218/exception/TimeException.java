@@ -0,0 +1,10 @@
+package sg.edu.nus.comp.cs4218.exception;
+
+public class TimeException extends AbstractApplicationException {
+
+    private static final long serialVersionUID = -3177410569237584112L;
+
+    public TimeException(String message) {
+        super("time: " + message);
+    }
+}
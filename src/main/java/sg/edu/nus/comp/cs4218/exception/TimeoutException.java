@@ -0,0 +1,10 @@
+package sg.edu.nus.comp.cs4218.exception;
+
+public class TimeoutException extends AbstractApplicationException {
+
+    private static final long serialVersionUID = -3178360904070914438L;
+
+    public TimeoutException(String message) {
+        super("timeout: " + message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package sg.edu.nus.comp.cs4218.exception;
+
+public class WaitException extends AbstractApplicationException {
+
+    private static final long serialVersionUID = -690045968635697851L;
+
+    public WaitException(String message) {
+        super("wait: " + message);
+    }
+}
\ No newline at end of file
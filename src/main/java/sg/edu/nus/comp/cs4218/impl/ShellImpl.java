@@ -3,33 +3,85 @@ package sg.edu.nus.comp.cs4218.impl;
 import sg.edu.nus.comp.cs4218.Command;
 import sg.edu.nus.comp.cs4218.EnvironmentHelper;
 import sg.edu.nus.comp.cs4218.Shell;
+import sg.edu.nus.comp.cs4218.ShellContext;
 import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
 import sg.edu.nus.comp.cs4218.exception.ExitException;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.impl.server.ShellServer;
 import sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner;
 import sg.edu.nus.comp.cs4218.impl.util.CommandBuilder;
+import sg.edu.nus.comp.cs4218.impl.util.CountingInputStream;
+import sg.edu.nus.comp.cs4218.impl.util.CountingOutputStream;
+import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
+import sg.edu.nus.comp.cs4218.impl.util.Job;
+import sg.edu.nus.comp.cs4218.impl.util.JobTable;
 import sg.edu.nus.comp.cs4218.impl.util.StringUtils;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
+import java.io.*;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_FLAG_PREFIX;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
 
 public class ShellImpl implements Shell {
+    public static final String OPTION_COMMAND = "-c";
+    public static final String OPTION_STATS = "--stats";
+    public static final String OPTION_SERVER = "--server";
+
+    public static final int EXIT_SUCCESS = 0;
+    public static final int EXIT_FAILURE = 1;
+    public static final int EXIT_USAGE = 2;
+    public static final int EXIT_NOT_FOUND = 127;
+
+    private static final String USAGE = "Usage: shell [--stats] [-c <command line> | <script file>]"
+            + STRING_NEWLINE + "       shell --server [--port <port>] [--max-sessions <count>]";
+    private static final String EXIT_PREFIX = "exit: ";
+    private static final char CHAR_COMMENT = '#';
+    private static final double BYTES_PER_MB = 1024 * 1024;
+
+    private final ApplicationRunner appRunner = new ApplicationRunner();
+    private final ShellContext context;
+
+    /**
+     * Creates a shell sharing the global context, whose current directory is
+     * EnvironmentHelper.currentDirectory.
+     */
+    public ShellImpl() {
+        this(ShellContext.global());
+    }
+
+    /**
+     * Creates a shell running its commands in the given context, independently of shells with
+     * other contexts.
+     */
+    public ShellImpl(ShellContext context) {
+        this.context = context;
+    }
 
     /**
      * Main method for the Shell Interpreter program.
+     * <p>
+     * Without arguments, reads commands from an interactive prompt. Otherwise runs the command
+     * line given with -c, or the script file, and exits with the status of the last command.
+     * With --server, serves command lines from ShellClient until killed, see ShellServer.
      *
-     * @param args List of strings arguments, unused.
+     * @param args [--stats] [-c command line | script file], or --server [server options]
      */
     public static void main(String... args) {
+        if (args.length > 0) {
+            System.exit(run(args));
+        }
+
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(System.in))) {
-            Shell shell = new ShellImpl();
+            ShellImpl shell = new ShellImpl();
 
             String commandString = "";
 
             do {
 
+                shell.reportFinishedJobs(System.out);
                 String currentDirectory = EnvironmentHelper.currentDirectory;
                 System.out.print(currentDirectory + "> ");
 
@@ -62,10 +114,219 @@ public class ShellImpl implements Shell {
         }
     }
 
+    /**
+     * Runs the command line or script file given in the arguments, with the process stdin as the
+     * stdin of the commands.
+     * <p>
+     * With --stats, the number of commands run, the bytes read from stdin and written to stdout,
+     * and the throughput are printed to stderr at the end.
+     *
+     * @param args [--stats] [-c command line | script file]
+     * @return Exit status: that of ExitException if exit was run, otherwise EXIT_FAILURE if the
+     * last command failed, EXIT_USAGE for invalid arguments, EXIT_NOT_FOUND if the script file
+     * cannot be read, and EXIT_SUCCESS otherwise.
+     */
+    public static int run(String... args) {
+        if (args.length > 0 && OPTION_SERVER.equals(args[0])) {
+            return ShellServer.run(Arrays.copyOfRange(args, 1, args.length));
+        }
+
+        int index = 0;
+        boolean isStats = false;
+        if (index < args.length && OPTION_STATS.equals(args[index])) {
+            isStats = true;
+            index++;
+        }
+
+        String commandLine = null;
+        String scriptFile = null;
+        if (index + 2 == args.length && OPTION_COMMAND.equals(args[index])) {
+            commandLine = args[index + 1];
+        } else if (index + 1 == args.length && args[index].indexOf(CHAR_FLAG_PREFIX) != 0) {
+            scriptFile = args[index];
+        } else {
+            System.err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        InputStream processStdin = System.in;
+        PrintStream processStdout = System.out;
+        CountingInputStream stdin = null;
+        CountingOutputStream stdout = null;
+        if (isStats) {
+            // replace the process streams so that Commands still recognise them and leave them open
+            stdin = new CountingInputStream(processStdin);
+            stdout = new CountingOutputStream(processStdout);
+            System.setIn(stdin);
+            System.setOut(new PrintStream(stdout, true));
+        }
+
+        try {
+            long startTime = System.nanoTime();
+            ScriptResult result;
+            if (commandLine == null) {
+                try (BufferedReader reader = Files.newBufferedReader(IOUtils.resolveFilePath(scriptFile))) {
+                    result = new ShellImpl().runScript(reader, System.in, System.out, System.err);
+                } catch (IOException e) {
+                    System.err.println(new ShellException(scriptFile + ": " + ERR_FILE_NOT_FOUND).getMessage());
+                    return EXIT_NOT_FOUND;
+                }
+            } else {
+                result = new ShellImpl().runScript(new BufferedReader(new StringReader(commandLine)),
+                        System.in, System.out, System.err);
+            }
+            System.out.flush();
+
+            if (isStats) {
+                printStats(result.getCommandCount(), stdin.getCount(), stdout.getCount(),
+                        System.nanoTime() - startTime);
+            }
+            return result.getStatus();
+        } finally {
+            if (isStats) {
+                System.setIn(processStdin);
+                System.setOut(processStdout);
+            }
+        }
+    }
+
+    private static void printStats(int commandCount, long bytesIn, long bytesOut, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.err.printf("shell: %d commands in %.3f s, read %d bytes (%.2f MB/s), wrote %d bytes (%.2f MB/s)%n",
+                commandCount, seconds, bytesIn, bytesIn / BYTES_PER_MB / seconds,
+                bytesOut, bytesOut / BYTES_PER_MB / seconds);
+    }
+
+    /**
+     * Runs every line of the script as a command line, skipping blank lines and lines starting
+     * with #. A failing command line does not stop the script, but exit does.
+     * <p>
+     * Background jobs still running at the end of the script are waited for, so that their
+     * output is not lost.
+     *
+     * @param reader Reader of the script.
+     * @param stdin  InputStream for the commands to get input from.
+     * @param stdout OutputStream for the commands to write their output to.
+     * @param stderr PrintStream the error messages of failing command lines are written to.
+     * @return The exit status and the number of command lines run.
+     */
+    public ScriptResult runScript(BufferedReader reader, InputStream stdin, OutputStream stdout,
+                                  PrintStream stderr) {
+        ScriptResult result = runLines(reader, stdin, stdout, stderr);
+        try {
+            context.getJobTable().awaitAll(stdout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            stderr.println(e.getMessage());
+        }
+        return result;
+    }
+
+    private ScriptResult runLines(BufferedReader reader, InputStream stdin, OutputStream stdout,
+                                  PrintStream stderr) {
+        int status = EXIT_SUCCESS;
+        int commandCount = 0;
+        try {
+            String commandString;
+            while ((commandString = reader.readLine()) != null) {
+                if (StringUtils.isBlank(commandString) || commandString.trim().charAt(0) == CHAR_COMMENT) {
+                    continue;
+                }
+                commandCount++;
+                try {
+                    parseAndEvaluate(commandString, stdin, stdout);
+                    status = EXIT_SUCCESS;
+                } catch (ExitException e) {
+                    return new ScriptResult(getExitStatus(e), commandCount);
+                } catch (AbstractApplicationException | ShellException e) {
+                    // keep the error in order with the output before it
+                    stdout.flush();
+                    stderr.println(e.getMessage());
+                    status = EXIT_FAILURE;
+                }
+            }
+        } catch (IOException e) {
+            stderr.println(e.getMessage());
+            status = EXIT_FAILURE;
+        }
+        return new ScriptResult(status, commandCount);
+    }
+
+    /**
+     * Writes the output of every finished background job followed by its status, and removes
+     * the job, as the interactive shell does before each prompt.
+     */
+    private void reportFinishedJobs(PrintStream stdout) throws IOException {
+        JobTable jobTable = context.getJobTable();
+        for (Job job : jobTable.getJobs()) {
+            if (!job.isFinished()) {
+                continue;
+            }
+            try {
+                jobTable.await(job, stdout);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            stdout.println(job);
+        }
+    }
+
+    private static int getExitStatus(ExitException exception) {
+        String message = exception.getMessage();
+        try {
+            return Integer.parseInt(message.substring(message.indexOf(EXIT_PREFIX) + EXIT_PREFIX.length()));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return EXIT_FAILURE;
+        }
+    }
+
     @Override
     public void parseAndEvaluate(String commandString, OutputStream stdout)
             throws AbstractApplicationException, ShellException {
-        Command command = CommandBuilder.parseCommand(commandString, new ApplicationRunner());
-        command.evaluate(System.in, stdout);
+        parseAndEvaluate(commandString, System.in, stdout);
+    }
+
+    /**
+     * Parses and evaluates the command line with the given stdin.
+     */
+    public void parseAndEvaluate(String commandString, InputStream stdin, OutputStream stdout)
+            throws AbstractApplicationException, ShellException {
+        Command command = CommandBuilder.parseCommand(commandString, appRunner);
+        command.evaluate(stdin, stdout, context);
+    }
+
+    public ShellContext getContext() {
+        return context;
+    }
+
+    /**
+     * Returns the ApplicationRunner of the shell, on which interceptors of the applications it
+     * runs can be registered.
+     */
+    public ApplicationRunner getApplicationRunner() {
+        return appRunner;
+    }
+
+    /**
+     * Exit status and number of command lines run of a script.
+     */
+    public static final class ScriptResult {
+        private final int status;
+        private final int commandCount;
+
+        public ScriptResult(int status, int commandCount) {
+            this.status = status;
+            this.commandCount = commandCount;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public int getCommandCount() {
+            return commandCount;
+        }
     }
 }
@@ -1,6 +1,6 @@
 package sg.edu.nus.comp.cs4218.impl.app;
 
-import sg.edu.nus.comp.cs4218.EnvironmentHelper;
+import sg.edu.nus.comp.cs4218.ShellContext;
 import sg.edu.nus.comp.cs4218.app.CdInterface;
 import sg.edu.nus.comp.cs4218.exception.CdException;
 import sg.edu.nus.comp.cs4218.impl.util.StringUtils;
@@ -25,7 +25,7 @@ public class CdApplication implements CdInterface {
      */
     @Override
     public void changeToDirectory(String path) throws CdException {
-        EnvironmentHelper.currentDirectory = getNormalizedAbsolutePath(path);
+        ShellContext.current().setCurrentDirectory(getNormalizedAbsolutePath(path));
     }
 
     /**
@@ -72,7 +72,7 @@ public class CdApplication implements CdInterface {
 
         Path path = new File(pathStr).toPath();
         if (!path.isAbsolute()) {
-            path = Paths.get(EnvironmentHelper.currentDirectory, pathStr);
+            path = Paths.get(ShellContext.current().getCurrentDirectory(), pathStr);
         }
 
         if (!Files.exists(path)) {
@@ -1,6 +1,6 @@
 package sg.edu.nus.comp.cs4218.impl.app;
 
-import sg.edu.nus.comp.cs4218.EnvironmentHelper;
+import sg.edu.nus.comp.cs4218.ShellContext;
 import sg.edu.nus.comp.cs4218.app.DiffInterface;
 import sg.edu.nus.comp.cs4218.exception.DiffException;
 import sg.edu.nus.comp.cs4218.impl.app.args.DiffArguments;
@@ -160,10 +160,12 @@ public class DiffApplication implements DiffInterface { //NOPMD
             BufferedReader readerB = new BufferedReader(frB); //NOPMD
             String tempA = readerA.readLine(), tempB = readerB.readLine();
             while (tempA != null) {
+                IOUtils.checkInterrupted();
                 fileALines.add(tempA);
                 tempA = readerA.readLine();
             }
             while (tempB != null) {
+                IOUtils.checkInterrupted();
                 fileBLines.add(tempB);
                 tempB = readerB.readLine();
             }
@@ -276,6 +278,7 @@ public class DiffApplication implements DiffInterface { //NOPMD
             BufferedReader bufferedReader = new BufferedReader(fr); //NOPMD
             String currentLine = bufferedReader.readLine();
             while (currentLine != null) {
+                IOUtils.checkInterrupted();
                 fileContents.add(currentLine);
                 currentLine = bufferedReader.readLine();
             }
@@ -351,7 +354,7 @@ public class DiffApplication implements DiffInterface { //NOPMD
      */
     private String convertToAbsolutePath(String fileName) {
         String home = System.getProperty("user.home").trim();
-        String currentDir = EnvironmentHelper.currentDirectory.trim();
+        String currentDir = ShellContext.current().getCurrentDirectory().trim();
         String convertedPath = convertPathToSystemPath(fileName);
 
         String newPath;
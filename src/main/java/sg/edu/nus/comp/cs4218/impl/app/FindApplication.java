@@ -1,6 +1,6 @@
 package sg.edu.nus.comp.cs4218.impl.app;
 
-import sg.edu.nus.comp.cs4218.EnvironmentHelper;
+import sg.edu.nus.comp.cs4218.ShellContext;
 import sg.edu.nus.comp.cs4218.app.FindInterface;
 import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
 import sg.edu.nus.comp.cs4218.exception.FindException;
@@ -15,6 +15,8 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
+import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
+
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.*;
 
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_FILE_SEP;
@@ -186,6 +188,7 @@ public class FindApplication implements FindInterface {
         filePattern = checkFilePattern(fileName);
 
         for (String f : folderName) {
+            IOUtils.checkInterrupted();
             String path = convertToAbsolutePath(f);
 
             File folder = new File(path);
@@ -243,7 +246,7 @@ public class FindApplication implements FindInterface {
      */
     private String convertToAbsolutePath(String folderName) {
         String home = System.getProperty("user.home").trim();
-        String currentDir = EnvironmentHelper.currentDirectory.trim();
+        String currentDir = ShellContext.current().getCurrentDirectory().trim();
         String convertedPath = convertPathToSystemPath(folderName);
 
         String newPath;
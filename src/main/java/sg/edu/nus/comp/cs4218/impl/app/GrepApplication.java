@@ -1,15 +1,34 @@
 package sg.edu.nus.comp.cs4218.impl.app;
 
-import sg.edu.nus.comp.cs4218.EnvironmentHelper;
+import sg.edu.nus.comp.cs4218.ShellContext;
 import sg.edu.nus.comp.cs4218.app.GrepInterface;
 import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
 import sg.edu.nus.comp.cs4218.exception.GrepException;
+import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
+import sg.edu.nus.comp.cs4218.impl.util.InterruptibleCharSequence;
+import sg.edu.nus.comp.cs4218.impl.util.LiteralFinder;
 import sg.edu.nus.comp.cs4218.impl.util.StringUtils;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.StringJoiner;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -19,7 +38,45 @@ import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_FILE_SEP;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_FLAG_PREFIX;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
 
+/**
+ * The grep command searches files or stdin for lines that match a regular expression.
+ * <p>
+ * Several files are searched at the same time on a pool shared by every grep, with a thread per
+ * processor by default, and at most MAX_PENDING_PER_THREAD files per thread are searched ahead of
+ * the output. The output is in the order of the files given: the file whose turn it is is written
+ * straight to the output, searching it on the calling thread if its search has not started yet,
+ * while the results of a file searched ahead are kept until its turn. Only MAX_PENDING_CHARS chars
+ * of them are kept, and a file with more results is searched again on the calling thread when its
+ * turn comes, so the results held at once are bounded however many lines match.
+ * <p>
+ * A pattern without metacharacters, or any pattern with -F, is a fixed string, and the lines of
+ * files that contain it are found by their bytes, see LiteralFinder, rather than by matching
+ * every line against a regular expression.
+ * <p>
+ * With -r, the files in directories and their subdirectories are searched too, in order of their
+ * paths, skipping hidden and binary files.
+ * <p>
+ * -l, -q and -m NUM stop reading a file, and close it, as soon as they know enough: -l lists the
+ * files that have a matching line, -q writes nothing and fails if no line matches, stopping at
+ * the first match of any file, and -m stops each file after NUM matching lines.
+ */
 public class GrepApplication implements GrepInterface {
+    /**
+     * System property for the number of threads files are searched on across all greps,
+     * e.g. {@code -Dcs4218.grep.threads=4}. Defaults to the number of processors.
+     */
+    public static final String PROP_THREADS = "cs4218.grep.threads";
+    public static final int MAX_PENDING_PER_THREAD = 2;
+    public static final int MAX_PENDING_CHARS = 64 * 1024;
+
+    private static final int NUM_THREADS = Math.max(1,
+            Integer.getInteger(PROP_THREADS, Runtime.getRuntime().availableProcessors()));
+    private static final ExecutorService SEARCH_EXECUTOR = Executors.newFixedThreadPool(NUM_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "grep-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private static final String INVALID_PATTERN = "Invalid pattern syntax";
     private static final String EMPTY_PATTERN = "Pattern should not be empty.";
     private static final String IS_A_DIR = ": This is a directory" + StringUtils.STRING_NEWLINE;
@@ -29,116 +86,314 @@ public class GrepApplication implements GrepInterface {
     private static final String INVALID_REGEX = "Invalid regular expression supplied";
     private static final String NO_READ_PERM = ": Permission denied" + StringUtils.STRING_NEWLINE;
     private static final String NO_EMPTY_REGEX = "Regular expression cannot be empty";
+    private static final String NO_MATCH = "No line matched";
+    private static final String INVALID_MAX_COUNT = "Invalid max count";
+    private static final String STDIN_NAME = "(standard input)";
 
-    private static final int NUM_ARGUMENTS = 2;
+    private static final int NUM_ARGUMENTS = 6;
+    private static final int OUTPUT_BUFFER_SIZE = 8192;
     private static final char CASE_INSEN_IDENT = 'i';
     private static final char COUNT_IDENT = 'c';
+    private static final char FIXED_IDENT = 'F';
+    private static final char RECURSIVE_IDENT = 'r';
+    private static final char LIST_IDENT = 'l';
+    private static final char QUIET_IDENT = 'q';
+    private static final char MAX_COUNT_IDENT = 'm';
     private static final int CASE_INSEN_IDX = 0;
     private static final int COUNT_INDEX = 1;
+    private static final int FIXED_INDEX = 2;
+    private static final int RECURSIVE_INDEX = 3;
+    private static final int LIST_INDEX = 4;
+    private static final int QUIET_INDEX = 5;
+    private static final int BINARY_CHECK_SIZE = 8192;
 
     @Override
     public String grepFromFiles(String pattern, Boolean isCaseInsensitive, Boolean isCountLines, String... fileNames) throws Exception {
-        if (fileNames == null || pattern == null) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        grepFromFiles(pattern, isCaseInsensitive, isCountLines, output, fileNames);
+        return output.toString();
+    }
+
+    @Override
+    public void grepFromFiles(String pattern, Boolean isCaseInsensitive, Boolean isCountLines, OutputStream stdout,
+                              String... fileNames) throws Exception {
+        grepFromFiles(pattern, isCaseInsensitive, isCountLines, false, stdout, fileNames);
+    }
+
+    @Override
+    public void grepFromFilesRecursively(String pattern, Boolean isCaseInsensitive, Boolean isCountLines,
+                                         OutputStream stdout, String... fileNames) throws Exception {
+        grepFromFiles(pattern, isCaseInsensitive, isCountLines, true, stdout, fileNames);
+    }
+
+    private void grepFromFiles(String pattern, Boolean isCaseInsensitive, Boolean isCountLines, boolean isRecursive,
+                               OutputStream stdout, String... fileNames) throws Exception {
+        if (fileNames == null || pattern == null || stdout == null) {
             throw new GrepException(NULL_POINTER);
         }
         if (isCaseInsensitive == null || isCountLines == null) {
             throw new GrepException(NULL_POINTER);
         }
-        try {
-            Pattern.compile(pattern);
-        } catch (PatternSyntaxException e) {
-            throw (GrepException) new GrepException(INVALID_REGEX).initCause(e);
+        Search search = compileSearch(pattern, isCaseInsensitive, isCountLines);
+        search.isSkippingBinary = isRecursive;
+        grepFromFiles(search, isRecursive, stdout, fileNames);
+    }
+
+    private void grepFromFiles(Search search, boolean isRecursive, OutputStream stdout, String... fileNames)
+            throws Exception {
+        if (fileNames == null || stdout == null) {
+            throw new GrepException(NULL_POINTER);
         }
+        Writer writer = createWriter(stdout);
         if (fileNames[0].equals("") && fileNames.length == 1) {
-            return IS_A_DIR;
+            writer.write(IS_A_DIR);
+        } else if (isRecursive) {
+            List<String> files = new ArrayList<>();
+            boolean hasDirectory = false;
+            for (String f : fileNames) {
+                File file = new File(convertToAbsolutePath(f));
+                if (f.trim().isEmpty() || !file.isDirectory()) {
+                    files.add(f);
+                    continue;
+                }
+                hasDirectory = true;
+                listFilesRecursively(Paths.get(f), file.toPath(), files);
+            }
+            grepResultsFromFiles(search, hasDirectory || files.size() > 1, writer, files.toArray(new String[0]));
+        } else {
+            grepResultsFromFiles(search, fileNames.length > 1, writer, fileNames);
         }
-        StringJoiner lineResults = new StringJoiner(STRING_NEWLINE);
-        StringJoiner countResults = new StringJoiner(STRING_NEWLINE);
+        writer.flush();
+    }
 
-        grepResultsFromFiles(pattern, isCaseInsensitive, lineResults, countResults, fileNames);
-        String results = "";
-        if (isCountLines) {
-            results = countResults.toString() + STRING_NEWLINE;
-        } else {
-            if (!lineResults.toString().isEmpty()) {
-                results = lineResults.toString() + STRING_NEWLINE;
+    /**
+     * Adds the files in a directory and its subdirectories to files, in order of their paths.
+     * Hidden files and directories are skipped, as by ls, and so are symbolic links and
+     * directories that cannot be read.
+     *
+     * @param name the name of the directory, which the names of the files added start with
+     * @param directory the absolute path of the directory
+     * @param files a List of the names of the files found
+     */
+    private static void listFilesRecursively(Path name, Path directory, List<String> files) {
+        List<Path> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path entry : stream) {
+                if (!entry.toFile().isHidden()) {
+                    entries.add(entry);
+                }
+            }
+        } catch (IOException | DirectoryIteratorException e) {
+            return;
+        }
+        Collections.sort(entries);
+        for (Path entry : entries) {
+            IOUtils.checkInterrupted();
+            Path entryName = name.resolve(entry.getFileName());
+            if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                listFilesRecursively(entryName, entry, files);
+            } else if (Files.isRegularFile(entry, LinkOption.NOFOLLOW_LINKS)) {
+                files.add(entryName.toString());
             }
         }
-        return results;
     }
 
     /**
-     * Extract the lines and count number of lines for grep from files and insert them into
-     * lineResults and countResults respectively.
+     * Writes the matching lines, or the number of matching lines, of each file in order. A file
+     * that does not exist or is a directory is reported in its place.
      *
-     * @param pattern supplied by user
-     * @param isCaseInsensitive supplied by user
-     * @param lineResults a StringJoiner of the grep line results
-     * @param countResults a StringJoiner of the grep line count results
+     * @param search the search supplied by user
+     * @param isPrefixed whether the results of each file are prefixed with its name
+     * @param writer a Writer of the grep results
      * @param fileNames a String Array of file names supplied by user
      */
-    private void grepResultsFromFiles(String pattern, Boolean isCaseInsensitive, StringJoiner lineResults, StringJoiner countResults, String... fileNames) throws Exception {
-        int count;
-        boolean isSingleFile = (fileNames.length == 1);
-        for (String f : fileNames) {
-            BufferedReader reader = null;
-            try {
-                String path = convertToAbsolutePath(f);
-                File file = new File(path);
-                if (!file.exists()  || f.trim().equals("")) {
-                    lineResults.add(f + ": " + ERR_FILE_NOT_FOUND);
-                    countResults.add(f + ": " + ERR_FILE_NOT_FOUND);
-                    continue;
-                }
-
-                if (file.isDirectory()) { // ignore if it's a directory
-                    lineResults.add(f + ": " + IS_DIRECTORY);
-                    countResults.add(f + ": " + IS_DIRECTORY);
-                    continue;
+    private void grepResultsFromFiles(Search search, boolean isPrefixed, Writer writer, String... fileNames)
+            throws Exception {
+        if (fileNames.length == 1) {
+            grepResultsFromFile(search, isPrefixed, fileNames[0], convertToAbsolutePath(fileNames[0]), writer);
+            return;
+        }
+        // the futures of fileNames[first] to fileNames[next - 1], whose results are null if too large
+        Deque<Future<String>> pending = new ArrayDeque<>();
+        int first = 0;
+        int next = 0;
+        try {
+            while (first < fileNames.length) {
+                while (next < fileNames.length && pending.size() < NUM_THREADS * MAX_PENDING_PER_THREAD) {
+                    String fileName = fileNames[next++];
+                    // paths are resolved here, as the current directory belongs to the calling thread
+                    String path = convertToAbsolutePath(fileName);
+                    pending.add(SEARCH_EXECUTOR.submit(() -> {
+                        PendingResults results = new PendingResults();
+                        try {
+                            grepResultsFromFile(search, isPrefixed, fileName, path, results);
+                        } catch (PendingResults.OverflowException e) {
+                            return null;
+                        }
+                        return results.toString();
+                    }));
                 }
-                reader = new BufferedReader(new FileReader(path));
-                Pattern compiledPattern;
-                if (isCaseInsensitive) {
-                    compiledPattern = Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
+                Future<String> future = pending.peek();
+                // a search that has not started is not waited for, but done here
+                String results = future.cancel(false) ? null : awaitResults(future);
+                pending.remove();
+                String fileName = fileNames[first++];
+                if (results == null) {
+                    grepResultsFromFile(search, isPrefixed, fileName, convertToAbsolutePath(fileName), writer);
                 } else {
-                    compiledPattern = Pattern.compile(pattern);
+                    writer.write(results);
                 }
-                count = addMatchedPatternToLineResult(isSingleFile, reader, compiledPattern, f, lineResults);
-                if (isSingleFile) {
-                    countResults.add("" + count);
-                } else {
-                    countResults.add(f + ": " + count);
+                if (search.isQuiet && search.isMatchFound.get()) {
+                    break;
                 }
-                reader.close();
-            } catch (PatternSyntaxException pse) {
-                throw (GrepException) new GrepException(ERR_INVALID_REGEX).initCause(pse);
-            } finally {
-                if (reader != null) {
-                    reader.close();
+            }
+        } finally {
+            for (Future<String> future : pending) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Writes the matching lines, or the number of matching lines, of one file, or the reason the
+     * file cannot be searched.
+     *
+     * @param search the search supplied by user
+     * @param isPrefixed whether the results are prefixed with the file name
+     * @param fileName the file name supplied by user
+     * @param path the absolute path of the file
+     * @param writer a Writer of the grep results
+     */
+    private void grepResultsFromFile(Search search, boolean isPrefixed, String fileName, String path, Writer writer)
+            throws IOException {
+        if (search.isQuiet && search.isMatchFound.get()) {
+            return;
+        }
+        File file = new File(path);
+        if (!file.exists()  || fileName.trim().equals("")) {
+            if (!search.isQuiet) {
+                writeLine(writer, fileName + ": " + ERR_FILE_NOT_FOUND);
+            }
+            return;
+        }
+
+        if (file.isDirectory()) { // ignore if it's a directory
+            if (!search.isQuiet) {
+                writeLine(writer, fileName + ": " + IS_DIRECTORY);
+            }
+            return;
+        }
+        if (search.isSkippingBinary && isBinary(path)) {
+            return;
+        }
+        String prefix = isPrefixed ? fileName + ": " : null;
+        Writer linesWriter = search.isWritingLines() ? writer : null;
+        int count;
+        if (search.literalFinder == null) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+                count = writeMatchedLines(reader, search.compiledPattern, prefix, search.getMaxLines(), linesWriter);
+            }
+        } else {
+            try (FileChannel channel = new FileInputStream(path).getChannel()) {
+                count = writeMatchedLines(channel, search.literalFinder, prefix, search.getMaxLines(), linesWriter);
+            }
+        }
+        writeSummary(search, isPrefixed ? fileName : null, fileName, count, writer);
+    }
+
+    /**
+     * Writes what is written after the matching lines of a file or stdin, if anything: its name
+     * with -l if it has a matching line, or the number of its matching lines with -c.
+     *
+     * @param search the search supplied by user
+     * @param prefix the name the number of matching lines is prefixed with, or null for none
+     * @param name the name of the file or stdin
+     * @param count the number of matching lines
+     * @param writer a Writer of the grep results
+     */
+    private static void writeSummary(Search search, String prefix, String name, int count, Writer writer)
+            throws IOException {
+        if (count > 0) {
+            search.isMatchFound.set(true);
+        }
+        if (search.isQuiet) {
+            return;
+        }
+        if (search.isListingFiles) {
+            if (count > 0) {
+                writeLine(writer, name);
+            }
+        } else if (search.isCountLines) {
+            writeLine(writer, prefix == null ? String.valueOf(count) : prefix + ": " + count);
+        }
+    }
+
+    /**
+     * Returns whether a file is binary, that is whether its first BINARY_CHECK_SIZE bytes contain
+     * a NUL byte, which a text file does not have.
+     *
+     * @param path the absolute path of the file
+     */
+    private static boolean isBinary(String path) throws IOException {
+        byte[] bytes = new byte[BINARY_CHECK_SIZE];
+        try (InputStream input = new FileInputStream(path)) {
+            int numRead = 0;
+            int read;
+            while (numRead < bytes.length && (read = input.read(bytes, numRead, bytes.length - numRead)) >= 0) {
+                numRead += read;
+            }
+            for (int i = 0; i < numRead; i++) {
+                if (bytes[i] == 0) {
+                    return true;
                 }
             }
         }
+        return false;
+    }
+
+    /**
+     * Waits for the results of a file, rethrowing the exception the search of the file failed
+     * with.
+     *
+     * @throws CancellationException If the current thread is interrupted while waiting.
+     */
+    private static String awaitResults(Future<String> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw (CancellationException) new CancellationException(ERR_INTERRUPTED).initCause(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (Exception) cause;
+        }
     }
 
     /**
-     * Add lines that match pattern to an array of line result.
+     * Writes the lines that match pattern, and returns their number.
      *
-     * @param isSingleFile a condition to check if there is only 1 file supplied by user.
      * @param reader a reader with the file supplied by user to read the entire file
      * @param compiledPattern which was compiled from pattern supplied by user
-     * @param fileName supplied by user
-     * @param lineResults a StringJoiner of the grep line results
+     * @param prefix written before each matching line, or null for none
+     * @param maxLines the number of matching lines after which to stop reading
+     * @param writer a Writer of the grep line results, or null to only count the matching lines
      */
-    private int addMatchedPatternToLineResult(boolean isSingleFile, BufferedReader reader, Pattern compiledPattern, String fileName, StringJoiner lineResults) throws IOException {
+    private int writeMatchedLines(BufferedReader reader, Pattern compiledPattern, String prefix, int maxLines,
+                                  Writer writer) throws IOException {
         int count = 0;
+        Matcher matcher = compiledPattern.matcher("");
         String line;
-        while ((line = reader.readLine()) != null) {
-            Matcher matcher = compiledPattern.matcher(line);
-            if (matcher.find()) { // match
-                if (isSingleFile) {
-                    lineResults.add(line);
-                } else {
-                    lineResults.add(fileName + ": " + line);
+        while (count < maxLines && (line = reader.readLine()) != null) {
+            IOUtils.checkInterrupted();
+            if (matcher.reset(new InterruptibleCharSequence(line)).find()) { // match
+                if (writer != null) {
+                    if (prefix != null) {
+                        writer.write(prefix);
+                    }
+                    writeLine(writer, line);
                 }
                 count++;
             }
@@ -146,6 +401,59 @@ public class GrepApplication implements GrepInterface {
         return count;
     }
 
+    /**
+     * Writes the lines of a file that contain the fixed string of literalFinder, and returns their
+     * number.
+     *
+     * @param channel a FileChannel of the file supplied by user
+     * @param literalFinder a finder of the fixed string of the pattern supplied by user
+     * @param prefix written before each matching line, or null for none
+     * @param maxLines the number of matching lines after which to stop reading
+     * @param writer a Writer of the grep line results, or null to only count the matching lines
+     */
+    private int writeMatchedLines(FileChannel channel, LiteralFinder literalFinder, String prefix, int maxLines,
+                                  Writer writer) throws IOException {
+        if (writer == null) {
+            return literalFinder.findLines(channel, maxLines, null);
+        }
+        return literalFinder.findLines(channel, maxLines, line -> {
+            if (prefix != null) {
+                writer.write(prefix);
+            }
+            writeLine(writer, line);
+        });
+    }
+
+    private static void writeLine(Writer writer, String line) throws IOException {
+        writer.write(line);
+        writer.write(STRING_NEWLINE);
+    }
+
+    private static Pattern compilePattern(String pattern, boolean isCaseInsensitive) {
+        return isCaseInsensitive ? Pattern.compile(pattern, Pattern.CASE_INSENSITIVE) : Pattern.compile(pattern);
+    }
+
+    private static Search compileSearch(String pattern, boolean isCaseInsensitive, boolean isCountLines)
+            throws GrepException {
+        Pattern compiledPattern;
+        try {
+            compiledPattern = compilePattern(pattern, isCaseInsensitive);
+        } catch (PatternSyntaxException e) {
+            throw (GrepException) new GrepException(INVALID_REGEX).initCause(e);
+        }
+        return new Search(compiledPattern, LiteralFinder.compile(pattern, isCaseInsensitive, Charset.defaultCharset()),
+                isCountLines);
+    }
+
+    /**
+     * Returns a Writer of the results of one call, buffering them in OUTPUT_BUFFER_SIZE chars that
+     * are reused for every line. The buffer belongs to the call, as the application may be run
+     * by several threads at once.
+     */
+    private static Writer createWriter(OutputStream stdout) {
+        return new BufferedWriter(new OutputStreamWriter(stdout), OUTPUT_BUFFER_SIZE);
+    }
+
     /**
      * Converts filename to absolute path, if initially was relative path
      * @param fileName supplied by user
@@ -153,7 +461,7 @@ public class GrepApplication implements GrepInterface {
      */
     private String convertToAbsolutePath(String fileName) {
         String home = System.getProperty("user.home").trim();
-        String currentDir = EnvironmentHelper.currentDirectory.trim();
+        String currentDir = ShellContext.current().getCurrentDirectory().trim();
         String convertedPath = convertPathToSystemPath(fileName);
 
         String newPath;
@@ -185,50 +493,42 @@ public class GrepApplication implements GrepInterface {
 
     @Override
     public String grepFromStdin(String pattern, Boolean isCaseInsensitive, Boolean isCountLines, InputStream stdin) throws Exception {
-        int count = 0;
-        StringJoiner stringJoiner = new StringJoiner(STRING_NEWLINE);
-        if (isCaseInsensitive == null || isCountLines == null || pattern == null|| stdin == null) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        grepFromStdin(pattern, isCaseInsensitive, isCountLines, stdin, output);
+        return output.toString();
+    }
+
+    @Override
+    public void grepFromStdin(String pattern, Boolean isCaseInsensitive, Boolean isCountLines, InputStream stdin,
+                              OutputStream stdout) throws Exception {
+        if (isCaseInsensitive == null || isCountLines == null || pattern == null|| stdin == null || stdout == null) {
             throw new GrepException(NULL_POINTER);
         }
+        grepFromStdin(compileSearch(pattern, isCaseInsensitive, isCountLines), stdin, stdout);
+    }
+
+    private void grepFromStdin(Search search, InputStream stdin, OutputStream stdout) throws Exception {
+        if (stdin == null || stdout == null) {
+            throw new GrepException(NULL_POINTER);
+        }
+        Writer writer = createWriter(stdout);
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(stdin))) {
-            String line;
-            Pattern compiledPattern;
-            if (isCaseInsensitive) {
-                compiledPattern = Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
-            } else {
-                compiledPattern = Pattern.compile(pattern);
-            }
-            while ((line = reader.readLine()) != null) {
-                Matcher matcher = compiledPattern.matcher(line);
-                if (matcher.find()) { // match
-                    stringJoiner.add(line);
-                    count++;
-                }
-            }
-        } catch (PatternSyntaxException pse) {
-            throw (GrepException) new GrepException(ERR_INVALID_REGEX).initCause(pse);
+            int count = writeMatchedLines(reader, search.compiledPattern, null, search.getMaxLines(),
+                    search.isWritingLines() ? writer : null);
+            writeSummary(search, null, STDIN_NAME, count, writer);
         } catch (NullPointerException npe) {
             throw (GrepException) new GrepException(ERR_FILE_NOT_FOUND).initCause(npe);
         }
-
-        String results = "";
-        if (isCountLines) {
-            results = count + STRING_NEWLINE;
-        } else {
-            if (!stringJoiner.toString().isEmpty()) {
-                results = stringJoiner.toString() + STRING_NEWLINE;
-            }
-        }
-        return results;
+        writer.flush();
     }
 
     @Override
     public void run(String[] args, InputStream stdin, OutputStream stdout) throws AbstractApplicationException {
         try {
             boolean[] grepFlags = new boolean[NUM_ARGUMENTS];
+            int[] maxCount = {Integer.MAX_VALUE};
             ArrayList<String> inputFiles = new ArrayList<>();
-            String pattern = getGrepArguments(args, grepFlags, inputFiles);
-            String result = "";
+            String pattern = getGrepArguments(args, grepFlags, maxCount, inputFiles);
 
             if (stdin == null && inputFiles.isEmpty()) {
                 throw new Exception(ERR_NO_INPUT);
@@ -243,16 +543,25 @@ public class GrepApplication implements GrepInterface {
             if (pattern.isEmpty()) {
                 throw new Exception(EMPTY_PATTERN);
             } else {
+                if (grepFlags[FIXED_INDEX]) {
+                    pattern = Pattern.quote(pattern);
+                }
+                Search search = compileSearch(pattern, grepFlags[CASE_INSEN_IDX], grepFlags[COUNT_INDEX]);
+                search.isSkippingBinary = grepFlags[RECURSIVE_INDEX];
+                search.isListingFiles = grepFlags[LIST_INDEX];
+                search.isQuiet = grepFlags[QUIET_INDEX];
+                search.maxCount = maxCount[0];
                 if (inputFiles.isEmpty()) {
-                    result = grepFromStdin(pattern, grepFlags[CASE_INSEN_IDX], grepFlags[COUNT_INDEX], stdin);
+                    grepFromStdin(search, stdin, stdout);
                 } else {
                     String[] inputFilesArray = new String[inputFiles.size()];
                     inputFilesArray = inputFiles.toArray(inputFilesArray);
-                    result = grepFromFiles(pattern, grepFlags[CASE_INSEN_IDX], grepFlags[COUNT_INDEX], inputFilesArray);
-
+                    grepFromFiles(search, grepFlags[RECURSIVE_INDEX], stdout, inputFilesArray);
+                }
+                if (search.isQuiet && !search.isMatchFound.get()) {
+                    throw new GrepException(NO_MATCH);
                 }
             }
-            stdout.write(result.getBytes());
         } catch (GrepException grepException) {
             throw grepException;
         } catch (Exception e) {
@@ -264,28 +573,52 @@ public class GrepApplication implements GrepInterface {
      * Separates the arguments provided by user into the flags, pattern and input files.
      * @param args supplied by user
      * @param grepFlags a bool array of possible flags in grep
+     * @param maxCount an int array whose element is set to the number given with -m
      * @param inputFiles a ArrayList<String> of file names supplied by user
      * @return regex pattern supplied by user. An empty String if not supplied.
      */
-    private String getGrepArguments(String[] args, boolean[] grepFlags, ArrayList<String> inputFiles) throws Exception {
+    private String getGrepArguments(String[] args, boolean[] grepFlags, int[] maxCount, ArrayList<String> inputFiles)
+            throws Exception {
         String pattern = null;
         boolean isFile = false; // files can only appear after pattern
 
-        for (String s : args) {
+        for (int i = 0; i < args.length; i++) {
+            String s = args[i];
             char[] arg = s.toCharArray();
             if (isFile) {
                 inputFiles.add(s);
             } else {
                 if (!s.isEmpty() && arg[0] == CHAR_FLAG_PREFIX) {
-                    arg = Arrays.copyOfRange(arg, 1, arg.length);
-                    for (char c : arg) {
-                        switch (c) {
+                    for (int j = 1; j < arg.length; j++) {
+                        switch (arg[j]) {
                             case CASE_INSEN_IDENT:
                                 grepFlags[CASE_INSEN_IDX] = true;
                                 break;
                             case COUNT_IDENT:
                                 grepFlags[COUNT_INDEX] = true;
                                 break;
+                            case FIXED_IDENT:
+                                grepFlags[FIXED_INDEX] = true;
+                                break;
+                            case RECURSIVE_IDENT:
+                                grepFlags[RECURSIVE_INDEX] = true;
+                                break;
+                            case LIST_IDENT:
+                                grepFlags[LIST_INDEX] = true;
+                                break;
+                            case QUIET_IDENT:
+                                grepFlags[QUIET_INDEX] = true;
+                                break;
+                            case MAX_COUNT_IDENT:
+                                // the number is the rest of the argument, or else the next argument
+                                if (j + 1 < arg.length) {
+                                    maxCount[0] = parseMaxCount(s.substring(j + 1));
+                                } else {
+                                    i++;
+                                    maxCount[0] = parseMaxCount(i < args.length ? args[i] : null);
+                                }
+                                j = arg.length;
+                                break;
                             default:
                                 throw new GrepException(ERR_SYNTAX);
                         }
@@ -298,4 +631,100 @@ public class GrepApplication implements GrepInterface {
         }
         return pattern;
     }
+
+    private static int parseMaxCount(String number) throws GrepException {
+        try {
+            int maxCount = Integer.parseInt(number);
+            if (maxCount >= 0) {
+                return maxCount;
+            }
+        } catch (NumberFormatException e) {
+            throw (GrepException) new GrepException(INVALID_MAX_COUNT).initCause(e);
+        }
+        throw new GrepException(INVALID_MAX_COUNT);
+    }
+
+    /**
+     * What is searched for in each file, and when to stop reading it.
+     */
+    private static final class Search {
+        private final Pattern compiledPattern;
+        private final LiteralFinder literalFinder;
+        private final boolean isCountLines;
+        private final AtomicBoolean isMatchFound = new AtomicBoolean();
+        // the options below are set before the search starts
+        private boolean isSkippingBinary;
+        private boolean isListingFiles;
+        private boolean isQuiet;
+        private int maxCount = Integer.MAX_VALUE;
+
+        private Search(Pattern compiledPattern, LiteralFinder literalFinder, boolean isCountLines) {
+            this.compiledPattern = compiledPattern;
+            this.literalFinder = literalFinder;
+            this.isCountLines = isCountLines;
+        }
+
+        /**
+         * Returns the number of matching lines after which a file is not read further.
+         */
+        private int getMaxLines() {
+            return isListingFiles || isQuiet ? Math.min(1, maxCount) : maxCount;
+        }
+
+        private boolean isWritingLines() {
+            return !isCountLines && !isListingFiles && !isQuiet;
+        }
+    }
+
+    /**
+     * Results of a file searched ahead of the output, kept until its turn. Writing more than
+     * MAX_PENDING_CHARS chars throws OverflowException, which ends the search of the file.
+     */
+    private static final class PendingResults extends Writer {
+        private final StringBuilder results = new StringBuilder();
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            reserve(len);
+            results.append(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            reserve(len);
+            results.append(str, off, off + len);
+        }
+
+        private void reserve(int len) throws OverflowException {
+            if (len > MAX_PENDING_CHARS - results.length()) {
+                throw new OverflowException();
+            }
+        }
+
+        @Override
+        public void flush() {
+            // the results are only read once the search is done
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+
+        @Override
+        public String toString() {
+            return results.toString();
+        }
+
+        /**
+         * Thrown when the results of a file are too large to keep.
+         */
+        private static final class OverflowException extends IOException {
+            private static final long serialVersionUID = 1L;
+
+            private OverflowException() {
+                super("Results too large to keep");
+            }
+        }
+    }
 }
@@ -0,0 +1,64 @@
+package sg.edu.nus.comp.cs4218.impl.app;
+
+import sg.edu.nus.comp.cs4218.ShellContext;
+import sg.edu.nus.comp.cs4218.app.JobsInterface;
+import sg.edu.nus.comp.cs4218.exception.JobsException;
+import sg.edu.nus.comp.cs4218.impl.util.Job;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.*;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+/**
+ * The jobs command lists the background jobs of the session that have not been waited for, with
+ * whether they are still running.
+ *
+ * <p>
+ * <b>Command format:</b> <code>jobs</code>
+ * </p>
+ */
+public class JobsApplication implements JobsInterface {
+
+    /**
+     * Returns the background jobs of the session, one per line in the order they were started,
+     * e.g. {@code [1]  Running    find . -name a.txt}.
+     */
+    @Override
+    public String listJobs() {
+        StringBuilder builder = new StringBuilder();
+        for (Job job : ShellContext.current().getJobTable().getJobs()) {
+            builder.append(job).append(STRING_NEWLINE);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Runs the jobs application.
+     *
+     * @param args   Array of arguments for the application, must be empty.
+     * @param stdin  An InputStream, not used.
+     * @param stdout An OutputStream the jobs are listed to.
+     * @throws JobsException If any argument is given, or the jobs cannot be written to stdout.
+     */
+    @Override
+    public void run(String[] args, InputStream stdin, OutputStream stdout) throws JobsException {
+        if (args == null) {
+            throw new JobsException(ERR_NULL_ARGS);
+        }
+        if (stdout == null) {
+            throw new JobsException(ERR_NO_OSTREAM);
+        }
+        if (args.length > 0) {
+            throw new JobsException(ERR_TOO_MANY_ARGS);
+        }
+
+        try {
+            stdout.write(listJobs().getBytes());
+        } catch (IOException e) {
+            throw (JobsException) new JobsException(ERR_WRITE_STREAM).initCause(e);
+        }
+    }
+}
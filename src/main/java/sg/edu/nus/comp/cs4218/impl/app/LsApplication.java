@@ -1,10 +1,11 @@
 package sg.edu.nus.comp.cs4218.impl.app;
 
-import sg.edu.nus.comp.cs4218.EnvironmentHelper;
+import sg.edu.nus.comp.cs4218.ShellContext;
 import sg.edu.nus.comp.cs4218.app.LsInterface;
 import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
 import sg.edu.nus.comp.cs4218.exception.LsException;
 import sg.edu.nus.comp.cs4218.impl.parser.LsArgsParser;
+import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
 import sg.edu.nus.comp.cs4218.impl.util.StringUtils;
 
 import java.io.File;
@@ -45,7 +46,7 @@ public class LsApplication implements LsInterface {
 
         if (folderName.length == 0 && isRecursive) {
             String[] directories = new String[1];
-            directories[0] = EnvironmentHelper.currentDirectory;
+            directories[0] = ShellContext.current().getCurrentDirectory();
             paths = resolvePaths(directories);
             return buildResultForBaseDir(paths, isFoldersOnly, isRecursive);
         } else {
@@ -55,8 +56,7 @@ public class LsApplication implements LsInterface {
                 File currFile = new File(path.toString());
 
                 if(currFile.isDirectory() && !isFoldersOnly){
-                    EnvironmentHelper.currentDirectory = paths.get(0).toString();
-                    return listCwdContent(isFoldersOnly);
+                    return listDirectoryContent(path, isFoldersOnly);
                 }
             }
         }
@@ -76,7 +76,6 @@ public class LsApplication implements LsInterface {
         }
 
         LsArgsParser parser = new LsArgsParser();
-        String currentDirectory = EnvironmentHelper.currentDirectory;
         try {
             parser.parse(args);
         } catch (InvalidArgsException e) {
@@ -97,7 +96,6 @@ public class LsApplication implements LsInterface {
         } catch (Exception e) {
             throw (LsException) new LsException(ERR_WRITE_STREAM).initCause(e);
         }
-        EnvironmentHelper.currentDirectory = currentDirectory;
     }
 
     /**
@@ -108,9 +106,20 @@ public class LsApplication implements LsInterface {
      * @return
      */
     private String listCwdContent(Boolean isFoldersOnly) throws LsException {
-        String cwd = EnvironmentHelper.currentDirectory;
+        return listDirectoryContent(Paths.get(ShellContext.current().getCurrentDirectory()), isFoldersOnly);
+    }
+
+    /**
+     * Lists only the given directory's content and RETURNS. This does not account for recursive
+     * mode.
+     *
+     * @param directory
+     * @param isFoldersOnly
+     * @return
+     */
+    private String listDirectoryContent(Path directory, Boolean isFoldersOnly) throws LsException {
         try {
-            return formatContents(getContents(Paths.get(cwd), isFoldersOnly));
+            return formatContents(getContents(directory, isFoldersOnly));
         } catch (InvalidDirectoryException e) {
             throw (LsException) new LsException("Unexpected error occurred!").initCause(e);
         }
@@ -211,7 +220,7 @@ public class LsApplication implements LsInterface {
                 if(file.isDirectory() && !isFoldersOnly) {
                     List<Path> contents = getContents(path, isFoldersOnly);
                     String formatted = formatContents(contents);
-                    if(!path.toString().equals(EnvironmentHelper.currentDirectory)){
+                    if(!path.toString().equals(ShellContext.current().getCurrentDirectory())){
                         buildRelativePathForBaseDir(isRecursive, result, path);
                         result.append(':').append(System.lineSeparator());
                     }
@@ -272,6 +281,7 @@ public class LsApplication implements LsInterface {
     }
 
     private void buildRecurse(Boolean isFoldersOnly, Boolean isRecursive, StringBuilder result, List<Path> contents, List<Path> contentRe , List<String> folderNames) throws LsException {
+        IOUtils.checkInterrupted();
         for(Path content : contents) {
             File fileCheck = new File(content.toString());
             if(fileCheck.isDirectory()) {
@@ -282,6 +292,7 @@ public class LsApplication implements LsInterface {
     }
 
     private void buildRecurseForNoArgs(Boolean isFoldersOnly, Boolean isRecursive, StringBuilder result, List<Path> contents, List<Path> contentRe) {
+        IOUtils.checkInterrupted();
         for(Path content : contents) {
             File fileCheck = new File(content.toString());
             if(fileCheck.isDirectory()) {
@@ -374,7 +385,7 @@ public class LsApplication implements LsInterface {
             return Paths.get(directory).normalize();
         }
 
-        return Paths.get(EnvironmentHelper.currentDirectory, directory).normalize();
+        return Paths.get(ShellContext.current().getCurrentDirectory(), directory).normalize();
     }
 
     /**
@@ -384,7 +395,7 @@ public class LsApplication implements LsInterface {
      * @return
      */
     private Path getRelativeToCwd(Path path) {
-        return Paths.get(EnvironmentHelper.currentDirectory).relativize(path);
+        return Paths.get(ShellContext.current().getCurrentDirectory()).relativize(path);
     }
 
     private class InvalidDirectoryException extends Exception {
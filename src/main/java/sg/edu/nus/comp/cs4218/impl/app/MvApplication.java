@@ -1,6 +1,6 @@
 package sg.edu.nus.comp.cs4218.impl.app;
 
-import sg.edu.nus.comp.cs4218.EnvironmentHelper;
+import sg.edu.nus.comp.cs4218.ShellContext;
 import sg.edu.nus.comp.cs4218.app.MvInterface;
 import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
 import sg.edu.nus.comp.cs4218.exception.MvException;
@@ -80,7 +80,7 @@ public class MvApplication implements MvInterface {
         }
         for(String source: sources) {
 
-            String currentDir = EnvironmentHelper.currentDirectory.trim();
+            String currentDir = ShellContext.current().getCurrentDirectory().trim();
 
             StringBuilder stringbuilder = new StringBuilder(currentDir);
             stringbuilder.append(dest);
@@ -199,6 +199,7 @@ public class PasteApplication implements PasteInterface {
         boolean hasMoreLines = true;
         String previousLine = "";
         while (hasMoreLines) {
+            IOUtils.checkInterrupted();
             boolean allLinesNull = true;
                 for (int i = 0; i < bufferedReaders.length; i++) {
                     String currentLine = bufferedReaders[i].readLine();
@@ -0,0 +1,121 @@
+package sg.edu.nus.comp.cs4218.impl.app;
+
+import sg.edu.nus.comp.cs4218.Command;
+import sg.edu.nus.comp.cs4218.app.ProfileInterface;
+import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
+import sg.edu.nus.comp.cs4218.exception.ProfileException;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.impl.jfr.CommandProfiler;
+import sg.edu.nus.comp.cs4218.impl.jfr.ShellEvents;
+import sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner;
+import sg.edu.nus.comp.cs4218.impl.util.CommandBuilder;
+import sg.edu.nus.comp.cs4218.impl.util.NonClosingOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.*;
+
+/**
+ * The profile command runs a command line while recording it with Flight Recorder, then writes
+ * a summary of the slowest application runs, the bytes allocated and the time spent waiting for
+ * file and socket I/O after the output of the command line.
+ * <p>
+ * Like time, several arguments are an application and its arguments, run as they are, while a
+ * single argument is a command line, e.g. {@code profile "grep a *.txt | sort"}. If the command
+ * line fails, the summary is still written before the error.
+ *
+ * <p>
+ * <b>Command format:</b> <code>profile COMMAND [ARG]...</code>
+ * </p>
+ */
+public class ProfileApplication implements ProfileInterface {
+
+    /**
+     * Runs the command line in the current shell context, with the ApplicationRunner running
+     * profile if any, and writes the summary of its recording to stdout.
+     *
+     * @param commandLine Command line to run.
+     * @param stdin       InputStream of the command line.
+     * @param stdout      OutputStream of the command line, followed by the summary.
+     * @throws AbstractApplicationException If the command line fails, in which case the summary
+     *                                      is written first, or cannot be profiled.
+     */
+    @Override
+    public void profile(String commandLine, InputStream stdin, OutputStream stdout)
+            throws AbstractApplicationException {
+        Command command;
+        try {
+            command = CommandBuilder.parseCommand(commandLine, ApplicationRunner.current());
+        } catch (ShellException e) {
+            throw (ProfileException) new ProfileException(e.getMessage()).initCause(e);
+        }
+        profile(command, stdin, stdout);
+    }
+
+    private void profile(Command command, InputStream stdin, OutputStream stdout)
+            throws AbstractApplicationException {
+        AbstractApplicationException failure = null;
+        CommandProfiler.Summary summary;
+        try (CommandProfiler profiler = startProfiler()) {
+            try {
+                // the command closes the stream it writes to, but the summary follows its output
+                command.evaluate(stdin, new NonClosingOutputStream(stdout));
+            } catch (AbstractApplicationException e) {
+                failure = e;
+            } catch (ShellException e) {
+                failure = (ProfileException) new ProfileException(e.getMessage()).initCause(e);
+            }
+            summary = profiler.stop();
+        } catch (IOException e) {
+            throw (ProfileException) new ProfileException(ERR_READING_RECORDING).initCause(e);
+        }
+
+        try {
+            stdout.write(summary.toString().getBytes());
+        } catch (IOException e) {
+            throw (ProfileException) new ProfileException(ERR_WRITE_STREAM).initCause(e);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private CommandProfiler startProfiler() throws ProfileException {
+        if (!ShellEvents.isAvailable()) {
+            throw new ProfileException(ERR_NO_RECORDER);
+        }
+        try {
+            return CommandProfiler.start();
+        } catch (IllegalStateException | LinkageError e) {
+            throw (ProfileException) new ProfileException(ERR_NO_RECORDER).initCause(e);
+        }
+    }
+
+    /**
+     * Runs the profile application with the specified arguments.
+     *
+     * @param args   Array of arguments: the command line, or the application and its arguments.
+     * @param stdin  An InputStream passed on to the command line.
+     * @param stdout An OutputStream the output of the command line and the summary are written to.
+     * @throws AbstractApplicationException If the arguments are invalid, or the command line fails.
+     */
+    @Override
+    public void run(String[] args, InputStream stdin, OutputStream stdout) throws AbstractApplicationException {
+        if (args == null) {
+            throw new ProfileException(ERR_NULL_ARGS);
+        }
+        if (stdout == null) {
+            throw new ProfileException(ERR_NULL_STREAMS);
+        }
+        if (args.length == 0) {
+            throw new ProfileException(ERR_NO_ARGS);
+        }
+        if (args.length == 1) {
+            profile(args[0], stdin, stdout);
+            return;
+        }
+        profile(CommandBuilder.buildCallCommand(args, ApplicationRunner.current()), stdin, stdout);
+    }
+}
@@ -1,6 +1,6 @@
 package sg.edu.nus.comp.cs4218.impl.app;
 
-import sg.edu.nus.comp.cs4218.EnvironmentHelper;
+import sg.edu.nus.comp.cs4218.ShellContext;
 import sg.edu.nus.comp.cs4218.app.RmInterface;
 import sg.edu.nus.comp.cs4218.exception.*;
 import sg.edu.nus.comp.cs4218.impl.parser.RmArgsParser;
@@ -43,7 +43,7 @@ public class RmApplication implements RmInterface {
             }
             try {
                 // Check if both the current directory and the current input path is the same, if it is the same, throw an RmException with ERR_IS_CURR_DIR
-                if (Files.isSameFile(Paths.get(EnvironmentHelper.currentDirectory), node.toPath())) {
+                if (Files.isSameFile(Paths.get(ShellContext.current().getCurrentDirectory()), node.toPath())) {
                     rmException = new RmException(ERR_IS_CURR_DIR);
                     continue;
                 }
@@ -119,6 +119,7 @@ public class RmApplication implements RmInterface {
      * @throws RmException if there is an IOException.
      */
     public void removeFilesAndFolderContent(File fileName) throws RmException {
+        IOUtils.checkInterrupted();
         if (fileName.isDirectory()) {
             File[] contents = fileName.listFiles();
             if (contents != null) {
@@ -181,7 +182,7 @@ public class RmApplication implements RmInterface {
      * @return Returns true if the input path is sub path of the current directory. Otherwise, returns false.
      */
     private boolean isSubPath(Path inputPath) {
-        Path currentDirectory = Paths.get(EnvironmentHelper.currentDirectory).normalize().toAbsolutePath();
+        Path currentDirectory = Paths.get(ShellContext.current().getCurrentDirectory()).normalize().toAbsolutePath();
         return currentDirectory.startsWith(inputPath.normalize().toAbsolutePath());
     }
 
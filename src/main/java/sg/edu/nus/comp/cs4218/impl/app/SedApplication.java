@@ -56,7 +56,7 @@ public class SedApplication implements SedInterface {
                 }
             }
         } catch (Exception e) {
-            throw new SedException(e.getMessage());//NOPMD
+            throw (SedException) new SedException(e.getMessage()).initCause(e);
         }
         try {
             stdout.write(output.toString().getBytes());
@@ -131,6 +131,7 @@ public class SedApplication implements SedInterface {
         Pattern pattern = Pattern.compile(regexp);
         StringBuilder output = new StringBuilder();
         for (String currentLine : input) { // Loop through the lines in the input, since sed replaces with the replacement index for every line
+            IOUtils.checkInterrupted();
             boolean matched = false; // use this boolean flag to indicate that a match has been found at the replacement index
             Matcher matcher = pattern.matcher(currentLine);
             StringBuilder builder = new StringBuilder();
@@ -161,6 +162,7 @@ public class SedApplication implements SedInterface {
             List<String> fileContentList = new ArrayList<>();
             String currentLine;
             while ((currentLine = bufferedReader.readLine()) != null) {
+                IOUtils.checkInterrupted();
                 fileContentList.add(currentLine);
             }
             String[] result = new String[fileContentList.size()];
@@ -0,0 +1,111 @@
+package sg.edu.nus.comp.cs4218.impl.app;
+
+import sg.edu.nus.comp.cs4218.Command;
+import sg.edu.nus.comp.cs4218.app.TimeInterface;
+import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.exception.TimeException;
+import sg.edu.nus.comp.cs4218.impl.cmd.CallCommand;
+import sg.edu.nus.comp.cs4218.impl.cmd.CommandTimer;
+import sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner;
+import sg.edu.nus.comp.cs4218.impl.util.CommandBuilder;
+import sg.edu.nus.comp.cs4218.impl.util.NonClosingOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.*;
+
+/**
+ * The time command runs a command line, then writes the wall time, CPU time, bytes allocated
+ * and bytes read and written of the whole command line and of each of its Call Commands after
+ * the output of the command line. For a pipeline, the bytes written by a stage are the bytes
+ * passed to the next stage.
+ * <p>
+ * Several arguments are an application and its arguments, run as they are, e.g.
+ * {@code time grep "a b" f.txt}. A single argument is a command line, so a command line with
+ * pipes or semicolons is quoted as one argument, e.g. {@code time "grep x f | sort | cut -c1-10"}.
+ * If the command line fails, the measurements are still written before the error.
+ *
+ * <p>
+ * <b>Command format:</b> <code>time COMMAND [ARG]...</code>
+ * </p>
+ */
+public class TimeApplication implements TimeInterface {
+
+    /**
+     * Runs the command line in the current shell context, with the ApplicationRunner running
+     * time if any, and writes its measurements to stdout.
+     *
+     * @param commandLine Command line to run.
+     * @param stdin       InputStream of the command line.
+     * @param stdout      OutputStream of the command line, followed by the measurements.
+     * @throws AbstractApplicationException If the command line fails, in which case the
+     *                                      measurements are written first, or cannot be parsed.
+     */
+    @Override
+    public void time(String commandLine, InputStream stdin, OutputStream stdout)
+            throws AbstractApplicationException {
+        Command command;
+        try {
+            command = CommandBuilder.parseCommand(commandLine, ApplicationRunner.current());
+        } catch (ShellException e) {
+            throw (TimeException) new TimeException(e.getMessage()).initCause(e);
+        }
+        time(command, commandLine, stdin, stdout);
+    }
+
+    private void time(Command command, String commandLine, InputStream stdin, OutputStream stdout)
+            throws AbstractApplicationException {
+        CommandTimer timer = new CommandTimer();
+        Command timedCommand = timer.instrument(command);
+        AbstractApplicationException failure = null;
+        long start = System.nanoTime();
+        try {
+            // the command closes the stream it writes to, but the measurements follow its output
+            timedCommand.evaluate(stdin, new NonClosingOutputStream(stdout));
+        } catch (AbstractApplicationException e) {
+            failure = e;
+        } catch (ShellException e) {
+            failure = (TimeException) new TimeException(e.getMessage()).initCause(e);
+        }
+        long wallNanos = System.nanoTime() - start;
+
+        try {
+            stdout.write(timer.format(commandLine, wallNanos).getBytes());
+        } catch (IOException e) {
+            throw (TimeException) new TimeException(ERR_WRITE_STREAM).initCause(e);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Runs the time application with the specified arguments.
+     *
+     * @param args   Array of arguments: the command line, or the application and its arguments.
+     * @param stdin  An InputStream passed on to the command line.
+     * @param stdout An OutputStream the output of the command line and the measurements are written to.
+     * @throws AbstractApplicationException If the arguments are invalid, or the command line fails.
+     */
+    @Override
+    public void run(String[] args, InputStream stdin, OutputStream stdout) throws AbstractApplicationException {
+        if (args == null) {
+            throw new TimeException(ERR_NULL_ARGS);
+        }
+        if (stdout == null) {
+            throw new TimeException(ERR_NULL_STREAMS);
+        }
+        if (args.length == 0) {
+            throw new TimeException(ERR_NO_ARGS);
+        }
+        if (args.length == 1) {
+            time(args[0], stdin, stdout);
+            return;
+        }
+        CallCommand command = CommandBuilder.buildCallCommand(args, ApplicationRunner.current());
+        time(command, String.join(" ", command.getArgsList()), stdin, stdout);
+    }
+}
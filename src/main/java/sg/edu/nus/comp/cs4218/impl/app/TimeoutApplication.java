@@ -0,0 +1,171 @@
+package sg.edu.nus.comp.cs4218.impl.app;
+
+import sg.edu.nus.comp.cs4218.app.TimeoutInterface;
+import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.exception.TimeoutException;
+import sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner;
+
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.*;
+
+/**
+ * The timeout command runs an application and stops it if it is still running after a given
+ * duration.
+ * <p>
+ * The application is stopped by interrupting the thread running it, so it stops at its next
+ * check for interruption and releases its files as it fails. The application runs on the
+ * calling thread, so no thread is left behind, and through the ApplicationRunner running
+ * timeout, so that it passes through the same interceptors.
+ *
+ * <p>
+ * <b>Command format:</b> <code>timeout DURATION APP [ARG]...</code>
+ * DURATION: number of seconds, may be fractional. 0 disables the timeout.
+ * </p>
+ */
+@SuppressWarnings("PMD.AvoidCatchingGenericException")
+public class TimeoutApplication implements TimeoutInterface {
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final int NUM_TIMEOUT_ARGS = 2;
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "timeout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Runs the application, failing it with a TimeoutException if it is still running after the
+     * given duration.
+     *
+     * @param seconds Duration in seconds, may be fractional. 0 disables the timeout.
+     * @param app     Name of the application to run.
+     * @param args    Arguments of the application.
+     * @param stdin   InputStream of the application.
+     * @param stdout  OutputStream of the application.
+     * @throws TimeoutException             If the application does not exist, or is stopped after
+     *                                      the duration or by an interrupt.
+     * @throws AbstractApplicationException If the application fails before the duration.
+     */
+    @Override
+    public void runWithTimeout(double seconds, String app, String[] args, InputStream stdin, OutputStream stdout)
+            throws AbstractApplicationException {
+        ApplicationRunner appRunner = ApplicationRunner.current();
+        if (!appRunner.getRegistry().isRegistered(app)) {
+            throw new TimeoutException(app + ": " + ERR_INVALID_APP);
+        }
+        if (seconds == 0) {
+            runApp(appRunner, app, args, stdin, stdout);
+            return;
+        }
+
+        Deadline deadline = new Deadline(Thread.currentThread());
+        ScheduledFuture<?> expiry = SCHEDULER.schedule(deadline::expire, (long) (seconds * NANOS_PER_SECOND),
+                TimeUnit.NANOSECONDS);
+        try {
+            runApp(appRunner, app, args, stdin, stdout);
+        } catch (AbstractApplicationException | RuntimeException e) {
+            if (deadline.finish()) {
+                throw (TimeoutException) new TimeoutException(app + ": " + ERR_TIMED_OUT).initCause(e);
+            }
+            throw e;
+        } finally {
+            expiry.cancel(false);
+            if (deadline.finish()) {
+                // clear the interrupt of the deadline, which may also come right after the application is done
+                Thread.interrupted();
+            }
+        }
+    }
+
+    private void runApp(ApplicationRunner appRunner, String app, String[] args, InputStream stdin,
+                        OutputStream stdout) throws AbstractApplicationException {
+        try {
+            appRunner.runApp(app, args, stdin, stdout);
+        } catch (ShellException e) {
+            if (isCausedByInterrupt(e)) {
+                throw (TimeoutException) new TimeoutException(app + ": " + ERR_INTERRUPTED).initCause(e);
+            }
+            throw (TimeoutException) new TimeoutException(e.getMessage()).initCause(e);
+        }
+    }
+
+    private static boolean isCausedByInterrupt(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CancellationException || cause instanceof InterruptedIOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs the timeout application with the specified arguments.
+     *
+     * @param args   Array of arguments: the duration, the application and its arguments.
+     * @param stdin  An InputStream passed on to the application.
+     * @param stdout An OutputStream passed on to the application.
+     * @throws AbstractApplicationException If the arguments are invalid, or the application does
+     *                                      not exist, fails or times out.
+     */
+    @Override
+    public void run(String[] args, InputStream stdin, OutputStream stdout) throws AbstractApplicationException {
+        if (args == null) {
+            throw new TimeoutException(ERR_NULL_ARGS);
+        }
+        if (args.length < NUM_TIMEOUT_ARGS) {
+            throw new TimeoutException(ERR_NO_ARGS);
+        }
+
+        double seconds;
+        try {
+            seconds = Double.parseDouble(args[0]);
+        } catch (NumberFormatException e) {
+            throw (TimeoutException) new TimeoutException(args[0] + ": " + ERR_INVALID_DURATION).initCause(e);
+        }
+        if (!(seconds >= 0) || Double.isInfinite(seconds)) {
+            throw new TimeoutException(args[0] + ": " + ERR_INVALID_DURATION);
+        }
+
+        runWithTimeout(seconds, args[1], Arrays.copyOfRange(args, NUM_TIMEOUT_ARGS, args.length), stdin, stdout);
+    }
+
+    /**
+     * Interrupts the thread running the application unless the application is done first.
+     */
+    private static final class Deadline {
+        private final Thread thread;
+        private boolean isDone;
+        private boolean isExpired;
+
+        Deadline(Thread thread) {
+            this.thread = thread;
+        }
+
+        synchronized void expire() {
+            if (!isDone) {
+                isExpired = true;
+                thread.interrupt();
+            }
+        }
+
+        /**
+         * Marks the application as done, so that the deadline can no longer expire.
+         *
+         * @return Whether the deadline has expired.
+         */
+        synchronized boolean finish() {
+            isDone = true;
+            return isExpired;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package sg.edu.nus.comp.cs4218.impl.app;
+
+import sg.edu.nus.comp.cs4218.ShellContext;
+import sg.edu.nus.comp.cs4218.app.WaitInterface;
+import sg.edu.nus.comp.cs4218.exception.WaitException;
+import sg.edu.nus.comp.cs4218.impl.util.Job;
+import sg.edu.nus.comp.cs4218.impl.util.JobTable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.*;
+
+/**
+ * The wait command waits for background jobs of the session to finish, and writes the output of
+ * each job that was not redirected to a file, in the order the jobs are given.
+ *
+ * <p>
+ * <b>Command format:</b> <code>wait [[%]JOB]...</code>
+ * JOB: number of the job as listed by jobs. Without any, waits for every job.
+ * </p>
+ */
+public class WaitApplication implements WaitInterface {
+    private static final String JOB_PREFIX = "%";
+
+    /**
+     * Waits for the given jobs, or every job of the session if none is given. Each job is
+     * removed from the session once its output is written.
+     *
+     * @param stdout OutputStream the output of the jobs is written to
+     * @param jobIds Numbers of the jobs to wait for, optionally prefixed with %
+     * @throws WaitException If a job does not exist, in which case no job is waited for, or the
+     *                       thread is interrupted, or the output cannot be written.
+     */
+    @Override
+    public void waitForJobs(OutputStream stdout, String... jobIds) throws WaitException {
+        JobTable jobTable = ShellContext.current().getJobTable();
+        List<Job> jobs;
+        if (jobIds.length == 0) {
+            jobs = jobTable.getJobs();
+        } else {
+            jobs = new ArrayList<>();
+            for (String jobId : jobIds) {
+                jobs.add(getJob(jobTable, jobId));
+            }
+        }
+
+        try {
+            for (Job job : jobs) {
+                jobTable.await(job, stdout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw (WaitException) new WaitException(ERR_INTERRUPTED).initCause(e);
+        } catch (IOException e) {
+            throw (WaitException) new WaitException(ERR_WRITE_STREAM).initCause(e);
+        }
+    }
+
+    private Job getJob(JobTable jobTable, String jobId) throws WaitException {
+        String number = jobId.startsWith(JOB_PREFIX) ? jobId.substring(JOB_PREFIX.length()) : jobId;
+        Job job = null;
+        try {
+            job = jobTable.getJob(Integer.parseInt(number));
+        } catch (NumberFormatException e) {
+            // not a job number
+        }
+        if (job == null) {
+            throw new WaitException(jobId + ": " + ERR_NO_SUCH_JOB);
+        }
+        return job;
+    }
+
+    /**
+     * Runs the wait application with the specified arguments.
+     *
+     * @param args   Array of job numbers, optionally prefixed with %.
+     * @param stdin  An InputStream, not used.
+     * @param stdout An OutputStream the output of the jobs is written to.
+     * @throws WaitException If a job does not exist, the thread is interrupted while waiting, or
+     *                       the output cannot be written.
+     */
+    @Override
+    public void run(String[] args, InputStream stdin, OutputStream stdout) throws WaitException {
+        if (args == null) {
+            throw new WaitException(ERR_NULL_ARGS);
+        }
+        if (stdout == null) {
+            throw new WaitException(ERR_NO_OSTREAM);
+        }
+        waitForJobs(stdout, args);
+    }
+}
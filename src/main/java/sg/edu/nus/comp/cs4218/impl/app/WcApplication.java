@@ -201,11 +201,11 @@ public class WcApplication implements WcInterface {
         }
         long[] result = new long[3]; // lines, words, bytes
 
-        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
         byte[] data = new byte[1024];
         int inRead = 0;
         boolean inWord = false;
         while ((inRead = input.read(data, 0, data.length)) != -1) {
+            IOUtils.checkInterrupted();
             for (int i = 0; i < inRead; ++i) {
                 if (Character.isWhitespace(data[i])) {
                     // Use <newline> character here. (Ref: UNIX)
@@ -222,9 +222,7 @@ public class WcApplication implements WcInterface {
                 }
             }
             result[BYTES_INDEX] += inRead;
-            buffer.write(data, 0, inRead);
         }
-        buffer.flush();
         if (inWord) {
             ++result[WORDS_INDEX]; // To handle last word
         }
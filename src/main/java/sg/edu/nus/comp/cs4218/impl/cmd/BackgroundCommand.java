@@ -0,0 +1,53 @@
+package sg.edu.nus.comp.cs4218.impl.cmd;
+
+import sg.edu.nus.comp.cs4218.Command;
+import sg.edu.nus.comp.cs4218.ShellContext;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A Background Command is a Call Command or Pipe Command followed by an ampersand, which is
+ * started as a job of the session and not waited for.
+ * <p>
+ * Command format: <Call> & or <Pipe> &
+ * <p>
+ * The job runs in a context of its own starting in the current directory, so that cd in the job
+ * does not change the current directory of the session. See Job for what happens to its input
+ * and output.
+ */
+public class BackgroundCommand implements Command {
+    private final Command command;
+    private final String commandLine;
+
+    /**
+     * @param command     Call Command or Pipe Command to run in the background.
+     * @param commandLine Command line of the job as listed by jobs.
+     */
+    public BackgroundCommand(Command command, String commandLine) {
+        this.command = command;
+        this.commandLine = commandLine;
+    }
+
+    @Override
+    public void evaluate(InputStream stdin, OutputStream stdout) {
+        ShellContext context = ShellContext.current();
+        context.getJobTable().submit(command, commandLine, new ShellContext(context.getCurrentDirectory()));
+    }
+
+    /**
+     * Terminates the job started by this Command, if it is still running.
+     */
+    @Override
+    public void terminate() {
+        command.terminate();
+    }
+
+    public Command getCommand() {
+        return command;
+    }
+
+    public String getCommandLine() {
+        return commandLine;
+    }
+}
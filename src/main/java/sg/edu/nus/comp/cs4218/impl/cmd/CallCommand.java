@@ -15,16 +15,23 @@ import java.util.List;
 
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IO_EXCEPTION;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_SYNTAX;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_TERMINATED;
 
 /**
  * A Call Command is a sub-command consisting of at least one non-keyword or quoted.
  * <p>
  * Command format: (<non-keyword> or <quoted>) *
+ * <p>
+ * Terminating a Call Command interrupts the thread running it, so that its application stops at
+ * its next check for interruption, and fails it with a ShellException. A Call Command that is
+ * terminated before it runs fails at once.
  */
 public class CallCommand implements Command {
     private final List<String> argsList;
     private final ApplicationRunner appRunner;
     private final ArgumentResolver argumentResolver;
+    private Thread runningThread;
+    private boolean isTerminated;
 
     public CallCommand(List<String> argsList, ApplicationRunner appRunner, ArgumentResolver argumentResolver) {
         this.argsList = argsList;
@@ -39,6 +46,33 @@ public class CallCommand implements Command {
             throw new ShellException(ERR_SYNTAX);
         }
 
+        synchronized (this) {
+            if (isTerminated) {
+                throw new ShellException(ERR_TERMINATED);
+            }
+            runningThread = Thread.currentThread();
+        }
+        try {
+            evaluateCall(stdin, stdout);
+        } catch (AbstractApplicationException | ShellException | RuntimeException e) {
+            if (isTerminated()) {
+                throw (ShellException) new ShellException(ERR_TERMINATED).initCause(e);
+            }
+            throw e;
+        } finally {
+            synchronized (this) {
+                runningThread = null;
+                if (isTerminated) {
+                    // clear the interrupt of terminate, so that the thread can be reused
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+
+    private void evaluateCall(InputStream stdin, OutputStream stdout)
+            throws AbstractApplicationException, ShellException {
+
         // Handle IO redirection
         IORedirectionHandler redirHandler = new IORedirectionHandler(argsList, stdin, stdout, argumentResolver);
         redirHandler.extractRedirOptions();
@@ -48,22 +82,48 @@ public class CallCommand implements Command {
         OutputStream outputStream = redirHandler.getOutputStream(); //NOPMD
 
         // Handle quoting + globing + command substitution
-        List<String> parsedArgsList = argumentResolver.parseArguments(noRedirArgsList);
-        if (!parsedArgsList.isEmpty()) {
-            String app = parsedArgsList.remove(0);
-            appRunner.runApp(app, parsedArgsList.toArray(new String[0]), inputStream, outputStream);
+        try {
+            List<String> parsedArgsList = argumentResolver.parseArguments(noRedirArgsList);
+            if (!parsedArgsList.isEmpty()) {
+                String app = parsedArgsList.remove(0);
+                String[] argsArray = parsedArgsList.toArray(new String[0]);
+                if (appRunner.hasInterceptors()) {
+                    appRunner.runApp(app, argsArray, redirHandler.getRedirections(), inputStream, outputStream);
+                } else {
+                    appRunner.runApp(app, argsArray, inputStream, outputStream);
+                }
+            }
+        } finally {
+            // release redirected files even if the application fails
+            IOUtils.closeInputStream(inputStream);
+            IOUtils.closeOutputStream(outputStream);
         }
-
-        IOUtils.closeInputStream(inputStream);
-        IOUtils.closeOutputStream(outputStream);
     }
 
+    /**
+     * Terminates the Call Command, interrupting the thread running it if it is running.
+     */
     @Override
-    public void terminate() {
-        // Unused for now
+    public synchronized void terminate() {
+        isTerminated = true;
+        if (runningThread != null) {
+            runningThread.interrupt();
+        }
+    }
+
+    public synchronized boolean isTerminated() {
+        return isTerminated;
     }
 
     public List<String> getArgsList() {
         return argsList;
     }
+
+    ApplicationRunner getAppRunner() {
+        return appRunner;
+    }
+
+    ArgumentResolver getArgumentResolver() {
+        return argumentResolver;
+    }
 }
@@ -0,0 +1,278 @@
+package sg.edu.nus.comp.cs4218.impl.cmd;
+
+import sg.edu.nus.comp.cs4218.Command;
+import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.impl.util.CountingInputStream;
+import sg.edu.nus.comp.cs4218.impl.util.CountingOutputStream;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+/**
+ * Measures every Call Command of a Command as it runs, see the time application.
+ * <p>
+ * instrument copies a Sequence Command, Pipe Command or Call Command, replacing each Call Command
+ * with one that measures its wall time, the CPU time and bytes allocated by the thread running it,
+ * and the bytes it reads from stdin and writes to stdout. Resolving the arguments, including
+ * command substitution, counts towards the Call Command. Any other Command, such as a Background
+ * Command, is kept as it is and not measured.
+ * <p>
+ * Each stage of a streaming Pipe Command is measured on its own thread, so the CPU time and
+ * allocation of the stages add up to those of the Pipe Command although the stages overlap.
+ */
+public final class CommandTimer {
+    private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final String ROW_FORMAT = "%12s %12s %12s %12s %12s  %s";
+
+    private final List<Stage> stages = new ArrayList<>();
+
+    /**
+     * Returns a copy of the Command measuring each of its Call Commands. The returned Command
+     * must be evaluated at most once.
+     */
+    public Command instrument(Command command) {
+        if (command instanceof SequenceCommand) {
+            List<Command> commands = new ArrayList<>();
+            for (Command part : ((SequenceCommand) command).getCommands()) {
+                commands.add(instrumentPart(part));
+            }
+            return new SequenceCommand(commands);
+        }
+        return instrumentPart(command);
+    }
+
+    private Command instrumentPart(Command command) {
+        if (command instanceof PipeCommand) {
+            PipeCommand pipeCommand = (PipeCommand) command;
+            List<CallCommand> callCommands = new ArrayList<>();
+            for (int i = 0; i < pipeCommand.getCallCommands().size(); i++) {
+                callCommands.add(instrumentCall(pipeCommand.getCallCommands().get(i), i));
+            }
+            return new PipeCommand(callCommands, pipeCommand.isStreaming());
+        }
+        if (command instanceof CallCommand) {
+            return instrumentCall((CallCommand) command, 0);
+        }
+        return command;
+    }
+
+    private CallCommand instrumentCall(CallCommand callCommand, int index) {
+        Stage stage = new Stage(String.join(" ", callCommand.getArgsList()), index);
+        stages.add(stage);
+        return new TimedCallCommand(callCommand, stage);
+    }
+
+    /**
+     * Returns the measurements of the Call Commands in the order they appear in the command line.
+     */
+    public List<Stage> getStages() {
+        return Collections.unmodifiableList(stages);
+    }
+
+    /**
+     * Formats the measurements as a table with a row for the whole command line followed by a
+     * row for each Call Command, e.g.
+     * <pre>
+     *      real ms       cpu ms     alloc B        in B       out B  command
+     *        4.210        3.902      524288           0           6  echo hello | grep h
+     *        1.003        0.950      131072           0           6    echo hello
+     *        3.107        2.952      393216           6           6    | grep h
+     * </pre>
+     * The CPU time, allocation and output of the whole command line are the totals of the Call
+     * Commands that ran. A dash marks a measurement that is not available, e.g. of a Call Command
+     * that never ran.
+     *
+     * @param commandLine Command line that was run.
+     * @param wallNanos   Wall time of the whole command line.
+     */
+    public String format(String commandLine, long wallNanos) {
+        long cpuNanos = 0;
+        long allocatedBytes = 0;
+        long bytesOut = 0;
+        boolean isCpuKnown = false;
+        boolean isAllocationKnown = false;
+        for (int i = 0; i < stages.size(); i++) {
+            Stage stage = stages.get(i);
+            if (stage.getCpuNanos() >= 0) {
+                cpuNanos += stage.getCpuNanos();
+                isCpuKnown = true;
+            }
+            if (stage.getAllocatedBytes() >= 0) {
+                allocatedBytes += stage.getAllocatedBytes();
+                isAllocationKnown = true;
+            }
+            boolean isLastOfPart = i == stages.size() - 1 || stages.get(i + 1).getIndex() == 0;
+            if (isLastOfPart && stage.isRun()) {
+                bytesOut += stage.getBytesOut();
+            }
+        }
+
+        StringBuilder builder = new StringBuilder(128);
+        builder.append(String.format(ROW_FORMAT, "real ms", "cpu ms", "alloc B", "in B", "out B", "command"))
+                .append(STRING_NEWLINE)
+                .append(String.format(ROW_FORMAT, formatMillis(wallNanos), isCpuKnown ? formatMillis(cpuNanos) : "-",
+                        isAllocationKnown ? String.valueOf(allocatedBytes) : "-", "-", bytesOut, commandLine))
+                .append(STRING_NEWLINE);
+        for (Stage stage : stages) {
+            String command = (stage.getIndex() == 0 ? "  " : "  | ") + stage.getCommand();
+            if (stage.isRun()) {
+                builder.append(String.format(ROW_FORMAT, formatMillis(stage.getWallNanos()),
+                        stage.getCpuNanos() < 0 ? "-" : formatMillis(stage.getCpuNanos()),
+                        stage.getAllocatedBytes() < 0 ? "-" : String.valueOf(stage.getAllocatedBytes()),
+                        stage.getBytesIn(), stage.getBytesOut(), command));
+            } else {
+                builder.append(String.format(ROW_FORMAT, "-", "-", "-", "-", "-", command));
+            }
+            builder.append(STRING_NEWLINE);
+        }
+        return builder.toString();
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.3f", nanos / NANOS_PER_MILLI);
+    }
+
+    /**
+     * Returns the CPU time of the current thread, or -1 if it cannot be measured.
+     */
+    private static long currentThreadCpuTime() {
+        if (!THREAD_BEAN.isCurrentThreadCpuTimeSupported() || !THREAD_BEAN.isThreadCpuTimeEnabled()) {
+            return -1;
+        }
+        return THREAD_BEAN.getCurrentThreadCpuTime();
+    }
+
+    /**
+     * Returns the bytes allocated by the current thread so far, or -1 if the JVM does not
+     * measure it.
+     */
+    private static long currentThreadAllocatedBytes() {
+        if (!(THREAD_BEAN instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) THREAD_BEAN;
+        if (!threadBean.isThreadAllocatedMemorySupported() || !threadBean.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Measurements of a Call Command.
+     */
+    public static final class Stage {
+        private final String command;
+        private final int index;
+        private boolean isRun;
+        private long wallNanos;
+        private long cpuNanos = -1;
+        private long allocatedBytes = -1;
+        private long bytesIn;
+        private long bytesOut;
+
+        private Stage(String command, int index) {
+            this.command = command;
+            this.index = index;
+        }
+
+        private synchronized void record(long wallNanos, long cpuNanos, long allocatedBytes,
+                                         long bytesIn, long bytesOut) {
+            this.isRun = true;
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.bytesIn = bytesIn;
+            this.bytesOut = bytesOut;
+        }
+
+        /**
+         * Returns the Call Command as written in the command line, before its arguments are
+         * resolved.
+         */
+        public String getCommand() {
+            return command;
+        }
+
+        /**
+         * Returns the position of the Call Command in its Pipe Command, or 0 if it is not part
+         * of one.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public synchronized boolean isRun() {
+            return isRun;
+        }
+
+        public synchronized long getWallNanos() {
+            return wallNanos;
+        }
+
+        /**
+         * Returns the CPU time of the thread running the Call Command, or -1 if not measured.
+         */
+        public synchronized long getCpuNanos() {
+            return cpuNanos;
+        }
+
+        /**
+         * Returns the bytes allocated by the thread running the Call Command, or -1 if not
+         * measured.
+         */
+        public synchronized long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public synchronized long getBytesIn() {
+            return bytesIn;
+        }
+
+        /**
+         * Returns the bytes written to stdout, which for a stage of a Pipe Command other than
+         * the last are the bytes passed to the next stage.
+         */
+        public synchronized long getBytesOut() {
+            return bytesOut;
+        }
+    }
+
+    private static final class TimedCallCommand extends CallCommand {
+        private final Stage stage;
+
+        private TimedCallCommand(CallCommand callCommand, Stage stage) {
+            super(callCommand.getArgsList(), callCommand.getAppRunner(), callCommand.getArgumentResolver());
+            this.stage = stage;
+        }
+
+        @Override
+        public void evaluate(InputStream stdin, OutputStream stdout)
+                throws AbstractApplicationException, ShellException {
+            CountingInputStream inputStream = stdin == null ? null : new CountingInputStream(stdin);
+            CountingOutputStream outputStream = stdout == null ? null : new CountingOutputStream(stdout);
+            long cpuStart = currentThreadCpuTime();
+            long allocationStart = currentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            try {
+                super.evaluate(inputStream, outputStream);
+            } finally {
+                long wallNanos = System.nanoTime() - start;
+                long cpuEnd = currentThreadCpuTime();
+                long allocationEnd = currentThreadAllocatedBytes();
+                stage.record(wallNanos, cpuStart < 0 ? -1 : cpuEnd - cpuStart,
+                        allocationStart < 0 ? -1 : allocationEnd - allocationStart,
+                        inputStream == null ? 0 : inputStream.getCount(),
+                        outputStream == null ? 0 : outputStream.getCount());
+            }
+        }
+    }
+}
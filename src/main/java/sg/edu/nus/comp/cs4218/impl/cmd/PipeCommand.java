@@ -1,12 +1,23 @@
 package sg.edu.nus.comp.cs4218.impl.cmd;
 
 import sg.edu.nus.comp.cs4218.Command;
+import sg.edu.nus.comp.cs4218.ShellContext;
 import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.impl.jfr.PipelineStageEvent;
+import sg.edu.nus.comp.cs4218.impl.jfr.ShellEvents;
+import sg.edu.nus.comp.cs4218.impl.jmx.ShellStatistics;
 import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
+import sg.edu.nus.comp.cs4218.impl.util.RingBufferPipe;
 
 import java.io.*;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IO_EXCEPTION;
 
@@ -15,18 +26,64 @@ import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IO_EXCEPTION;
  * or a Pipe Command and a Call Command separated with a pipe.
  * <p>
  * Command format: <Call> | <Call> or <Pipe> | <Call>
+ * <p>
+ * By default, each Call Command is run to completion and its output is buffered before the next
+ * Call Command starts. In streaming mode, every Call Command runs on its own thread and the
+ * Call Commands are connected by bounded in-memory pipes, so the next Call Command can consume
+ * output as soon as it is produced.
+ * <p>
+ * In streaming mode, a Call Command that stops reading its input before the end, because it
+ * finished or failed, makes the Call Command writing to it stop too, see Stages.
  */
-@SuppressWarnings({"PMD.CloseResource"})
+@SuppressWarnings({"PMD.CloseResource", "PMD.AvoidCatchingGenericException"})
 public class PipeCommand implements Command {
+    /**
+     * System property that enables streaming mode for Pipe Commands created without an explicit
+     * mode, e.g. {@code -Dcs4218.pipe.streaming=true}.
+     */
+    public static final String PROP_STREAMING = "cs4218.pipe.streaming";
+    public static final int PIPE_BUFFER_SIZE = RingBufferPipe.DEFAULT_CAPACITY;
+
+    private static final ExecutorService STAGE_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "pipe-stage");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final List<CallCommand> callCommands;
+    private final boolean isStreaming;
 
     public PipeCommand(List<CallCommand> callCommands) {
+        this(callCommands, Boolean.getBoolean(PROP_STREAMING));
+    }
+
+    public PipeCommand(List<CallCommand> callCommands, boolean isStreaming) {
         this.callCommands = callCommands;
+        this.isStreaming = isStreaming;
     }
 
     @Override
     public void evaluate(InputStream stdin, OutputStream stdout)
             throws AbstractApplicationException, ShellException {
+        ShellStatistics statistics = ShellStatistics.getInstance();
+        statistics.startPipeline(callCommands.size());
+        try {
+            if (isStreaming && callCommands.size() > 1) {
+                evaluateStreaming(stdin, stdout);
+            } else {
+                evaluateBuffered(stdin, stdout);
+            }
+        } finally {
+            statistics.finishPipeline(callCommands.size());
+        }
+    }
+
+    /**
+     * Runs the Call Commands one after another, buffering the output of each Call Command as the
+     * input of the next one.
+     */
+    private void evaluateBuffered(InputStream stdin, OutputStream stdout)
+            throws AbstractApplicationException, ShellException {
         AbstractApplicationException absAppException = null;
         ShellException shellException = null;
 
@@ -38,6 +95,8 @@ public class PipeCommand implements Command {
                 callCommand.terminate();
                 continue;
             }
+            PipelineStageEvent event = beginStageEvent();
+            long bytesOut = 0;
             try {
                 nextOutputStream = new ByteArrayOutputStream();
                 if (i == callCommands.size() - 1) {
@@ -45,13 +104,16 @@ public class PipeCommand implements Command {
                 }
                 callCommand.evaluate(nextInputStream, nextOutputStream);
                 if (i != callCommands.size() - 1) {
-                    nextInputStream = new ByteArrayInputStream(((ByteArrayOutputStream) nextOutputStream).toByteArray());
+                    byte[] output = ((ByteArrayOutputStream) nextOutputStream).toByteArray();
+                    bytesOut = output.length;
+                    nextInputStream = new ByteArrayInputStream(output);
                 }
             } catch (AbstractApplicationException e) {
                 absAppException = e;
             } catch (ShellException e) {
                 shellException = e;
             }
+            commitStageEvent(event, i, bytesOut);
             IOUtils.closeOutputStream(nextOutputStream);
         }
         if (absAppException != null) {
@@ -62,12 +124,214 @@ public class PipeCommand implements Command {
         }
     }
 
+    /**
+     * Runs every Call Command concurrently, connecting each Call Command to the next one with a
+     * bounded pipe. The last Call Command runs on the calling thread and writes to stdout.
+     * <p>
+     * As in the buffered mode, only the exception of the first failing Call Command is thrown.
+     * A Call Command that failed only because the next Call Command stopped reading its output
+     * (a broken pipe, or being interrupted for it) is not considered to have failed.
+     * <p>
+     * Every stage runs in the context of the calling thread, whichever thread it is on.
+     */
+    private void evaluateStreaming(InputStream stdin, OutputStream stdout)
+            throws AbstractApplicationException, ShellException {
+        int numOfStages = callCommands.size();
+        Stages stages = new Stages(numOfStages);
+
+        stages.inputs[0] = stdin;
+        stages.outputs[numOfStages - 1] = stdout;
+        for (int i = 0; i < numOfStages - 1; i++) {
+            stages.pipes[i] = new RingBufferPipe(PIPE_BUFFER_SIZE);
+            stages.outputs[i] = stages.pipes[i].getOutputStream();
+            stages.inputs[i + 1] = stages.pipes[i].getInputStream();
+        }
+
+        ShellContext context = ShellContext.current();
+        List<Future<?>> stageFutures = new ArrayList<>();
+        for (int i = 0; i < numOfStages - 1; i++) {
+            final int stage = i;
+            stageFutures.add(STAGE_EXECUTOR.submit(() -> {
+                try (ShellContext.Scope ignored = context.bind()) {
+                    runStage(stage, stages);
+                }
+            }));
+        }
+        runStage(numOfStages - 1, stages);
+        awaitStages(stageFutures);
+
+        for (int i = 0; i < numOfStages; i++) {
+            Exception exception = stages.exceptions[i];
+            if (exception == null || i < numOfStages - 1 && stages.isStoppedByReader(i)) {
+                continue;
+            }
+            if (exception instanceof AbstractApplicationException) {
+                throw (AbstractApplicationException) exception;
+            }
+            if (exception instanceof ShellException) {
+                throw (ShellException) exception;
+            }
+            throw (RuntimeException) exception;
+        }
+    }
+
+    private void runStage(int stage, Stages stages) {
+        PipelineStageEvent event = beginStageEvent();
+        long bytesOut = 0;
+        stages.start(stage);
+        try {
+            callCommands.get(stage).evaluate(stages.inputs[stage], stages.outputs[stage]);
+        } catch (AbstractApplicationException | ShellException | RuntimeException e) {
+            stages.exceptions[stage] = e;
+        } finally {
+            stages.finish(stage);
+            // Always release both pipe ends so that neighbouring stages never block forever.
+            if (stage > 0) {
+                closeQuietly(stages.inputs[stage]);
+                stages.stopWriter(stage - 1);
+            }
+            if (stage < stages.outputs.length - 1) {
+                closeQuietly(stages.outputs[stage]);
+                bytesOut = stages.pipes[stage].getNumOfBytesWritten();
+            }
+            commitStageEvent(event, stage, bytesOut);
+        }
+    }
+
+    private static PipelineStageEvent beginStageEvent() {
+        PipelineStageEvent event = ShellEvents.newPipelineStageEvent();
+        if (event != null) {
+            event.begin();
+        }
+        return event;
+    }
+
+    private void commitStageEvent(PipelineStageEvent event, int stage, long bytesOut) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.bytesOut = bytesOut;
+            event.command = String.join(" ", callCommands.get(stage).getArgsList());
+            event.stage = stage;
+            event.isStreaming = isStreaming;
+            event.commit();
+        }
+    }
+
+    private void awaitStages(List<Future<?>> stageFutures) throws ShellException {
+        boolean isInterrupted = false;
+        for (Future<?> future : stageFutures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    isInterrupted = true;
+                } catch (ExecutionException e) {
+                    throw (ShellException) new ShellException(ERR_IO_EXCEPTION).initCause(e.getCause());
+                }
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Nothing more can be done with a pipe end that cannot be closed.
+        }
+    }
+
+    /**
+     * The streams, pipes and outcome of the stages of one streaming evaluation.
+     * <p>
+     * Once a stage stops reading its input, the stage writing to it is interrupted, much like
+     * SIGPIPE, so that it stops reading its own input at its next check for interruption instead
+     * of only failing on its next write. A stage that is yet to start is interrupted as soon as it
+     * starts. Either way it stops reading its input early, which in turn stops the stage before.
+     * Only the failures caused by the interruption are ignored; a stage that fails for any other
+     * reason, e.g. an invalid app, is still reported.
+     */
+    private static final class Stages {
+        private final InputStream[] inputs;
+        private final OutputStream[] outputs;
+        private final RingBufferPipe[] pipes;
+        private final Exception[] exceptions;
+        private final Thread[] threads;
+        private final boolean[] isStopped;
+
+        private Stages(int numOfStages) {
+            inputs = new InputStream[numOfStages];
+            outputs = new OutputStream[numOfStages];
+            pipes = new RingBufferPipe[numOfStages - 1];
+            exceptions = new Exception[numOfStages];
+            threads = new Thread[numOfStages];
+            isStopped = new boolean[numOfStages];
+        }
+
+        private synchronized void start(int stage) {
+            threads[stage] = Thread.currentThread();
+            if (isStopped[stage]) {
+                threads[stage].interrupt();
+            }
+        }
+
+        private synchronized void finish(int stage) {
+            threads[stage] = null;
+            if (isStopped[stage]) {
+                // clear the interrupt of stopWriter, so that the thread can be reused
+                Thread.interrupted();
+            }
+        }
+
+        /**
+         * Interrupts the stage writing to the pipe read by the next stage, unless it has already
+         * closed its output.
+         */
+        private synchronized void stopWriter(int stage) {
+            if (pipes[stage].isWriterClosed()) {
+                return;
+            }
+            isStopped[stage] = true;
+            if (threads[stage] != null) {
+                threads[stage].interrupt();
+            }
+        }
+
+        private synchronized boolean isStoppedByReader(int stage) {
+            return pipes[stage].isBroken() || isStopped[stage] && isCausedByInterrupt(exceptions[stage]);
+        }
+
+        private static boolean isCausedByInterrupt(Throwable exception) {
+            for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+                if (cause instanceof CancellationException || cause instanceof InterruptedIOException) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Terminates every Call Command of the pipeline, whether it is running or yet to run.
+     */
     @Override
     public void terminate() {
-        // Unused for now
+        for (CallCommand callCommand : callCommands) {
+            callCommand.terminate();
+        }
     }
 
     public List<CallCommand> getCallCommands() {
         return callCommands;
     }
+
+    public boolean isStreaming() {
+        return isStreaming;
+    }
 }
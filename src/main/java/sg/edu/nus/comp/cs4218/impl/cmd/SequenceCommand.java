@@ -4,23 +4,29 @@ import sg.edu.nus.comp.cs4218.Command;
 import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
 import sg.edu.nus.comp.cs4218.exception.ExitException;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.impl.util.NonClosingOutputStream;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.LinkedList;
 import java.util.List;
 
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_TERMINATED;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
 
 /**
  * A Sequence Command is a sub-command consisting of two Commands separated with a semicolon.
  * <p>
  * Command format: <Command> ; <Command>
+ * <p>
+ * The output of each Command is written through to stdout as it is produced. If a Command fails,
+ * its error message is written to stdout right after its output and the next Command is run.
+ * <p>
+ * Once terminated, no further Command is run.
  */
 public class SequenceCommand implements Command {
     private final List<Command> commands;
+    private volatile boolean isTerminated;
 
     public SequenceCommand(List<Command> commands) {
         this.commands = commands;
@@ -30,41 +36,48 @@ public class SequenceCommand implements Command {
     public void evaluate(InputStream stdin, OutputStream stdout)
             throws AbstractApplicationException, ShellException {
         ExitException exitException = null;
-        List<String> outputLines = new LinkedList<>();
+        // Commands close the stream they write to, but stdout must stay open for the next Command.
+        OutputStream outputStream = new NonClosingOutputStream(stdout);
 
         for (Command command : commands) {
+            if (isTerminated) {
+                break;
+            }
             try {
-                OutputStream outputStream = new ByteArrayOutputStream();
                 command.evaluate(stdin, outputStream);
-
-                String outputLine = outputStream.toString();
-                if (!outputLine.isEmpty()) {
-                    outputLines.add(outputLine);
-                }
             } catch (ExitException e) {
                 exitException = e;
 
             } catch (AbstractApplicationException | ShellException e) {
-                outputLines.add(e.getMessage() + STRING_NEWLINE);
-            }
-        }
-
-        for (String outputLine : outputLines) {
-            try {
-                stdout.write(outputLine.getBytes());
-            } catch (IOException e) {
-                throw (ShellException) new ShellException(e.getMessage()).initCause(e);
+                if (isTerminated) {
+                    break;
+                }
+                writeToStdout(stdout, e.getMessage() + STRING_NEWLINE);
             }
         }
 
         if (exitException != null) {
             throw exitException;
         }
+        if (isTerminated) {
+            throw new ShellException(ERR_TERMINATED);
+        }
+    }
+
+    private void writeToStdout(OutputStream stdout, String outputLine) throws ShellException {
+        try {
+            stdout.write(outputLine.getBytes());
+        } catch (IOException e) {
+            throw (ShellException) new ShellException(e.getMessage()).initCause(e);
+        }
     }
 
     @Override
     public void terminate() {
-        // Unused for now
+        isTerminated = true;
+        for (Command command : commands) {
+            command.terminate();
+        }
     }
 
     public List<Command> getCommands() {
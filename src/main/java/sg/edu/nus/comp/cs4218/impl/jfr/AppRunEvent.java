@@ -0,0 +1,34 @@
+package sg.edu.nus.comp.cs4218.impl.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Run of an application, see ApplicationRunner.runApp.
+ */
+@Name(AppRunEvent.NAME)
+@Label("Application Run")
+@Category(ParseEvent.CATEGORY)
+public final class AppRunEvent extends Event {
+    public static final String NAME = "cs4218.AppRun";
+
+    @Label("Command")
+    @Description("Application name followed by its resolved arguments")
+    public String command;
+
+    @Label("Bytes In")
+    @DataAmount
+    public long bytesIn;
+
+    @Label("Bytes Out")
+    @DataAmount
+    public long bytesOut;
+
+    @Label("Error")
+    @Description("Message of the exception the application failed with, if any")
+    public String error;
+}
@@ -0,0 +1,27 @@
+package sg.edu.nus.comp.cs4218.impl.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Quoting, globbing and command substitution of the arguments of a Call Command, see
+ * ArgumentResolver.parseArguments.
+ */
+@Name(ArgumentResolutionEvent.NAME)
+@Label("Argument Resolution")
+@Category(ParseEvent.CATEGORY)
+@Description("Quoting, globbing and command substitution of the arguments of a Call Command")
+public final class ArgumentResolutionEvent extends Event {
+    public static final String NAME = "cs4218.ArgumentResolution";
+
+    @Label("Arguments")
+    @Description("Arguments as written in the command, separated by spaces")
+    public String arguments;
+
+    @Label("Resolved Arguments")
+    @Description("Number of arguments after resolution, including the command name")
+    public int numOfResolved;
+}
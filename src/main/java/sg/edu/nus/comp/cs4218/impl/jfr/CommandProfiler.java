@@ -0,0 +1,192 @@
+package sg.edu.nus.comp.cs4218.impl.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+/**
+ * Records the events of the shell with an in-process Flight Recorder recording and summarises
+ * them, see the profile application.
+ * <p>
+ * Besides the events of the shell, the recording has the allocation and file I/O events of the
+ * JVM. The recording covers the whole JVM, so commands run by other sessions at the same time
+ * are included in the summary.
+ */
+public final class CommandProfiler implements AutoCloseable {
+    public static final int NUM_TOP_STAGES = 5;
+
+    private static final String[] SHELL_EVENTS = {ParseEvent.NAME, ArgumentResolutionEvent.NAME, GlobEvent.NAME,
+            AppRunEvent.NAME, PipelineStageEvent.NAME, FileOpenEvent.NAME, FileCloseEvent.NAME};
+    private static final String TLAB_EVENT = "jdk.ObjectAllocationInNewTLAB";
+    private static final String OUTSIDE_TLAB_EVENT = "jdk.ObjectAllocationOutsideTLAB";
+    private static final String[] IO_EVENTS = {"jdk.FileRead", "jdk.FileWrite", "jdk.SocketRead", "jdk.SocketWrite"};
+
+    private final Recording recording = new Recording();
+    private final long startTime;
+
+    private CommandProfiler() {
+        recording.setName("cs4218-profile");
+        for (String name : SHELL_EVENTS) {
+            recording.enable(name).withThreshold(Duration.ZERO).withoutStackTrace();
+        }
+        recording.enable(TLAB_EVENT).withoutStackTrace();
+        recording.enable(OUTSIDE_TLAB_EVENT).withoutStackTrace();
+        for (String name : IO_EVENTS) {
+            recording.enable(name).withThreshold(Duration.ZERO).withoutStackTrace();
+        }
+        recording.start();
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Starts recording.
+     *
+     * @throws IllegalStateException If Flight Recorder is not available in this JVM.
+     */
+    public static CommandProfiler start() {
+        return new CommandProfiler();
+    }
+
+    /**
+     * Stops recording and summarises the recorded events.
+     *
+     * @throws IOException If the recording cannot be read back.
+     */
+    public Summary stop() throws IOException {
+        long wallNanos = System.nanoTime() - startTime;
+        recording.stop();
+        Path file = Files.createTempFile("cs4218-profile", ".jfr");
+        try {
+            recording.dump(file);
+            Summary summary = new Summary(wallNanos);
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                summary.add(event);
+            }
+            return summary;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Override
+    public void close() {
+        recording.close();
+    }
+
+    /**
+     * Totals of a recording: the slowest application runs, the bytes allocated and the time
+     * spent blocked in file and socket I/O.
+     */
+    public static final class Summary {
+        private static final double NANOS_PER_MILLI = 1e6;
+
+        private final long wallNanos;
+        private final List<RecordedEvent> appRuns = new ArrayList<>();
+        private long allocatedBytes;
+        private long ioWaitNanos;
+        private int numOfIoEvents;
+        private int numOfFilesOpened;
+
+        private Summary(long wallNanos) {
+            this.wallNanos = wallNanos;
+        }
+
+        private void add(RecordedEvent event) {
+            String name = event.getEventType().getName();
+            switch (name) {
+                case AppRunEvent.NAME:
+                    appRuns.add(event);
+                    break;
+                case FileOpenEvent.NAME:
+                    numOfFilesOpened++;
+                    break;
+                case TLAB_EVENT:
+                    allocatedBytes += event.getLong("tlabSize");
+                    break;
+                case OUTSIDE_TLAB_EVENT:
+                    allocatedBytes += event.getLong("allocationSize");
+                    break;
+                default:
+                    if (name.startsWith("jdk.File") || name.startsWith("jdk.Socket")) {
+                        ioWaitNanos += event.getDuration().toNanos();
+                        numOfIoEvents++;
+                    }
+            }
+        }
+
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        /**
+         * Returns the application runs, slowest first.
+         */
+        public List<RecordedEvent> getAppRuns() {
+            List<RecordedEvent> sorted = new ArrayList<>(appRuns);
+            sorted.sort(Comparator.comparing((RecordedEvent event) -> event.getDuration()).reversed());
+            return Collections.unmodifiableList(sorted);
+        }
+
+        /**
+         * Returns the bytes allocated in new TLABs and outside TLABs, which overestimates the
+         * bytes allocated by the objects themselves.
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public long getIoWaitNanos() {
+            return ioWaitNanos;
+        }
+
+        public int getNumOfIoEvents() {
+            return numOfIoEvents;
+        }
+
+        public int getNumOfFilesOpened() {
+            return numOfFilesOpened;
+        }
+
+        /**
+         * Formats the summary, e.g.
+         * <pre>
+         * Wall time: 12.345 ms
+         * Top stages:
+         *       10.123 ms  grep a big.txt (in 0 B, out 1024 B)
+         * Allocated: 5242880 B
+         * I/O wait: 1.234 ms in 12 file and socket operations, 1 file opened
+         * </pre>
+         */
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(64);
+            builder.append(String.format("Wall time: %.3f ms", wallNanos / NANOS_PER_MILLI)).append(STRING_NEWLINE)
+                    .append("Top stages:").append(STRING_NEWLINE);
+            List<RecordedEvent> sorted = getAppRuns();
+            for (RecordedEvent appRun : sorted.subList(0, Math.min(NUM_TOP_STAGES, sorted.size()))) {
+                String error = appRun.getString("error");
+                builder.append(String.format("%12.3f ms  %s (in %d B, out %d B)%s",
+                        appRun.getDuration().toNanos() / NANOS_PER_MILLI, appRun.getString("command"),
+                        appRun.getLong("bytesIn"), appRun.getLong("bytesOut"),
+                        error == null ? "" : " failed: " + error)).append(STRING_NEWLINE);
+            }
+            builder.append(String.format("Allocated: %d B", allocatedBytes)).append(STRING_NEWLINE)
+                    .append(String.format("I/O wait: %.3f ms in %d file and socket operations, %d %s opened",
+                            ioWaitNanos / NANOS_PER_MILLI, numOfIoEvents, numOfFilesOpened,
+                            numOfFilesOpened == 1 ? "file" : "files"))
+                    .append(STRING_NEWLINE);
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package sg.edu.nus.comp.cs4218.impl.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import sg.edu.nus.comp.cs4218.impl.util.CountingInputStream;
+import sg.edu.nus.comp.cs4218.impl.util.CountingOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Closing of a file opened by IOUtils.openInputStream or IOUtils.openOutputStream. The event
+ * lasts from the opening to the closing of the file.
+ * <p>
+ * Only files opened while the event is enabled are tracked, so that files are not wrapped in
+ * counting streams unless a recording asks for the event.
+ */
+@Name(FileCloseEvent.NAME)
+@Label("File Close")
+@Category({ParseEvent.CATEGORY, "I/O"})
+public final class FileCloseEvent extends Event {
+    public static final String NAME = "cs4218.FileClose";
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(FileCloseEvent.class);
+
+    @Label("Path")
+    public String path;
+
+    @Label("Mode")
+    public String mode;
+
+    @Label("Bytes")
+    @Description("Bytes read from or written to the file while it was open")
+    @DataAmount
+    public long bytes;
+
+    private transient boolean isClosed;
+
+    private FileCloseEvent(String path, String mode) {
+        super();
+        this.path = path;
+        this.mode = mode;
+        begin();
+    }
+
+    /**
+     * Returns the file input stream, wrapped so that closing it commits an event if the event
+     * is enabled.
+     */
+    public static InputStream track(InputStream inputStream, String path) {
+        if (!EVENT_TYPE.isEnabled()) {
+            return inputStream;
+        }
+        FileCloseEvent event = new FileCloseEvent(path, FileOpenEvent.MODE_READ);
+        return new CountingInputStream(inputStream) {
+            @Override
+            public void close() throws IOException {
+                super.close();
+                event.commit(getCount());
+            }
+        };
+    }
+
+    /**
+     * Returns the file output stream, wrapped so that closing it commits an event if the event
+     * is enabled.
+     */
+    public static OutputStream track(OutputStream outputStream, String path) {
+        if (!EVENT_TYPE.isEnabled()) {
+            return outputStream;
+        }
+        FileCloseEvent event = new FileCloseEvent(path, FileOpenEvent.MODE_WRITE);
+        return new CountingOutputStream(outputStream) {
+            @Override
+            public void close() throws IOException {
+                super.close();
+                event.commit(getCount());
+            }
+        };
+    }
+
+    private synchronized void commit(long numOfBytes) {
+        // streams may be closed more than once
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        bytes = numOfBytes;
+        commit();
+    }
+}
@@ -0,0 +1,27 @@
+package sg.edu.nus.comp.cs4218.impl.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Opening of a file by IOUtils.openInputStream or IOUtils.openOutputStream.
+ */
+@Name(FileOpenEvent.NAME)
+@Label("File Open")
+@Category({ParseEvent.CATEGORY, "I/O"})
+public final class FileOpenEvent extends Event {
+    public static final String NAME = "cs4218.FileOpen";
+    public static final String MODE_READ = "read";
+    public static final String MODE_WRITE = "write";
+
+    @Label("Path")
+    public String path;
+
+    @Label("Mode")
+    public String mode;
+
+    @Label("Error")
+    public String error;
+}
@@ -0,0 +1,22 @@
+package sg.edu.nus.comp.cs4218.impl.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Expansion of an argument with unquoted asterisks into file names, see RegexArgument.globFiles.
+ */
+@Name(GlobEvent.NAME)
+@Label("Glob")
+@Category(ParseEvent.CATEGORY)
+public final class GlobEvent extends Event {
+    public static final String NAME = "cs4218.Glob";
+
+    @Label("Pattern")
+    public String pattern;
+
+    @Label("Matches")
+    public int numOfMatches;
+}
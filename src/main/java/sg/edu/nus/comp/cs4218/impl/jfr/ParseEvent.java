@@ -0,0 +1,26 @@
+package sg.edu.nus.comp.cs4218.impl.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Parsing of a command string into a CommandTemplate, see CommandBuilder.parseTemplate.
+ */
+@Name(ParseEvent.NAME)
+@Label("Command Parse")
+@Category(ParseEvent.CATEGORY)
+@Description("Parsing of a command string")
+public final class ParseEvent extends Event {
+    public static final String NAME = "cs4218.Parse";
+    public static final String CATEGORY = "CS4218 Shell";
+
+    @Label("Command Line")
+    public String commandLine;
+
+    @Label("Cached")
+    @Description("True if the template was found in the parse cache")
+    public boolean isCached;
+}
@@ -0,0 +1,34 @@
+package sg.edu.nus.comp.cs4218.impl.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Run of one Call Command of a Pipe Command, see PipeCommand.
+ */
+@Name(PipelineStageEvent.NAME)
+@Label("Pipeline Stage")
+@Category(ParseEvent.CATEGORY)
+public final class PipelineStageEvent extends Event {
+    public static final String NAME = "cs4218.PipelineStage";
+
+    @Label("Command")
+    @Description("Tokens of the Call Command, separated by spaces")
+    public String command;
+
+    @Label("Stage")
+    @Description("Position of the Call Command in the pipeline, from 0")
+    public int stage;
+
+    @Label("Streaming")
+    public boolean isStreaming;
+
+    @Label("Bytes Out")
+    @Description("Bytes passed on to the next stage, 0 for the last stage")
+    @DataAmount
+    public long bytesOut;
+}
@@ -0,0 +1,74 @@
+package sg.edu.nus.comp.cs4218.impl.jfr;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Creates the Flight Recorder events of the shell, which is the only place they are created.
+ * <p>
+ * Java 8 runtimes before 8u262, and other Java 8 builds, have no jdk.jfr package, and loading an
+ * event class there fails with a NoClassDefFoundError. Whether jdk.jfr.Event exists is checked
+ * once; without it the methods below return null or the stream they are given, so that nothing
+ * is recorded and no event class is ever loaded. Callers skip an event that is null.
+ */
+@SuppressWarnings("PMD.ClassNamingConventions")
+public final class ShellEvents {
+    private static final boolean IS_AVAILABLE = isRecorderAvailable();
+
+    private ShellEvents() {
+    }
+
+    private static boolean isRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, ShellEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError | SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns whether Flight Recorder is available in this JVM.
+     */
+    public static boolean isAvailable() {
+        return IS_AVAILABLE;
+    }
+
+    public static ParseEvent newParseEvent() {
+        return IS_AVAILABLE ? new ParseEvent() : null;
+    }
+
+    public static ArgumentResolutionEvent newArgumentResolutionEvent() {
+        return IS_AVAILABLE ? new ArgumentResolutionEvent() : null;
+    }
+
+    public static GlobEvent newGlobEvent() {
+        return IS_AVAILABLE ? new GlobEvent() : null;
+    }
+
+    public static AppRunEvent newAppRunEvent() {
+        return IS_AVAILABLE ? new AppRunEvent() : null;
+    }
+
+    public static PipelineStageEvent newPipelineStageEvent() {
+        return IS_AVAILABLE ? new PipelineStageEvent() : null;
+    }
+
+    public static FileOpenEvent newFileOpenEvent() {
+        return IS_AVAILABLE ? new FileOpenEvent() : null;
+    }
+
+    /**
+     * Returns the file input stream, see FileCloseEvent.track.
+     */
+    public static InputStream trackClose(InputStream inputStream, String path) {
+        return IS_AVAILABLE ? FileCloseEvent.track(inputStream, path) : inputStream;
+    }
+
+    /**
+     * Returns the file output stream, see FileCloseEvent.track.
+     */
+    public static OutputStream trackClose(OutputStream outputStream, String path) {
+        return IS_AVAILABLE ? FileCloseEvent.track(outputStream, path) : outputStream;
+    }
+}
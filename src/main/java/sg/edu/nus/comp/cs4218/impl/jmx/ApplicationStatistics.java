@@ -0,0 +1,60 @@
+package sg.edu.nus.comp.cs4218.impl.jmx;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Snapshot of the statistics of one application, as exposed by ShellStatisticsMXBean.
+ */
+public final class ApplicationStatistics {
+    private final long invocations;
+    private final long errors;
+    private final long bytesRead;
+    private final long bytesWritten;
+    private final long latencyP50Nanos;
+    private final long latencyP99Nanos;
+    private final long latencyMaxNanos;
+
+    @ConstructorProperties({"invocations", "errors", "bytesRead", "bytesWritten", "latencyP50Nanos",
+            "latencyP99Nanos", "latencyMaxNanos"})
+    public ApplicationStatistics(long invocations, long errors, long bytesRead, long bytesWritten,
+                                 long latencyP50Nanos, long latencyP99Nanos, long latencyMaxNanos) {
+        this.invocations = invocations;
+        this.errors = errors;
+        this.bytesRead = bytesRead;
+        this.bytesWritten = bytesWritten;
+        this.latencyP50Nanos = latencyP50Nanos;
+        this.latencyP99Nanos = latencyP99Nanos;
+        this.latencyMaxNanos = latencyMaxNanos;
+    }
+
+    public long getInvocations() {
+        return invocations;
+    }
+
+    /**
+     * Returns the number of runs that failed with an exception.
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public long getLatencyP50Nanos() {
+        return latencyP50Nanos;
+    }
+
+    public long getLatencyP99Nanos() {
+        return latencyP99Nanos;
+    }
+
+    public long getLatencyMaxNanos() {
+        return latencyMaxNanos;
+    }
+}
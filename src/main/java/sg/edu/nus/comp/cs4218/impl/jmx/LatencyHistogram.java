@@ -0,0 +1,91 @@
+package sg.edu.nus.comp.cs4218.impl.jmx;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies in nanoseconds that many threads can record to without contending.
+ * <p>
+ * Values are counted in buckets of 8 per power of two, so a percentile is within 12.5% of the
+ * recorded value it stands for. Values below 8 are counted exactly. Every bucket is a LongAdder,
+ * so concurrent recordings update separate cells instead of contending on one counter.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int NUM_SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NUM_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * NUM_SUB_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[NUM_BUCKETS];
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram() {
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a latency. Negative values are recorded as 0.
+     */
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets[indexOf(value)].increment();
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns the highest value of the bucket holding the given fraction of the recorded values,
+     * but at most the maximum recorded value, or 0 if nothing was recorded.
+     *
+     * @param fraction Fraction between 0 and 1, e.g. 0.99 for the 99th percentile.
+     */
+    long getPercentile(double fraction) {
+        long[] counts = new long[NUM_BUCKETS];
+        long total = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    long getMax() {
+        return max.get();
+    }
+
+    void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        max.reset();
+    }
+
+    static int indexOf(long value) {
+        if (value < NUM_SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (NUM_SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * NUM_SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < NUM_SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / NUM_SUB_BUCKETS - 1;
+        long lowerBound = (long) (NUM_SUB_BUCKETS + index % NUM_SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
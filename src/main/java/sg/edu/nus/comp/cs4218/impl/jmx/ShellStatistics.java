@@ -0,0 +1,192 @@
+package sg.edu.nus.comp.cs4218.impl.jmx;
+
+import sg.edu.nus.comp.cs4218.CommandInterceptor;
+import sg.edu.nus.comp.cs4218.impl.util.ApplicationRegistry;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live statistics of the applications, pipelines and jobs of all sessions of the shell.
+ * <p>
+ * With {@code -Dcs4218.jmx=true}, the global instance is registered on the platform MBean server
+ * and every ApplicationRunner created with the default registry records its application runs
+ * through the interceptor of the global instance. Without it, applications run without the
+ * interceptor, and only the pipeline and job gauges are kept.
+ * <p>
+ * Every counter is a LongAdder or LongAccumulator, so that concurrent sessions update separate
+ * cells instead of contending on one counter. Reading the statistics sums the cells, so a
+ * snapshot taken while applications run may be slightly inconsistent.
+ */
+public final class ShellStatistics implements ShellStatisticsMXBean {
+    /**
+     * System property that registers the MBean and records application runs,
+     * e.g. {@code -Dcs4218.jmx=true}.
+     */
+    public static final String PROP_JMX = "cs4218.jmx";
+    public static final String OBJECT_NAME = "sg.edu.nus.comp.cs4218:type=ShellStatistics";
+
+    private static final ShellStatistics INSTANCE = new ShellStatistics();
+    private static final double P50 = 0.5;
+    private static final double P99 = 0.99;
+
+    private final ConcurrentMap<String, Counters> applications = new ConcurrentHashMap<>();
+    private final LongAdder activePipelines = new LongAdder();
+    private final LongAdder activePipelineStages = new LongAdder();
+    private final LongAccumulator maxPipelineDepth = new LongAccumulator(Math::max, 0);
+    private final LongAdder activeJobs = new LongAdder();
+
+    /**
+     * Returns the statistics shared by all sessions.
+     */
+    public static ShellStatistics getInstance() {
+        return INSTANCE;
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(PROP_JMX);
+    }
+
+    /**
+     * Registers this instance on the platform MBean server as {@value #OBJECT_NAME}, unless an
+     * MBean is already registered under the name.
+     *
+     * @return False if the name was already taken.
+     * @throws IllegalStateException If the MBean cannot be registered.
+     */
+    public boolean register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            synchronized (ShellStatistics.class) {
+                if (server.isRegistered(name)) {
+                    return false;
+                }
+                server.registerMBean(this, name);
+            }
+            return true;
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns an interceptor that records the runs of the applications registered in the given
+     * registry. Runs of unknown command names are not recorded, so that mistyped commands do not
+     * add entries.
+     */
+    public CommandInterceptor createInterceptor(ApplicationRegistry registry) {
+        return invocation -> {
+            long start = System.nanoTime();
+            boolean isFailed = true;
+            try {
+                invocation.proceed();
+                isFailed = false;
+            } finally {
+                String app = invocation.getApp();
+                if (registry.isRegistered(app)) {
+                    record(app, System.nanoTime() - start, invocation.getBytesIn(), invocation.getBytesOut(), isFailed);
+                }
+            }
+        };
+    }
+
+    /**
+     * Records a run of an application.
+     *
+     * @param app          Command name of the application.
+     * @param nanos        Latency of the run.
+     * @param bytesRead    Bytes the application read from its input stream.
+     * @param bytesWritten Bytes the application wrote to its output stream.
+     * @param isFailed     True if the application failed with an exception.
+     */
+    public void record(String app, long nanos, long bytesRead, long bytesWritten, boolean isFailed) {
+        Counters counters = applications.computeIfAbsent(app, name -> new Counters());
+        counters.invocations.increment();
+        if (isFailed) {
+            counters.errors.increment();
+        }
+        counters.bytesRead.add(bytesRead);
+        counters.bytesWritten.add(bytesWritten);
+        counters.latency.record(nanos);
+    }
+
+    /**
+     * Counts a Pipe Command as running until finishPipeline is called with the same number.
+     */
+    public void startPipeline(int numOfStages) {
+        activePipelines.increment();
+        activePipelineStages.add(numOfStages);
+        maxPipelineDepth.accumulate(numOfStages);
+    }
+
+    public void finishPipeline(int numOfStages) {
+        activePipelines.decrement();
+        activePipelineStages.add(-numOfStages);
+    }
+
+    public void startJob() {
+        activeJobs.increment();
+    }
+
+    public void finishJob() {
+        activeJobs.decrement();
+    }
+
+    @Override
+    public Map<String, ApplicationStatistics> getApplications() {
+        Map<String, ApplicationStatistics> snapshot = new TreeMap<>();
+        for (Map.Entry<String, Counters> entry : applications.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    @Override
+    public long getActivePipelines() {
+        return activePipelines.sum();
+    }
+
+    @Override
+    public long getActivePipelineStages() {
+        return activePipelineStages.sum();
+    }
+
+    @Override
+    public long getMaxPipelineDepth() {
+        return maxPipelineDepth.get();
+    }
+
+    @Override
+    public long getActiveJobs() {
+        return activeJobs.sum();
+    }
+
+    @Override
+    public void reset() {
+        applications.clear();
+        maxPipelineDepth.reset();
+    }
+
+    private static final class Counters {
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder bytesRead = new LongAdder();
+        private final LongAdder bytesWritten = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private ApplicationStatistics snapshot() {
+            return new ApplicationStatistics(invocations.sum(), errors.sum(), bytesRead.sum(), bytesWritten.sum(),
+                    latency.getPercentile(P50), latency.getPercentile(P99), latency.getMax());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package sg.edu.nus.comp.cs4218.impl.jmx;
+
+import java.util.Map;
+
+/**
+ * Live statistics of the shell, registered as {@value ShellStatistics#OBJECT_NAME} on the
+ * platform MBean server, see ShellStatistics.
+ */
+public interface ShellStatisticsMXBean {
+
+    /**
+     * Returns the statistics of every application run so far, by command name.
+     */
+    Map<String, ApplicationStatistics> getApplications();
+
+    /**
+     * Returns the number of Pipe Commands running.
+     */
+    long getActivePipelines();
+
+    /**
+     * Returns the total number of Call Commands of the Pipe Commands running.
+     */
+    long getActivePipelineStages();
+
+    /**
+     * Returns the highest number of Call Commands of a Pipe Command run so far.
+     */
+    long getMaxPipelineDepth();
+
+    /**
+     * Returns the number of background jobs running across all sessions.
+     */
+    long getActiveJobs();
+
+    /**
+     * Clears the statistics of the applications and the maximum pipeline depth. Pipelines and
+     * jobs still running stay counted.
+     */
+    void reset();
+}
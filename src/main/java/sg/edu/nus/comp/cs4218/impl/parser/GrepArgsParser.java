@@ -1,19 +1,107 @@
 package sg.edu.nus.comp.cs4218.impl.parser;
 
+import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_FLAG_PREFIX;
+
 public class GrepArgsParser extends ArgsParser {
+    public static final String INVALID_MAX_COUNT = "Invalid max count";
+
     private final static char FLAG_IS_INVERT = 'v';
+    private final static char FLAG_IS_RECURSIVE = 'r';
+    private final static char FLAG_IS_FIXED = 'F';
+    private final static char FLAG_IS_LIST_FILES = 'l';
+    private final static char FLAG_IS_QUIET = 'q';
+    private final static char FLAG_MAX_COUNT = 'm';
     private final static int INDEX_PATTERN = 0;
     private final static int INDEX_FILES = 1;
 
+    private int maxCount = Integer.MAX_VALUE;
+
     public GrepArgsParser() {
         super();
         legalFlags.add(FLAG_IS_INVERT);
+        legalFlags.add(FLAG_IS_RECURSIVE);
+        legalFlags.add(FLAG_IS_FIXED);
+        legalFlags.add(FLAG_IS_LIST_FILES);
+        legalFlags.add(FLAG_IS_QUIET);
+        legalFlags.add(FLAG_MAX_COUNT);
+    }
+
+    /**
+     * Separates the flags from the non-flag arguments like ArgsParser.parse, except that the number
+     * of -m is the rest of its argument, e.g. -m5 or -lm5, or else the next argument, e.g. -m 5.
+     *
+     * @param args
+     * @throws InvalidArgsException If a flag is illegal or the number of -m is missing or negative.
+     */
+    @Override
+    public void parse(String... args) throws InvalidArgsException {
+        List<String> otherArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            int index = arg.length() > 1 && arg.charAt(0) == CHAR_FLAG_PREFIX ? arg.indexOf(FLAG_MAX_COUNT) : -1;
+            if (index < 0) {
+                otherArgs.add(arg);
+                continue;
+            }
+            if (index + 1 < arg.length()) {
+                maxCount = parseMaxCount(arg.substring(index + 1));
+            } else {
+                i++;
+                maxCount = parseMaxCount(i < args.length ? args[i] : null);
+            }
+            flags.add(FLAG_MAX_COUNT);
+            if (index > 1) {
+                otherArgs.add(arg.substring(0, index));
+            }
+        }
+
+        super.parse(otherArgs.toArray(new String[0]));
+    }
+
+    private static int parseMaxCount(String number) throws InvalidArgsException {
+        try {
+            int maxCount = Integer.parseInt(number);
+            if (maxCount >= 0) {
+                return maxCount;
+            }
+        } catch (NumberFormatException e) {
+            throw new InvalidArgsException(INVALID_MAX_COUNT, e);
+        }
+        throw new InvalidArgsException(INVALID_MAX_COUNT);
     }
 
     public Boolean isInvert() {
         return flags.contains(FLAG_IS_INVERT);
     }
 
+    public Boolean isRecursive() {
+        return flags.contains(FLAG_IS_RECURSIVE);
+    }
+
+    public Boolean isFixedString() {
+        return flags.contains(FLAG_IS_FIXED);
+    }
+
+    public Boolean isListFiles() {
+        return flags.contains(FLAG_IS_LIST_FILES);
+    }
+
+    public Boolean isQuiet() {
+        return flags.contains(FLAG_IS_QUIET);
+    }
+
+    /**
+     * Returns the number given with -m, or Integer.MAX_VALUE without -m.
+     */
+    public int getMaxCount() {
+        return maxCount;
+    }
+
     public String getPattern() {
         return nonFlagArgs.isEmpty() ? nonFlagArgs.get(INDEX_PATTERN) : null;
     }
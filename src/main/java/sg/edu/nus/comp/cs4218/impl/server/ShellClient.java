@@ -0,0 +1,154 @@
+package sg.edu.nus.comp.cs4218.impl.server;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static sg.edu.nus.comp.cs4218.impl.ShellImpl.*;
+import static sg.edu.nus.comp.cs4218.impl.server.ShellProtocol.*;
+
+/**
+ * Thin client of ShellServer, which sends a command line or script to the server, passes its
+ * stdin on, and writes the output it gets back to stdout and stderr.
+ * <p>
+ * The client is itself a JVM, so running it from the command line still pays the JVM startup
+ * that the server saves. From the command line, use scripts/shell-client.sh instead, which speaks
+ * the same protocol from bash without starting a JVM; a client already running in a JVM can call
+ * run.
+ */
+@SuppressWarnings("PMD.ClassNamingConventions")
+public final class ShellClient {
+    private static final String USAGE = "Usage: shell-client [--port <port>] (-c <command line> | <script file>)";
+    private static final String ERR_NO_TOKEN = "Cannot read the token of the server from ";
+    private static final String ERR_NO_EXIT_STATUS = "Server closed the connection without an exit status";
+    private static final int STDIN_BUFFER_SIZE = 8192;
+
+    private ShellClient() {
+    }
+
+    /**
+     * Runs the command line on the server listening on the loopback address.
+     *
+     * @param port             Port of the server.
+     * @param token            Token of the server, see ShellServer.
+     * @param currentDirectory Working directory to run the command line in.
+     * @param commandLine      One or more lines of commands.
+     * @param stdin            Stream passed on as the stdin of the commands until it ends, or
+     *                         null for no stdin.
+     * @param stdout           Stream the output of the commands is written to.
+     * @param stderr           Stream the error messages of the commands are written to.
+     * @return Exit status of the command line.
+     * @throws IOException If the server cannot be reached or the connection is lost.
+     */
+    public static int run(int port, String token, String currentDirectory, String commandLine, InputStream stdin,
+                          OutputStream stdout, OutputStream stderr) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            writeFrame(output, FRAME_TOKEN, token);
+            writeFrame(output, FRAME_DIRECTORY, currentDirectory);
+            writeFrame(output, FRAME_COMMAND, commandLine);
+            if (stdin == null) {
+                writeFrame(output, FRAME_STDIN_EOF, new byte[0], 0, 0);
+            } else {
+                startStdinThread(stdin, output);
+            }
+            return readOutput(new DataInputStream(new BufferedInputStream(socket.getInputStream())), stdout, stderr);
+        }
+    }
+
+    /**
+     * Passes stdin on until it ends or the server closes the connection. Runs on a daemon thread
+     * so that an unread terminal does not keep the client alive.
+     */
+    private static void startStdinThread(InputStream stdin, DataOutputStream output) {
+        Thread thread = new Thread(() -> {
+            byte[] buffer = new byte[STDIN_BUFFER_SIZE];
+            try {
+                int numRead;
+                while ((numRead = stdin.read(buffer)) != -1) {
+                    writeFrame(output, FRAME_STDIN, buffer, 0, numRead);
+                }
+                writeFrame(output, FRAME_STDIN_EOF, buffer, 0, 0);
+            } catch (IOException e) {
+                // The command line is done and the server closed the connection
+            }
+        }, "shell-client-stdin");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static int readOutput(DataInputStream input, OutputStream stdout, OutputStream stderr)
+            throws IOException {
+        Frame frame;
+        while ((frame = readFrame(input)) != null) {
+            switch (frame.getType()) {
+                case FRAME_STDOUT:
+                    stdout.write(frame.getPayload());
+                    break;
+                case FRAME_STDERR:
+                    stdout.flush();
+                    stderr.write(frame.getPayload());
+                    stderr.flush();
+                    break;
+                case FRAME_EXIT:
+                    stdout.flush();
+                    return frame.getPayloadInt();
+                default:
+                    throw new IOException(ERR_INVALID_FRAME);
+            }
+        }
+        throw new IOException(ERR_NO_EXIT_STATUS);
+    }
+
+    public static void main(String... args) {
+        int index = 0;
+        int port = DEFAULT_PORT;
+        String commandLine;
+        try {
+            if (args.length > index + 1 && ShellServer.OPTION_PORT.equals(args[index])) {
+                port = Integer.parseInt(args[index + 1]);
+                index += 2;
+            }
+            if (args.length == index + 2 && OPTION_COMMAND.equals(args[index])) {
+                commandLine = args[index + 1];
+            } else if (args.length == index + 1) {
+                commandLine = new String(Files.readAllBytes(Paths.get(args[index])), StandardCharsets.UTF_8);
+            } else {
+                throw new IllegalArgumentException(USAGE);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(USAGE);
+            System.exit(EXIT_USAGE);
+            return;
+        } catch (IOException e) {
+            System.err.println("shell-client: " + args[index] + ": " + e.getMessage());
+            System.exit(EXIT_NOT_FOUND);
+            return;
+        }
+
+        Path tokenFile = ShellServer.getDefaultTokenFile(port);
+        String token;
+        try {
+            token = new String(Files.readAllBytes(tokenFile), StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            System.err.println("shell-client: " + ERR_NO_TOKEN + tokenFile + ": " + e.getMessage());
+            System.exit(EXIT_FAILURE);
+            return;
+        }
+
+        int status;
+        try {
+            status = run(port, token, System.getProperty("user.dir"), commandLine, System.in, System.out,
+                    System.err);
+        } catch (IOException e) {
+            System.err.println("shell-client: " + e.getMessage());
+            status = EXIT_FAILURE;
+        }
+        System.exit(status);
+    }
+}
@@ -0,0 +1,146 @@
+package sg.edu.nus.comp.cs4218.impl.server;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Framing of the messages between ShellClient and ShellServer.
+ * <p>
+ * Every message is a frame of a type byte, a 4-byte payload length and the payload. A session
+ * runs exactly one command line per connection: the client sends the token of the server, its
+ * working directory and the command line, which may be a script of several lines. After that it
+ * may send stdin data, read by the commands in order, up to an end of stdin frame. The server
+ * answers with the output of the command line and its exit status, then closes the connection,
+ * so every further command line needs a new connection.
+ * <p>
+ * The length is a big-endian int, as written by DataOutputStream, strings are UTF-8 and the
+ * payload of the exit status frame is a big-endian int, so that clients in other languages, such
+ * as scripts/shell-client.sh, can speak the protocol too.
+ */
+@SuppressWarnings("PMD.ClassNamingConventions")
+public final class ShellProtocol {
+    public static final int DEFAULT_PORT = 4218;
+
+    // client to server
+    public static final byte FRAME_TOKEN = 'T';
+    public static final byte FRAME_DIRECTORY = 'D';
+    public static final byte FRAME_COMMAND = 'C';
+    public static final byte FRAME_STDIN = 'I';
+    public static final byte FRAME_STDIN_EOF = 'Z';
+
+    // server to client
+    public static final byte FRAME_STDOUT = 'O';
+    public static final byte FRAME_STDERR = 'E';
+    public static final byte FRAME_EXIT = 'X';
+
+    public static final int MAX_PAYLOAD = 16 * 1024 * 1024;
+    public static final String ERR_INVALID_FRAME = "Invalid frame";
+
+    private ShellProtocol() {
+    }
+
+    /**
+     * Writes a frame and flushes it.
+     */
+    public static void writeFrame(DataOutputStream output, byte type, byte[] bytes, int off, int len)
+            throws IOException {
+        output.writeByte(type);
+        output.writeInt(len);
+        output.write(bytes, off, len);
+        output.flush();
+    }
+
+    public static void writeFrame(DataOutputStream output, byte type, String payload) throws IOException {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        writeFrame(output, type, bytes, 0, bytes.length);
+    }
+
+    public static void writeExitFrame(DataOutputStream output, int status) throws IOException {
+        output.writeByte(FRAME_EXIT);
+        output.writeInt(Integer.BYTES);
+        output.writeInt(status);
+        output.flush();
+    }
+
+    /**
+     * Reads the next frame.
+     *
+     * @return The frame, or null if the stream ended before it.
+     * @throws IOException If the frame is truncated or its length is invalid.
+     */
+    public static Frame readFrame(DataInputStream input) throws IOException {
+        int type = input.read();
+        if (type == -1) {
+            return null;
+        }
+        int length = input.readInt();
+        if (length < 0 || length > MAX_PAYLOAD) {
+            throw new IOException(ERR_INVALID_FRAME);
+        }
+        byte[] payload = new byte[length];
+        input.readFully(payload);
+        return new Frame((byte) type, payload);
+    }
+
+    /**
+     * A message of a session.
+     */
+    public static final class Frame {
+        private final byte type;
+        private final byte[] payload;
+
+        Frame(byte type, byte[] payload) {
+            this.type = type;
+            this.payload = payload;
+        }
+
+        public byte getType() {
+            return type;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+
+        public String getPayloadString() {
+            return new String(payload, StandardCharsets.UTF_8);
+        }
+
+        public int getPayloadInt() throws IOException {
+            if (payload.length != Integer.BYTES) {
+                throw new IOException(ERR_INVALID_FRAME);
+            }
+            return ((payload[0] & 0xFF) << 24) | ((payload[1] & 0xFF) << 16)
+                    | ((payload[2] & 0xFF) << 8) | (payload[3] & 0xFF);
+        }
+    }
+
+    /**
+     * Writes everything written to it as frames of one type. Wrap it in a BufferedOutputStream to
+     * avoid sending many small frames.
+     */
+    public static final class FrameOutputStream extends OutputStream {
+        private final DataOutputStream output;
+        private final byte type;
+
+        public FrameOutputStream(DataOutputStream output, byte type) {
+            this.output = output;
+            this.type = type;
+        }
+
+        @Override
+        public void write(int byteValue) throws IOException {
+            write(new byte[]{(byte) byteValue}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int off, int len) throws IOException {
+            if (len > 0) {
+                writeFrame(output, type, bytes, off, len);
+            }
+        }
+    }
+}
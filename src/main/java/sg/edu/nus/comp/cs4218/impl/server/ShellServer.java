@@ -0,0 +1,249 @@
+package sg.edu.nus.comp.cs4218.impl.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static sg.edu.nus.comp.cs4218.impl.ShellImpl.EXIT_FAILURE;
+import static sg.edu.nus.comp.cs4218.impl.ShellImpl.EXIT_USAGE;
+import static sg.edu.nus.comp.cs4218.impl.server.ShellProtocol.DEFAULT_PORT;
+
+/**
+ * Long-running shell that serves ShellClient sessions on a local TCP port, so that the JVM
+ * startup and JIT warm-up are paid once rather than for every command line.
+ * <p>
+ * Only connections from the loopback address are accepted. At most maxSessions sessions run at
+ * once; further connections wait until one of them ends. A session runs a single command line,
+ * so this also bounds the command lines running at once.
+ * <p>
+ * Any local user can connect to a loopback port, so a session must start with the token of the
+ * server. The token is generated at startup and written to a token file that only the owner of
+ * the server can read, in the home directory by default, see getDefaultTokenFile. A client shows
+ * it may run commands as that owner by reading the file.
+ */
+public class ShellServer implements Closeable {
+    public static final String OPTION_PORT = "--port";
+    public static final String OPTION_MAX_SESSIONS = "--max-sessions";
+    public static final int DEFAULT_MAX_SESSIONS = 16;
+    public static final int TOKEN_SIZE = 32;
+
+    private static final String USAGE = "Usage: shell --server [--port <port>] [--max-sessions <count>]";
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final ServerSocket serverSocket;
+    private final Semaphore sessionPermits;
+    private final String token;
+    private final Path tokenFile;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "shell-session");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Binds the server to the port on the loopback address, and writes its token to the default
+     * token file of the port.
+     *
+     * @param port        Port to listen on, or 0 for any free port.
+     * @param maxSessions Maximum number of sessions running at once.
+     * @throws IOException If the port cannot be bound or the token file cannot be written.
+     */
+    public ShellServer(int port, int maxSessions) throws IOException {
+        this(port, maxSessions, null);
+    }
+
+    /**
+     * Binds the server to the port on the loopback address, and writes its token to tokenFile.
+     *
+     * @param port        Port to listen on, or 0 for any free port.
+     * @param maxSessions Maximum number of sessions running at once.
+     * @param tokenFile   File to write the token to, replacing it, or null for the default token
+     *                    file of the port. The file is deleted when the server is closed.
+     * @throws IOException If the port cannot be bound or the token file cannot be written.
+     */
+    public ShellServer(int port, int maxSessions, Path tokenFile) throws IOException {
+        if (maxSessions <= 0) {
+            throw new IllegalArgumentException("Maximum number of sessions must be positive");
+        }
+        this.serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        this.sessionPermits = new Semaphore(maxSessions);
+        this.token = generateToken();
+        this.tokenFile = tokenFile == null ? getDefaultTokenFile(getPort()) : tokenFile;
+        try {
+            writeTokenFile(this.tokenFile, token);
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the token file of the server on the port, .cs4218-shell-PORT.token in the home
+     * directory.
+     */
+    public static Path getDefaultTokenFile(int port) {
+        return Paths.get(System.getProperty("user.home"), ".cs4218-shell-" + port + ".token");
+    }
+
+    private static String generateToken() {
+        byte[] bytes = new byte[TOKEN_SIZE];
+        new SecureRandom().nextBytes(bytes);
+        StringBuilder builder = new StringBuilder(2 * TOKEN_SIZE);
+        for (byte value : bytes) {
+            builder.append(String.format("%02x", value));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Writes the token to a new file readable and writable by the owner only, then moves it in
+     * place, so that the token is never in a file others can read.
+     */
+    private static void writeTokenFile(Path tokenFile, String token) throws IOException {
+        Path directory = tokenFile.toAbsolutePath().getParent();
+        Path temporary;
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            temporary = Files.createTempFile(directory, ".cs4218-shell-", ".tmp",
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            temporary = Files.createTempFile(directory, ".cs4218-shell-", ".tmp");
+        }
+        try {
+            Files.write(temporary, token.getBytes(StandardCharsets.UTF_8));
+            Files.move(temporary, tokenFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public Path getTokenFile() {
+        return tokenFile;
+    }
+
+    /**
+     * Accepts connections until the server is closed, running a session for each.
+     */
+    public void serve() throws IOException {
+        try {
+            while (!serverSocket.isClosed()) {
+                sessionPermits.acquire();
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (IOException e) {
+                    sessionPermits.release();
+                    throw e;
+                }
+                executor.execute(() -> {
+                    try {
+                        new ShellSession(socket, executor, token).run();
+                    } finally {
+                        sessionPermits.release();
+                    }
+                });
+            }
+        } catch (SocketException e) {
+            if (!serverSocket.isClosed()) {
+                throw e;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Starts serving on a daemon thread.
+     */
+    public ShellServer start() {
+        Thread thread = new Thread(() -> {
+            try {
+                serve();
+            } catch (IOException e) {
+                System.err.println(e.getMessage());
+            }
+        }, "shell-server");
+        thread.setDaemon(true);
+        thread.start();
+        return this;
+    }
+
+    /**
+     * Stops accepting connections, deletes the token file and waits briefly for the running
+     * sessions to end.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        Files.deleteIfExists(tokenFile);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs the server until the process is killed.
+     *
+     * @param args [--port port] [--max-sessions count]
+     * @return Exit status, if the server could not be started.
+     */
+    public static int run(String... args) {
+        int port = DEFAULT_PORT;
+        int maxSessions = DEFAULT_MAX_SESSIONS;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException(USAGE);
+                }
+                if (OPTION_PORT.equals(args[i])) {
+                    port = Integer.parseInt(args[i + 1]);
+                } else if (OPTION_MAX_SESSIONS.equals(args[i])) {
+                    maxSessions = Integer.parseInt(args[i + 1]);
+                } else {
+                    throw new IllegalArgumentException(USAGE);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        try (ShellServer server = new ShellServer(port, maxSessions)) {
+            System.err.println("shell: listening on port " + server.getPort() + ", token in "
+                    + server.getTokenFile());
+            server.serve();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("shell: " + e.getMessage());
+        }
+        return EXIT_FAILURE;
+    }
+
+    public static void main(String... args) {
+        System.exit(run(args));
+    }
+}
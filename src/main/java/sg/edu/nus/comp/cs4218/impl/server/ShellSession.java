@@ -0,0 +1,175 @@
+package sg.edu.nus.comp.cs4218.impl.server;
+
+import sg.edu.nus.comp.cs4218.EnvironmentHelper;
+import sg.edu.nus.comp.cs4218.ShellContext;
+import sg.edu.nus.comp.cs4218.impl.ShellImpl;
+import sg.edu.nus.comp.cs4218.impl.util.NonClosingInputStream;
+import sg.edu.nus.comp.cs4218.impl.util.NonClosingOutputStream;
+import sg.edu.nus.comp.cs4218.impl.util.RingBufferPipe;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static sg.edu.nus.comp.cs4218.impl.ShellImpl.EXIT_FAILURE;
+import static sg.edu.nus.comp.cs4218.impl.server.ShellProtocol.*;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+/**
+ * A client connection of ShellServer, which runs one command line with its own working
+ * directory and streams.
+ * <p>
+ * The client sends the token of the server, its working directory and the command line, followed
+ * by stdin data for as long as it likes. A session that does not start with the token, or whose
+ * working directory is not an existing directory, is answered with an error and a failure exit
+ * status without running anything. The command line runs on another thread while the session keeps passing
+ * stdin on to it. Once the command line is done, its exit status is sent and the connection is
+ * closed, whether or not all of stdin was read.
+ */
+public class ShellSession implements Runnable {
+    private static final int OUTPUT_BUFFER_SIZE = 8192;
+    private static final String ERR_AUTHENTICATION = "Invalid token";
+    private static final String ERR_NO_DIRECTORY = "No such directory";
+
+    private final Socket socket;
+    private final ExecutorService executor;
+    private final byte[] token;
+    private final RingBufferPipe stdinPipe = new RingBufferPipe(RingBufferPipe.DEFAULT_CAPACITY);
+    private final ShellContext context = new ShellContext(EnvironmentHelper.currentDirectory);
+
+    /**
+     * @param socket   Connection to the client, closed when the session ends.
+     * @param executor Executor for running the command line of the session.
+     * @param token    Token of the server, which the session must start with.
+     */
+    public ShellSession(Socket socket, ExecutorService executor, String token) {
+        this.socket = socket;
+        this.executor = executor;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void run() {
+        Future<?> command = null;
+        try {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            String commandLine = readCommandLine(input);
+            if (commandLine != null) {
+                command = executor.submit(() -> runCommandLine(commandLine));
+                readStdin(input);
+            }
+        } catch (IOException e) {
+            // The client is gone, or the command line is done and closed the connection
+        } finally {
+            closeQuietly(stdinPipe.getOutputStream());
+            awaitCommand(command);
+            closeQuietly(socket);
+        }
+    }
+
+    /**
+     * Reads the frames up to the command line, starting with the token.
+     *
+     * @return The command line, or null if the client disconnected before sending it or was
+     * rejected.
+     */
+    private String readCommandLine(DataInputStream input) throws IOException {
+        Frame frame = readFrame(input);
+        if (frame == null) {
+            return null;
+        }
+        // compared in constant time, so that the time taken gives nothing of the token away
+        if (frame.getType() != FRAME_TOKEN || !MessageDigest.isEqual(token, frame.getPayload())) {
+            reject(ERR_AUTHENTICATION);
+            return null;
+        }
+        while ((frame = readFrame(input)) != null) {
+            if (frame.getType() == FRAME_DIRECTORY) {
+                String directory = frame.getPayloadString();
+                File file = new File(directory);
+                if (!file.isAbsolute() || !file.isDirectory()) {
+                    reject(directory + ": " + ERR_NO_DIRECTORY);
+                    return null;
+                }
+                context.setCurrentDirectory(directory);
+            } else if (frame.getType() == FRAME_COMMAND) {
+                return frame.getPayloadString();
+            } else {
+                throw new IOException(ERR_INVALID_FRAME);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Answers the client with the error and a failure exit status.
+     */
+    private void reject(String message) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        writeFrame(output, FRAME_STDERR, "shell: " + message + STRING_NEWLINE);
+        writeExitFrame(output, EXIT_FAILURE);
+    }
+
+    private void readStdin(DataInputStream input) throws IOException {
+        Frame frame;
+        while ((frame = readFrame(input)) != null) {
+            if (frame.getType() == FRAME_STDIN) {
+                stdinPipe.getOutputStream().write(frame.getPayload());
+            } else if (frame.getType() == FRAME_STDIN_EOF) {
+                stdinPipe.getOutputStream().close();
+            } else {
+                throw new IOException(ERR_INVALID_FRAME);
+            }
+        }
+    }
+
+    private void runCommandLine(String commandLine) {
+        try {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            OutputStream stdout = new BufferedOutputStream(new FrameOutputStream(output, FRAME_STDOUT),
+                    OUTPUT_BUFFER_SIZE);
+            PrintStream stderr = new PrintStream(new BufferedOutputStream(
+                    new FrameOutputStream(output, FRAME_STDERR), OUTPUT_BUFFER_SIZE), true);
+            InputStream stdin = new NonClosingInputStream(stdinPipe.getInputStream());
+            BufferedReader reader = new BufferedReader(new StringReader(commandLine));
+
+            int status = new ShellImpl(context)
+                    .runScript(reader, stdin, new NonClosingOutputStream(stdout), stderr)
+                    .getStatus();
+            stdout.flush();
+            stderr.flush();
+            writeExitFrame(output, status);
+        } catch (IOException e) {
+            // The client is gone
+        } finally {
+            // unblocks the session if it is still passing stdin on
+            closeQuietly(stdinPipe.getInputStream());
+            closeQuietly(socket);
+        }
+    }
+
+    private void awaitCommand(Future<?> command) {
+        if (command == null) {
+            return;
+        }
+        try {
+            command.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // runCommandLine handles its own exceptions
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Nothing more can be done
+        }
+    }
+}
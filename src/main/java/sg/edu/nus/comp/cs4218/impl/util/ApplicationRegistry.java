@@ -0,0 +1,132 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import sg.edu.nus.comp.cs4218.Application;
+import sg.edu.nus.comp.cs4218.ApplicationProvider;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe mapping from command names to the applications they run.
+ * <p>
+ * Applications registered by class name are only loaded the first time they are run. Instances
+ * of stateless applications are created once and reused, others are created for every run.
+ */
+public final class ApplicationRegistry {
+    private final Map<String, ApplicationProvider> providers = new ConcurrentHashMap<>();
+    private final Map<String, Application> instances = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the application with the given class name, which must have a public no-argument
+     * constructor. The class is loaded the first time the application is run.
+     *
+     * @param name        Command name of the application.
+     * @param className   Fully qualified class name of the application.
+     * @param isStateless True if a single instance can be reused for every run.
+     * @return False if an application is already registered under the name, in which case it is
+     * kept.
+     */
+    public boolean register(String name, String className, boolean isStateless) {
+        return register(new ClassNameProvider(name, className, isStateless));
+    }
+
+    /**
+     * Registers the application created by the provider.
+     *
+     * @return False if an application is already registered under the provider's name, in which
+     * case it is kept.
+     */
+    public boolean register(ApplicationProvider provider) {
+        return providers.putIfAbsent(provider.getName(), provider) == null;
+    }
+
+    /**
+     * Registers the applications of all providers, skipping those whose name is already taken.
+     */
+    public void registerAll(Iterable<ApplicationProvider> applicationProviders) {
+        for (ApplicationProvider provider : applicationProviders) {
+            register(provider);
+        }
+    }
+
+    public boolean isRegistered(String name) {
+        return providers.containsKey(name);
+    }
+
+    /**
+     * Returns the sorted command names of all registered applications.
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(new TreeSet<>(providers.keySet()));
+    }
+
+    /**
+     * Returns the application to run for the command name, or null if there is none.
+     *
+     * @throws ShellException If the application could not be loaded or created.
+     */
+    public Application getApplication(String name) throws ShellException {
+        Application application = instances.get(name);
+        if (application != null) {
+            return application;
+        }
+        ApplicationProvider provider = providers.get(name);
+        if (provider == null) {
+            return null;
+        }
+
+        try {
+            if (!provider.isStateless()) {
+                return provider.createApplication();
+            }
+            // a concurrent first run may create a spare instance, but only one is ever kept
+            application = provider.createApplication();
+            Application existing = instances.putIfAbsent(name, application);
+            return existing == null ? application : existing;
+        } catch (IllegalStateException e) {
+            throw (ShellException) new ShellException(name + ": " + e.getMessage()).initCause(e);
+        }
+    }
+
+    /**
+     * Provider that loads the application class by name on first use.
+     */
+    private static final class ClassNameProvider implements ApplicationProvider {
+        private final String name;
+        private final String className;
+        private final boolean isStateless;
+        private volatile Class<? extends Application> applicationClass;
+
+        ClassNameProvider(String name, String className, boolean isStateless) {
+            this.name = name;
+            this.className = className;
+            this.isStateless = isStateless;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Application createApplication() {
+            try {
+                if (applicationClass == null) {
+                    applicationClass = Class.forName(className).asSubclass(Application.class);
+                }
+                return applicationClass.getConstructor().newInstance();
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                throw new IllegalStateException("Cannot create application " + className, e);
+            }
+        }
+
+        @Override
+        public boolean isStateless() {
+            return isStateless;
+        }
+    }
+}
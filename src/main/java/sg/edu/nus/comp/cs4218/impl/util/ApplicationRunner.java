@@ -1,12 +1,22 @@
 package sg.edu.nus.comp.cs4218.impl.util;
 
 import sg.edu.nus.comp.cs4218.Application;
+import sg.edu.nus.comp.cs4218.ApplicationProvider;
+import sg.edu.nus.comp.cs4218.CommandInterceptor;
+import sg.edu.nus.comp.cs4218.ShellContext;
 import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
-import sg.edu.nus.comp.cs4218.impl.app.*;
+import sg.edu.nus.comp.cs4218.impl.jfr.AppRunEvent;
+import sg.edu.nus.comp.cs4218.impl.jfr.ShellEvents;
+import sg.edu.nus.comp.cs4218.impl.jmx.ShellStatistics;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.CancellationException;
 
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.*;
 
@@ -27,6 +37,72 @@ public class ApplicationRunner {
     public final static String APP_RM = "rm";
     public final static String APP_CUT = "cut";
     public final static String APP_MV = "mv";
+    public final static String APP_JOBS = "jobs";
+    public final static String APP_WAIT = "wait";
+    public final static String APP_TIMEOUT = "timeout";
+    public final static String APP_PROFILE = "profile";
+    public final static String APP_TIME = "time";
+
+    private final static String APP_PACKAGE = "sg.edu.nus.comp.cs4218.impl.app.";
+    private final static ApplicationRegistry DEFAULT_REGISTRY = createDefaultRegistry();
+    private final static List<CommandInterceptor> DEFAULT_INTERCEPTORS = loadDefaultInterceptors();
+    private final static CommandInterceptor[] NO_INTERCEPTORS = new CommandInterceptor[0];
+    private final static ThreadLocal<ApplicationRunner> RUNNING_RUNNER = new ThreadLocal<>();
+
+    private final ApplicationRegistry registry;
+    // Copied on write, so that runs read the chain with a single volatile read and no locking.
+    private volatile CommandInterceptor[] interceptors = NO_INTERCEPTORS;
+
+    /**
+     * Creates a runner for the built-in applications and those registered through ServiceLoader,
+     * sharing their instances with every other runner created this way. The interceptors found
+     * by ServiceLoader, and the statistics interceptor if ShellStatistics is enabled, are
+     * registered on the runner.
+     */
+    public ApplicationRunner() {
+        this(DEFAULT_REGISTRY);
+        for (CommandInterceptor interceptor : DEFAULT_INTERCEPTORS) {
+            addInterceptor(interceptor);
+        }
+    }
+
+    public ApplicationRunner(ApplicationRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Adds the interceptor to the end of the chain every application run passes through, see
+     * CommandInterceptor.
+     */
+    public synchronized void addInterceptor(CommandInterceptor interceptor) {
+        CommandInterceptor[] newInterceptors = new CommandInterceptor[interceptors.length + 1];
+        System.arraycopy(interceptors, 0, newInterceptors, 0, interceptors.length);
+        newInterceptors[interceptors.length] = interceptor;
+        interceptors = newInterceptors;
+    }
+
+    /**
+     * Removes the interceptor from the chain. Runs already passing through it are not affected.
+     *
+     * @return False if the interceptor was not registered.
+     */
+    public synchronized boolean removeInterceptor(CommandInterceptor interceptor) {
+        List<CommandInterceptor> remaining = new ArrayList<>();
+        Collections.addAll(remaining, interceptors);
+        if (!remaining.remove(interceptor)) {
+            return false;
+        }
+        interceptors = remaining.toArray(NO_INTERCEPTORS);
+        return true;
+    }
+
+    /**
+     * Returns true if any interceptor is registered, in which case Call Commands pass their IO
+     * redirections to runApp so that the interceptors can see them.
+     */
+    public boolean hasInterceptors() {
+        return interceptors.length > 0;
+    }
 
     /**
      * Run the application as specified by the application command keyword and arguments.
@@ -40,62 +116,167 @@ public class ApplicationRunner {
      * @throws ShellException               If an unsupported or invalid application command is
      *                                      detected.
      */
-    @SuppressWarnings("PMD.ExcessiveMethodLength")
     public void runApp(String app, String[] argsArray, InputStream inputStream,
                        OutputStream outputStream)
             throws AbstractApplicationException, ShellException {
-        Application application;
-
-        switch (app) {
-            case APP_LS:
-                application = new LsApplication();
-                break;
-            case APP_FIND:
-                application = new FindApplication();
-                break;
-            case APP_WC:
-                application = new WcApplication();
-                break;
-            case APP_ECHO:
-                application = new EchoApplication();
-                break;
-            case APP_EXIT:
-                application = new ExitApplication();
-                break;
-            case APP_GREP:
-                application = new GrepApplication();
-                break;
-            case APP_SORT:
-                application = new SortApplication();
-                break;
-            case APP_CD:
-                application = new CdApplication();
-                break;
-            case APP_CP:
-                application = new CpApplication();
-                break;
-            case APP_SED:
-                application = new SedApplication();
-                break;
-            case APP_RM:
-                application = new RmApplication();
-                break;
-            case APP_CUT:
-                application = new CutApplication();
-                break;
-            case APP_MV:
-                application = new MvApplication();
-                break;
-            case APP_DIFF:
-                application = new DiffApplication();
-                break;
-            case APP_PASTE:
-                application = new PasteApplication();
-                break;
-            default:
-                throw new ShellException(app + ": " + ERR_INVALID_APP);
+        runApp(app, argsArray, inputStream, outputStream, ShellContext.current());
+    }
+
+    /**
+     * Run the application in the given shell context, which the application finds with
+     * ShellContext.current() while it runs.
+     * <p>
+     * An application that stops because its thread is interrupted, see IOUtils.checkInterrupted,
+     * fails with a ShellException.
+     *
+     * @param app          String containing the keyword that specifies what application to run.
+     * @param argsArray    String array containing the arguments to pass to the applications for
+     *                     running.
+     * @param inputStream  InputStream for the application to get input from, if needed.
+     * @param outputStream OutputStream for the application to write its output to.
+     * @param context      ShellContext of the session running the application.
+     * @throws AbstractApplicationException If an exception happens while running an application.
+     * @throws ShellException               If an unsupported or invalid application command is
+     *                                      detected.
+     */
+    public void runApp(String app, String[] argsArray, InputStream inputStream,
+                       OutputStream outputStream, ShellContext context)
+            throws AbstractApplicationException, ShellException {
+        runApp(app, argsArray, Collections.emptyList(), inputStream, outputStream, context);
+    }
+
+    /**
+     * Run the application in the current shell context, passing the IO redirections that
+     * produced its streams on to the interceptors.
+     *
+     * @param redirections Redirection operators and resolved file names, see
+     *                     IORedirectionHandler.getRedirections.
+     */
+    public void runApp(String app, String[] argsArray, List<String> redirections, InputStream inputStream,
+                       OutputStream outputStream)
+            throws AbstractApplicationException, ShellException {
+        runApp(app, argsArray, redirections, inputStream, outputStream, ShellContext.current());
+    }
+
+    private void runApp(String app, String[] argsArray, List<String> redirections, InputStream inputStream,
+                        OutputStream outputStream, ShellContext context)
+            throws AbstractApplicationException, ShellException {
+        CommandInterceptor[] chain = interceptors;
+        if (chain.length == 0) {
+            runApplication(app, argsArray, inputStream, outputStream, context);
+            return;
+        }
+        new InterceptorChain(chain, this::runApplication, app, argsArray, redirections, inputStream,
+                outputStream, context).proceed();
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void runApplication(String app, String[] argsArray, InputStream inputStream,
+                                OutputStream outputStream, ShellContext context)
+            throws AbstractApplicationException, ShellException {
+        Application application = registry.getApplication(app);
+        if (application == null) {
+            throw new ShellException(app + ": " + ERR_INVALID_APP);
+        }
+
+        AppRunEvent event = ShellEvents.newAppRunEvent();
+        if (event == null || !event.isEnabled()) {
+            runApplication(app, application, argsArray, inputStream, outputStream, context);
+            return;
+        }
+        // only count the bytes while a recording asks for the event
+        CountingInputStream countingInput = new CountingInputStream(inputStream);
+        CountingOutputStream countingOutput = new CountingOutputStream(outputStream);
+        event.begin();
+        try {
+            runApplication(app, application, argsArray, countingInput, countingOutput, context);
+        } catch (AbstractApplicationException | ShellException | RuntimeException e) {
+            event.error = e.getMessage();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.command = app + (argsArray == null || argsArray.length == 0 ? "" : " " + String.join(" ", argsArray));
+                event.bytesIn = countingInput.getCount();
+                event.bytesOut = countingOutput.getCount();
+                event.commit();
+            }
+        }
+    }
+
+    private void runApplication(String app, Application application, String[] argsArray, InputStream inputStream,
+                                OutputStream outputStream, ShellContext context)
+            throws AbstractApplicationException, ShellException {
+        ApplicationRunner previousRunner = RUNNING_RUNNER.get();
+        RUNNING_RUNNER.set(this);
+        try (ShellContext.Scope ignored = context.bind()) {
+            application.run(argsArray, inputStream, outputStream);
+        } catch (CancellationException e) {
+            throw (ShellException) new ShellException(app + ": " + ERR_INTERRUPTED).initCause(e);
+        } finally {
+            if (previousRunner == null) {
+                RUNNING_RUNNER.remove();
+            } else {
+                RUNNING_RUNNER.set(previousRunner);
+            }
         }
+    }
+
+    /**
+     * Returns the runner running the application on the current thread, so that an application
+     * that runs others, such as timeout, runs them with the same registry and interceptors. Without
+     * one, a new runner is returned, see ApplicationRunner().
+     */
+    public static ApplicationRunner current() {
+        ApplicationRunner runner = RUNNING_RUNNER.get();
+        return runner == null ? new ApplicationRunner() : runner;
+    }
+
+    public ApplicationRegistry getRegistry() {
+        return registry;
+    }
 
-        application.run(argsArray, inputStream, outputStream);
+    /**
+     * Creates a registry with the built-in applications, followed by the applications of any
+     * ApplicationProvider found by ServiceLoader. Built-in applications cannot be replaced.
+     */
+    public static ApplicationRegistry createDefaultRegistry() {
+        ApplicationRegistry registry = new ApplicationRegistry();
+        // none of the built-in applications keep state between runs
+        registry.register(APP_LS, APP_PACKAGE + "LsApplication", true);
+        registry.register(APP_FIND, APP_PACKAGE + "FindApplication", true);
+        registry.register(APP_WC, APP_PACKAGE + "WcApplication", true);
+        registry.register(APP_ECHO, APP_PACKAGE + "EchoApplication", true);
+        registry.register(APP_EXIT, APP_PACKAGE + "ExitApplication", true);
+        registry.register(APP_GREP, APP_PACKAGE + "GrepApplication", true);
+        registry.register(APP_SORT, APP_PACKAGE + "SortApplication", true);
+        registry.register(APP_CD, APP_PACKAGE + "CdApplication", true);
+        registry.register(APP_CP, APP_PACKAGE + "CpApplication", true);
+        registry.register(APP_SED, APP_PACKAGE + "SedApplication", true);
+        registry.register(APP_RM, APP_PACKAGE + "RmApplication", true);
+        registry.register(APP_CUT, APP_PACKAGE + "CutApplication", true);
+        registry.register(APP_MV, APP_PACKAGE + "MvApplication", true);
+        registry.register(APP_DIFF, APP_PACKAGE + "DiffApplication", true);
+        registry.register(APP_PASTE, APP_PACKAGE + "PasteApplication", true);
+        registry.register(APP_JOBS, APP_PACKAGE + "JobsApplication", true);
+        registry.register(APP_WAIT, APP_PACKAGE + "WaitApplication", true);
+        registry.register(APP_TIMEOUT, APP_PACKAGE + "TimeoutApplication", true);
+        registry.register(APP_PROFILE, APP_PACKAGE + "ProfileApplication", true);
+        registry.register(APP_TIME, APP_PACKAGE + "TimeApplication", true);
+        registry.registerAll(ServiceLoader.load(ApplicationProvider.class));
+        return registry;
+    }
+
+    private static List<CommandInterceptor> loadDefaultInterceptors() {
+        List<CommandInterceptor> interceptors = new ArrayList<>();
+        for (CommandInterceptor interceptor : ServiceLoader.load(CommandInterceptor.class)) {
+            interceptors.add(interceptor);
+        }
+        if (ShellStatistics.isEnabled()) {
+            ShellStatistics statistics = ShellStatistics.getInstance();
+            statistics.register();
+            interceptors.add(statistics.createInterceptor(DEFAULT_REGISTRY));
+        }
+        return Collections.unmodifiableList(interceptors);
     }
 }
@@ -3,6 +3,9 @@ package sg.edu.nus.comp.cs4218.impl.util;
 import sg.edu.nus.comp.cs4218.Command;
 import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.impl.jfr.ArgumentResolutionEvent;
+import sg.edu.nus.comp.cs4218.impl.jfr.GlobEvent;
+import sg.edu.nus.comp.cs4218.impl.jfr.ShellEvents;
 
 import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
@@ -18,7 +21,14 @@ public class ArgumentResolver {
     private final ApplicationRunner applicationRunner;
 
     public ArgumentResolver() {
-        applicationRunner = new ApplicationRunner();
+        this(new ApplicationRunner());
+    }
+
+    /**
+     * @param applicationRunner ApplicationRunner used for command substitution.
+     */
+    public ArgumentResolver(ApplicationRunner applicationRunner) {
+        this.applicationRunner = applicationRunner;
     }
 
     public ApplicationRunner getAppRunner() {
@@ -33,6 +43,10 @@ public class ArgumentResolver {
      * @throws ShellException If any of the arguments have an invalid syntax.
      */
     public List<String> parseArguments(List<String> argsList) throws AbstractApplicationException, ShellException {
+        ArgumentResolutionEvent event = ShellEvents.newArgumentResolutionEvent();
+        if (event != null) {
+            event.begin();
+        }
         List<String> parsedArgsList = new LinkedList<>();
         String firstArgument = argsList.get(0);
         firstArgument = firstArgument.trim();
@@ -40,6 +54,15 @@ public class ArgumentResolver {
         for (int i = 1; i < argsList.size(); i++) {
             parsedArgsList.addAll(resolveOneArgument(argsList.get(i)));
         }
+        if (event == null) {
+            return parsedArgsList;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.arguments = String.join(String.valueOf(CHAR_SPACE), argsList);
+            event.numOfResolved = parsedArgsList.size();
+            event.commit();
+        }
         return parsedArgsList;
     }
 
@@ -159,10 +182,26 @@ public class ArgumentResolver {
 
         // perform globing
         return parsedArgsSegment.stream()
-                .flatMap(regexArgument -> regexArgument.globFiles().stream())
+                .flatMap(regexArgument -> globFiles(regexArgument).stream())
                 .collect(Collectors.toList());
     }
 
+    private List<String> globFiles(RegexArgument regexArgument) {
+        GlobEvent event = regexArgument.hasRegex() ? ShellEvents.newGlobEvent() : null;
+        if (event == null) {
+            return regexArgument.globFiles();
+        }
+        event.begin();
+        List<String> files = regexArgument.globFiles();
+        event.end();
+        if (event.shouldCommit()) {
+            event.pattern = regexArgument.toString();
+            event.numOfMatches = files.size();
+            event.commit();
+        }
+        return files;
+    }
+
     public RegexArgument makeRegexArgument() {
         return new RegexArgument();
     }
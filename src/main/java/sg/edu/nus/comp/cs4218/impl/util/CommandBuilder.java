@@ -3,13 +3,12 @@ package sg.edu.nus.comp.cs4218.impl.util;
 import sg.edu.nus.comp.cs4218.Command;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
 import sg.edu.nus.comp.cs4218.impl.cmd.CallCommand;
-import sg.edu.nus.comp.cs4218.impl.cmd.PipeCommand;
-import sg.edu.nus.comp.cs4218.impl.cmd.SequenceCommand;
+import sg.edu.nus.comp.cs4218.impl.jfr.ParseEvent;
+import sg.edu.nus.comp.cs4218.impl.jfr.ShellEvents;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_SYNTAX;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.*;
@@ -17,19 +16,14 @@ import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.*;
 @SuppressWarnings({"PMD.ExcessiveMethodLength", "PMD.ClassNamingConventions"})
 public final class CommandBuilder {
     /**
-     * Regular expression for extracting valid arguments from the command string:
-     * (NO_QUOTE | SINGLE_QUOTE | NESTED_BACK_QUOTE | DOUBLE_QUOTE | BACK_QUOTE)+
-     * <p>
-     * The order matters because it affects the matching priority.
-     * <p>
-     * NO_QUOTE: [^'\"`|<>;\\s]+
-     * SINGLE_QUOTE: '[^']*'
-     * NESTED_BACK_QUOTE: \"([^\"`]*`.*?`[^\"`]*)+\"
-     * DOUBLE_QUOTE: \"[^\"]*\"
-     * BACK_QUOTE: `[^`]*`
+     * System property for the maximum number of parsed command strings to cache,
+     * e.g. {@code -Dcs4218.parse.cache.size=1000}. 0 disables caching.
      */
-    private static final Pattern ARGUMENT_REGEX = Pattern
-            .compile("([^'\"`|<>;\\s]+|'[^']*'|\"([^\"`]*`.*?`[^\"`]*)+\"|\"[^\"]*\"|`[^`]*`)+");
+    public static final String PROP_CACHE_SIZE = "cs4218.parse.cache.size";
+    public static final int DEFAULT_CACHE_SIZE = 256;
+
+    private static final CommandCache COMMAND_CACHE =
+            new CommandCache(Integer.getInteger(PROP_CACHE_SIZE, DEFAULT_CACHE_SIZE));
 
     private CommandBuilder() {
     }
@@ -45,92 +39,131 @@ public final class CommandBuilder {
      */
     public static Command parseCommand(String commandString, ApplicationRunner appRunner)
             throws ShellException {
+        return parseTemplate(commandString).toCommand(appRunner);
+    }
+
+    /**
+     * Returns a Call Command of arguments that the shell has already resolved, such as those of an
+     * application that runs another, e.g. {@code time grep "a b" f.txt}. The arguments are quoted,
+     * see StringUtils.quote, so that resolving them again leaves them as they are: no quote,
+     * command substitution, glob, redirection, pipe or semicolon in them is interpreted again.
+     *
+     * @param args      The application followed by its resolved arguments.
+     * @param appRunner ApplicationRunner of the Call Command.
+     */
+    public static CallCommand buildCallCommand(String[] args, ApplicationRunner appRunner) {
+        List<String> argsList = new ArrayList<>(args.length);
+        // the application is not resolved, only trimmed
+        argsList.add(args[0]);
+        for (int i = 1; i < args.length; i++) {
+            argsList.add(quote(args[i]));
+        }
+        return new CallCommand(argsList, appRunner, new ArgumentResolver(appRunner));
+    }
+
+    /**
+     * Returns the parsed template of the provided command string, tokenizing it only if it is not
+     * in the cache yet.
+     *
+     * @throws ShellException If the provided command string has an invalid syntax.
+     */
+    public static CommandTemplate parseTemplate(String commandString) throws ShellException {
         if (StringUtils.isBlank(commandString) || commandString.contains(STRING_NEWLINE)) {
             throw new ShellException(ERR_SYNTAX);
         }
 
-        ArgumentResolver argumentResolver = new ArgumentResolver();
-        List<Command> cmdsForSequence = new LinkedList<>();
-        List<CallCommand> callCmdsForPipe = new LinkedList<>();
-        List<String> tokens = new LinkedList<>();
+        ParseEvent event = ShellEvents.newParseEvent();
+        if (event != null) {
+            event.begin();
+        }
+        CommandTemplate template = COMMAND_CACHE.get(commandString);
+        boolean isCached = template != null;
+        if (template == null) {
+            template = tokenizeCommand(commandString);
+            COMMAND_CACHE.put(commandString, template);
+        }
+        if (event != null) {
+            event.isCached = isCached;
+            event.commandLine = commandString;
+            event.commit();
+        }
+        return template;
+    }
 
-        String commandSubstring = commandString;
-        while (!commandSubstring.isEmpty()) {
-            commandSubstring = commandSubstring.trim();
-            Matcher matcher = ARGUMENT_REGEX.matcher(commandSubstring);
+    public static CommandCache getCommandCache() {
+        return COMMAND_CACHE;
+    }
 
-            // no valid arguments found
-            if (!matcher.find()) {
-                throw new ShellException(ERR_SYNTAX);
-            }
+    /**
+     * Tokenizes the provided command string into pipelines separated by semicolons or ampersands,
+     * each consisting of the tokens of Call Commands separated by pipes. A pipeline followed by
+     * an ampersand runs in the background.
+     * <p>
+     * See CommandLexer for how the command string is split into tokens.
+     *
+     * @throws ShellException If the provided command string has an invalid syntax.
+     */
+    private static CommandTemplate tokenizeCommand(String commandString) throws ShellException {
+        List<List<List<String>>> pipelines = new LinkedList<>();
+        List<Boolean> backgroundFlags = new LinkedList<>();
+        List<List<String>> callsForPipe = new LinkedList<>();
+        List<String> tokens = new LinkedList<>();
 
-            // found a valid argument at the start of the command substring
-            if (matcher.start() == 0) {
-                tokens.add(matcher.group());
-                commandSubstring = commandSubstring.substring(matcher.end());
+        for (String token : CommandLexer.tokenize(commandString)) {
+            if (token.length() != 1) {
+                tokens.add(token);
                 continue;
             }
 
-            // found a valid argument but not at the start of the command substring
-            char firstChar = commandSubstring.charAt(0);
-            commandSubstring = commandSubstring.substring(1);
-
-            switch (firstChar) {
-                case CHAR_REDIR_INPUT:
-                    tokens.add(String.valueOf(firstChar));
-                    break;
-                case CHAR_REDIR_OUTPUT:
-                    // add as a separate token on its own
-                    tokens.add(String.valueOf(firstChar));
-                    break;
-
+            switch (token.charAt(0)) {
                 case CHAR_PIPE:
                     if (tokens.isEmpty()) {
                         // cannot start a new command with pipe
                         throw new ShellException(ERR_SYNTAX);
-                    } else {
-                        // add CallCommand as part of a PipeCommand
-                        callCmdsForPipe.add(new CallCommand(tokens, appRunner, argumentResolver));
-                        tokens = new LinkedList<>();
                     }
+                    // add Call Command as part of a pipeline
+                    callsForPipe.add(tokens);
+                    tokens = new LinkedList<>();
                     break;
 
                 case CHAR_SEMICOLON:
                     if (tokens.isEmpty()) {
                         // cannot start a new command with semicolon
                         throw new ShellException(ERR_SYNTAX);
-                    } else if (callCmdsForPipe.isEmpty()) {
-                        // add CallCommand as part of a SequenceCommand
-                        cmdsForSequence.add(new CallCommand(tokens, appRunner, argumentResolver));
-                        tokens = new LinkedList<>();
-                    } else {
-                        // add CallCommand as part of ongoing PipeCommand
-                        callCmdsForPipe.add(new CallCommand(tokens, appRunner, argumentResolver));
-
-                        // add PipeCommand as part of a SequenceCommand
-                        cmdsForSequence.add(new PipeCommand(callCmdsForPipe));
-                        callCmdsForPipe = new LinkedList<>();
                     }
+                    // add Call Command as the end of the ongoing pipeline, which is part of a sequence
+                    callsForPipe.add(tokens);
+                    pipelines.add(callsForPipe);
+                    backgroundFlags.add(false);
+                    callsForPipe = new LinkedList<>();
+                    tokens = new LinkedList<>();
+                    break;
+
+                case CHAR_AMPERSAND:
+                    if (tokens.isEmpty()) {
+                        // cannot start a new command with ampersand
+                        throw new ShellException(ERR_SYNTAX);
+                    }
+                    // add Call Command as the end of the ongoing pipeline, which runs in the background
+                    callsForPipe.add(tokens);
+                    pipelines.add(callsForPipe);
+                    backgroundFlags.add(true);
+                    callsForPipe = new LinkedList<>();
+                    tokens = new LinkedList<>();
                     break;
 
                 default:
-                    // encountered a mismatched quote
-                    throw new ShellException(ERR_SYNTAX);
+                    // an argument, or a redirection operator which is kept as a separate token
+                    tokens.add(token);
             }
         }
 
-        Command finalCommand = new CallCommand(tokens, appRunner, argumentResolver);
-        if (!callCmdsForPipe.isEmpty()) {
-            // add CallCommand as part of ongoing PipeCommand
-            callCmdsForPipe.add((CallCommand) finalCommand);
-            finalCommand = new PipeCommand(callCmdsForPipe);
+        // only an ampersand may end the command string without a Call Command after it
+        if (!tokens.isEmpty()) {
+            callsForPipe.add(tokens);
+            pipelines.add(callsForPipe);
+            backgroundFlags.add(false);
         }
-        if (!cmdsForSequence.isEmpty()) {
-            // add CallCommand / PipeCommand as part of ongoing SequenceCommand
-            cmdsForSequence.add(finalCommand);
-            finalCommand = new SequenceCommand(cmdsForSequence);
-        }
-
-        return finalCommand;
+        return new CommandTemplate(pipelines, backgroundFlags);
     }
 }
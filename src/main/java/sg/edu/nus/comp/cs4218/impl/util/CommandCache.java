@@ -0,0 +1,101 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe, least-recently-used cache from command strings to their parsed
+ * CommandTemplate.
+ * <p>
+ * A maximum size of 0 disables caching.
+ */
+public final class CommandCache {
+    private final Map<String, CommandTemplate> templates = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private int maxSize;
+
+    public CommandCache(int maxSize) {
+        setMaxSize(maxSize);
+    }
+
+    /**
+     * Returns the template cached for the command string, or null if there is none. Counts as
+     * a hit or a miss respectively.
+     *
+     * @param commandString Command string exactly as it was parsed.
+     */
+    public CommandTemplate get(String commandString) {
+        CommandTemplate template;
+        synchronized (this) {
+            template = templates.get(commandString);
+        }
+        if (template == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return template;
+    }
+
+    /**
+     * Caches the template of the command string, evicting the least recently used entry if the
+     * cache is full.
+     */
+    public synchronized void put(String commandString, CommandTemplate template) {
+        if (maxSize == 0) {
+            return;
+        }
+        templates.put(commandString, template);
+        evictExcessEntries();
+    }
+
+    /**
+     * Changes the maximum number of cached templates, evicting the least recently used entries
+     * if there are more than that.
+     *
+     * @param maxSize Maximum number of cached templates. 0 disables caching.
+     */
+    public synchronized void setMaxSize(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative");
+        }
+        this.maxSize = maxSize;
+        evictExcessEntries();
+    }
+
+    private void evictExcessEntries() {
+        Iterator<String> eldest = templates.keySet().iterator();
+        while (templates.size() > maxSize) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized int size() {
+        return templates.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Removes all cached templates and resets the hit and miss counters.
+     */
+    public synchronized void clear() {
+        templates.clear();
+        hits.reset();
+        misses.reset();
+    }
+}
@@ -0,0 +1,304 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_SYNTAX;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.*;
+
+/**
+ * Single-pass, index-based lexer that splits a command string into arguments and the operators
+ * {@code <}, {@code >}, {@code |}, {@code ;} and {@code &}.
+ * <p>
+ * An argument is (NO_QUOTE | SINGLE_QUOTE | NESTED_BACK_QUOTE | DOUBLE_QUOTE | BACK_QUOTE)+,
+ * where the first part that matches at a position is taken:
+ * <p>
+ * NO_QUOTE: [^'\"`|<>;&\\s]+
+ * SINGLE_QUOTE: '[^']*'
+ * NESTED_BACK_QUOTE: \"([^\"`]*`.*?`[^\"`]*)+\"
+ * DOUBLE_QUOTE: \"[^\"]*\"
+ * BACK_QUOTE: `[^`]*`
+ * <p>
+ * These are the semantics of the regular expression previously used by CommandBuilder, except
+ * for {@code &}, which is an operator that may also end the command string. The lexer never
+ * backtracks, so it runs in time linear to the length of the command string.
+ */
+public final class CommandLexer {
+    private static final int NO_MATCH = -1;
+
+    private final String command;
+    // Index after the last character that is not trimmed.
+    private final int end;
+    // Last index at which an argument can start, per kind of argument.
+    private final int lastNoQuote;
+    private final int lastSingleQuote;
+    private final int lastDoubleQuote;
+    private final int lastBackQuote;
+
+    // Lazily computed when a double quoted argument contains a back quote, see getNestedEnd.
+    private int[] backQuotePositions;
+    private int[] nestedEnds;
+
+    private CommandLexer(String command) {
+        this.command = command;
+        int last = command.length();
+        while (last > 0 && command.charAt(last - 1) <= CHAR_SPACE) {
+            last--;
+        }
+        this.end = last;
+
+        int noQuote = NO_MATCH;
+        int[] quoteCounts = new int[3];
+        int[] quoteStarts = {NO_MATCH, NO_MATCH, NO_MATCH};
+        for (int i = end - 1; i >= 0; i--) {
+            char chr = command.charAt(i);
+            int quoteIndex = quoteIndex(chr);
+            if (quoteIndex >= 0) {
+                // a quote can start an argument only if the same quote follows it
+                if (++quoteCounts[quoteIndex] == 2) {
+                    quoteStarts[quoteIndex] = i;
+                }
+            } else if (noQuote == NO_MATCH && isNoQuoteChar(chr)) {
+                noQuote = i;
+            }
+        }
+        this.lastNoQuote = noQuote;
+        this.lastSingleQuote = quoteStarts[0];
+        this.lastDoubleQuote = quoteStarts[1];
+        this.lastBackQuote = quoteStarts[2];
+    }
+
+    /**
+     * Splits the command string into arguments and operators. Each operator is returned as a
+     * token of its own, which can never be confused with an argument since arguments cannot
+     * consist of an unquoted operator character.
+     *
+     * @param commandString Command string, not blank.
+     * @return List of tokens in the order they appear.
+     * @throws ShellException If the command string contains a mismatched quote, or an operator
+     *                        other than & that is not followed by any argument.
+     */
+    public static List<String> tokenize(String commandString) throws ShellException {
+        return new CommandLexer(commandString).tokenize();
+    }
+
+    private List<String> tokenize() throws ShellException {
+        if (end == 0 && !command.isEmpty()) {
+            // nothing but control characters or spaces
+            throw new ShellException(ERR_SYNTAX);
+        }
+
+        List<String> tokens = new LinkedList<>();
+        int pos = skipSpaces(0);
+        while (pos < end) {
+            int argEnd = matchArgument(pos);
+            if (argEnd > pos) {
+                tokens.add(command.substring(pos, argEnd));
+                pos = skipSpaces(argEnd);
+                continue;
+            }
+
+            char chr = command.charAt(pos);
+            if (chr == CHAR_AMPERSAND) {
+                // the only operator that needs no argument after it
+                tokens.add(String.valueOf(chr));
+                pos = skipSpaces(pos + 1);
+                continue;
+            }
+
+            // no valid arguments found
+            if (!hasArgumentFrom(pos)) {
+                throw new ShellException(ERR_SYNTAX);
+            }
+
+            // found a valid argument but not at the current position
+            switch (chr) {
+                case CHAR_REDIR_INPUT:
+                case CHAR_REDIR_OUTPUT:
+                case CHAR_PIPE:
+                case CHAR_SEMICOLON:
+                    tokens.add(String.valueOf(chr));
+                    break;
+                default:
+                    // encountered a mismatched quote
+                    throw new ShellException(ERR_SYNTAX);
+            }
+            pos = skipSpaces(pos + 1);
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns the index after the argument starting at pos, or pos if no argument starts there.
+     */
+    private int matchArgument(int pos) {
+        int index = pos;
+        while (index < end) {
+            char chr = command.charAt(index);
+            int next;
+            if (isNoQuoteChar(chr)) {
+                next = index + 1;
+                while (next < end && isNoQuoteChar(command.charAt(next))) {
+                    next++;
+                }
+            } else if (chr == CHAR_SINGLE_QUOTE || chr == CHAR_BACK_QUOTE) {
+                next = indexOf(chr, index + 1) + 1;
+            } else if (chr == CHAR_DOUBLE_QUOTE) {
+                next = getNestedEnd(index);
+                if (next == NO_MATCH) {
+                    next = indexOf(chr, index + 1) + 1;
+                }
+            } else {
+                break;
+            }
+            if (next <= 0) {
+                // mismatched quote
+                break;
+            }
+            index = next;
+        }
+        return index;
+    }
+
+    /**
+     * Returns true if an argument starts at pos or anywhere after it.
+     */
+    private boolean hasArgumentFrom(int pos) {
+        return lastNoQuote >= pos || lastSingleQuote >= pos
+                || lastDoubleQuote >= pos || lastBackQuote >= pos;
+    }
+
+    /**
+     * Returns the index after the NESTED_BACK_QUOTE argument starting with the double quote at
+     * pos, or NO_MATCH.
+     * <p>
+     * After the opening double quote, the first back quote must come before any double quote.
+     * Then closing back quotes are tried in order, see computeNestedEnds.
+     */
+    private int getNestedEnd(int pos) {
+        int index = pos + 1;
+        while (index < end && command.charAt(index) != CHAR_DOUBLE_QUOTE
+                && command.charAt(index) != CHAR_BACK_QUOTE) {
+            index++;
+        }
+        if (index == end || command.charAt(index) == CHAR_DOUBLE_QUOTE) {
+            return NO_MATCH;
+        }
+        if (backQuotePositions == null) {
+            computeNestedEnds();
+        }
+        return nestedEnds[Arrays.binarySearch(backQuotePositions, index)];
+    }
+
+    /**
+     * For every back quote at k[i], computes the index after the double quote that ends a
+     * NESTED_BACK_QUOTE argument if k[i] opens a back quote inside it, in one pass from the right:
+     * <p>
+     * nestedEnd(i) = close(i+1) if it matches, otherwise nestedEnd(i+1), trying k[i+1] as the
+     * closing back quote first, as the lazy .*? does. k[i+1] can only close k[i] if there is no
+     * line terminator between them.
+     * <p>
+     * close(i) = the index after the first double quote following k[i] if it comes before
+     * k[i+1], otherwise nestedEnd(i+1) since k[i+1] then opens the next nested back quote.
+     */
+    private void computeNestedEnds() {
+        int count = 0;
+        for (int i = 0; i < end; i++) {
+            if (command.charAt(i) == CHAR_BACK_QUOTE) {
+                count++;
+            }
+        }
+        backQuotePositions = new int[count];
+        nestedEnds = new int[count];
+
+        int nextDoubleQuote = NO_MATCH;
+        int nextClose = NO_MATCH;
+        boolean hasLineTerminator = false;
+        int idx = count;
+        for (int i = end - 1; i >= 0; i--) {
+            char chr = command.charAt(i);
+            if (chr == CHAR_BACK_QUOTE) {
+                idx--;
+                boolean hasNext = idx + 1 < count;
+                int close;
+                if (nextDoubleQuote != NO_MATCH && (!hasNext || nextDoubleQuote < backQuotePositions[idx + 1])) {
+                    close = nextDoubleQuote + 1;
+                } else {
+                    close = hasNext ? nestedEnds[idx + 1] : NO_MATCH;
+                }
+
+                int nestedEnd = NO_MATCH;
+                if (hasNext && !hasLineTerminator) {
+                    nestedEnd = nextClose == NO_MATCH ? nestedEnds[idx + 1] : nextClose;
+                }
+                backQuotePositions[idx] = i;
+                nestedEnds[idx] = nestedEnd;
+                nextClose = close;
+                hasLineTerminator = false;
+            } else if (chr == CHAR_DOUBLE_QUOTE) {
+                nextDoubleQuote = i;
+            } else if (isLineTerminator(chr)) {
+                hasLineTerminator = true;
+            }
+        }
+    }
+
+    private int indexOf(char chr, int from) {
+        int index = command.indexOf(chr, from);
+        return index >= end ? NO_MATCH : index;
+    }
+
+    private int skipSpaces(int pos) {
+        int index = pos;
+        while (index < end && command.charAt(index) <= CHAR_SPACE) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int quoteIndex(char chr) {
+        switch (chr) {
+            case CHAR_SINGLE_QUOTE:
+                return 0;
+            case CHAR_DOUBLE_QUOTE:
+                return 1;
+            case CHAR_BACK_QUOTE:
+                return 2;
+            default:
+                return NO_MATCH;
+        }
+    }
+
+    private static boolean isNoQuoteChar(char chr) {
+        switch (chr) {
+            case CHAR_SINGLE_QUOTE:
+            case CHAR_DOUBLE_QUOTE:
+            case CHAR_BACK_QUOTE:
+            case CHAR_PIPE:
+            case CHAR_REDIR_INPUT:
+            case CHAR_REDIR_OUTPUT:
+            case CHAR_SEMICOLON:
+            case CHAR_AMPERSAND:
+            // whitespace as matched by \s
+            case ' ':
+            case '\t':
+            case '\n':
+            case '\u000B':
+            case '\f':
+            case '\r':
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Returns true for the characters that . does not match in a regular expression.
+     */
+    private static boolean isLineTerminator(char chr) {
+        return chr == '\n' || chr == '\r' || chr == '\u0085' || chr == '\u2028' || chr == '\u2029';
+    }
+}
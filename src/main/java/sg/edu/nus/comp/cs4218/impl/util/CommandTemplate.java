@@ -0,0 +1,120 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import sg.edu.nus.comp.cs4218.Command;
+import sg.edu.nus.comp.cs4218.impl.cmd.BackgroundCommand;
+import sg.edu.nus.comp.cs4218.impl.cmd.CallCommand;
+import sg.edu.nus.comp.cs4218.impl.cmd.PipeCommand;
+import sg.edu.nus.comp.cs4218.impl.cmd.SequenceCommand;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * An immutable result of tokenizing a command string, which can be turned into any number of
+ * fresh executable Commands.
+ * <p>
+ * A template is a sequence of pipelines, and a pipeline is a list of Call Commands, each given
+ * as its list of tokens. A pipeline may be marked to run in the background. A template holds no
+ * execution state, so it can be shared between threads.
+ */
+public final class CommandTemplate {
+    private final List<List<List<String>>> pipelines;
+    private final List<Boolean> backgroundFlags;
+
+    /**
+     * @param pipelines List of pipelines separated by semicolons, each being a list of the
+     *                  tokens of the Call Commands separated by pipes.
+     */
+    public CommandTemplate(List<List<List<String>>> pipelines) {
+        this(pipelines, Collections.nCopies(pipelines.size(), false));
+    }
+
+    /**
+     * @param pipelines       List of pipelines separated by semicolons or ampersands, each being
+     *                        a list of the tokens of the Call Commands separated by pipes.
+     * @param backgroundFlags Whether each pipeline runs in the background, i.e. is followed by
+     *                        an ampersand.
+     */
+    public CommandTemplate(List<List<List<String>>> pipelines, List<Boolean> backgroundFlags) {
+        if (pipelines.size() != backgroundFlags.size()) {
+            throw new IllegalArgumentException("Every pipeline needs a background flag");
+        }
+        List<List<List<String>>> pipelinesCopy = new ArrayList<>(pipelines.size());
+        for (List<List<String>> pipeline : pipelines) {
+            List<List<String>> pipelineCopy = new ArrayList<>(pipeline.size());
+            for (List<String> tokens : pipeline) {
+                pipelineCopy.add(Collections.unmodifiableList(new ArrayList<>(tokens)));
+            }
+            pipelinesCopy.add(Collections.unmodifiableList(pipelineCopy));
+        }
+        this.pipelines = Collections.unmodifiableList(pipelinesCopy);
+        this.backgroundFlags = Collections.unmodifiableList(new ArrayList<>(backgroundFlags));
+    }
+
+    /**
+     * Builds a new Command from this template.
+     * <p>
+     * A pipeline with a single Call Command becomes a CallCommand, otherwise a PipeCommand. A
+     * pipeline running in the background is wrapped in a BackgroundCommand. A sequence with a
+     * single pipeline becomes that Command, otherwise a SequenceCommand.
+     *
+     * @param appRunner ApplicationRunner used by every CallCommand created, including for
+     *                  command substitution.
+     * @return Command ready to be evaluated.
+     */
+    public Command toCommand(ApplicationRunner appRunner) {
+        ArgumentResolver argumentResolver = new ArgumentResolver(appRunner);
+        List<Command> cmdsForSequence = new LinkedList<>();
+        for (int i = 0; i < pipelines.size(); i++) {
+            List<List<String>> pipeline = pipelines.get(i);
+            List<CallCommand> callCmdsForPipe = new LinkedList<>();
+            for (List<String> tokens : pipeline) {
+                callCmdsForPipe.add(new CallCommand(new LinkedList<>(tokens), appRunner, argumentResolver));
+            }
+            Command command;
+            if (callCmdsForPipe.size() == 1) {
+                command = callCmdsForPipe.get(0);
+            } else {
+                command = new PipeCommand(callCmdsForPipe);
+            }
+            if (backgroundFlags.get(i)) {
+                command = new BackgroundCommand(command, toCommandLine(pipeline));
+            }
+            cmdsForSequence.add(command);
+        }
+
+        if (cmdsForSequence.size() == 1) {
+            return cmdsForSequence.get(0);
+        }
+        return new SequenceCommand(cmdsForSequence);
+    }
+
+    /**
+     * Returns the pipeline as it would be typed, with its tokens separated by spaces.
+     */
+    private static String toCommandLine(List<List<String>> pipeline) {
+        StringBuilder builder = new StringBuilder();
+        for (List<String> tokens : pipeline) {
+            if (builder.length() > 0) {
+                builder.append(" | ");
+            }
+            builder.append(String.join(" ", tokens));
+        }
+        return builder.toString();
+    }
+
+    public List<List<List<String>>> getPipelines() {
+        return pipelines;
+    }
+
+    public boolean isBackground(int pipelineIndex) {
+        return backgroundFlags.get(pipelineIndex);
+    }
+
+    @Override
+    public String toString() {
+        return pipelines.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts the bytes read from the wrapped stream. Not thread-safe.
+ * <p>
+ * Like IOUtils.closeInputStream, closing it leaves System.in open.
+ */
+public class CountingInputStream extends FilterInputStream {
+    private long count;
+
+    public CountingInputStream(InputStream inputStream) {
+        super(inputStream);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int result = in.read();
+        if (result != -1) {
+            count++;
+        }
+        return result;
+    }
+
+    @Override
+    public int read(byte[] bytes, int off, int len) throws IOException {
+        int numRead = in.read(bytes, off, len);
+        if (numRead > 0) {
+            count += numRead;
+        }
+        return numRead;
+    }
+
+    @Override
+    public long skip(long numBytes) throws IOException {
+        long skipped = in.skip(numBytes);
+        count += skipped;
+        return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != System.in) {
+            super.close();
+        }
+    }
+
+    /**
+     * Marking is not supported, so that bytes read again are never counted twice.
+     */
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,43 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Counts the bytes written to the wrapped stream. Not thread-safe.
+ * <p>
+ * Like IOUtils.closeOutputStream, closing it leaves System.out open, only flushing it.
+ */
+public class CountingOutputStream extends FilterOutputStream {
+    private long count;
+
+    public CountingOutputStream(OutputStream outputStream) {
+        super(outputStream);
+    }
+
+    @Override
+    public void write(int byteValue) throws IOException {
+        out.write(byteValue);
+        count++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int off, int len) throws IOException {
+        out.write(bytes, off, len);
+        count += len;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out == System.out) {
+            flush();
+        } else {
+            super.close();
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
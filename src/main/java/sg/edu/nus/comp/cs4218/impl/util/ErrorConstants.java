@@ -84,6 +84,17 @@ public class ErrorConstants {
     public static final String FILE_NOT_FOUND = "No such file or directory";
 
 
+    // `timeout` related
+    public static final String ERR_INVALID_DURATION = "Invalid time interval";
+    public static final String ERR_TIMED_OUT = "Timed out";
+
+    // `profile` related
+    public static final String ERR_NO_RECORDER = "Flight Recorder is not available";
+    public static final String ERR_READING_RECORDING = "Could not read the recording";
+
+    // `wait` related
+    public static final String ERR_NO_SUCH_JOB = "No such job";
+
     //`ls` related
 
     public static final String NO_FILE_OR_FOLDER = "No file or folder specified found";
@@ -94,6 +105,8 @@ public class ErrorConstants {
     public static final String ERR_SYNTAX = "Invalid syntax";
     public static final String ERR_GENERAL = "Exception Caught";
     public static final String ERR_IO_EXCEPTION = "IOException";
+    public static final String ERR_INTERRUPTED = "Interrupted";
+    public static final String ERR_TERMINATED = "Terminated";
 
     //Integer constants
     public static final String ERR_LESS_THAN_ZERO = "Index less than 0";
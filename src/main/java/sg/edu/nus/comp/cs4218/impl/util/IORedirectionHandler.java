@@ -22,6 +22,7 @@ public class IORedirectionHandler {
     private final InputStream origInputStream;
     private final OutputStream origOutputStream;
     private List<String> noRedirArgsList;
+    private final List<String> redirections = new LinkedList<>();
     private InputStream inputStream;
     private OutputStream outputStream;
 
@@ -66,6 +67,8 @@ public class IORedirectionHandler {
                 throw new ShellException(ERR_SYNTAX);
             }
             file = fileSegment.get(0);
+            redirections.add(arg);
+            redirections.add(file);
             // replace existing inputStream / outputStream
             if (arg.equals(String.valueOf(CHAR_REDIR_INPUT))) {
                 IOUtils.closeInputStream(inputStream);
@@ -92,6 +95,14 @@ public class IORedirectionHandler {
         return noRedirArgsList;
     }
 
+    /**
+     * Returns the redirection operators with the files they redirect to, in the order they were
+     * given, e.g. {@code [<, in.txt, >, out.txt]}. File names are resolved but not made absolute.
+     */
+    public List<String> getRedirections() {
+        return redirections;
+    }
+
     public InputStream getInputStream() {
         return inputStream;
     }
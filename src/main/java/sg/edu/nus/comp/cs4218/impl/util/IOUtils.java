@@ -1,13 +1,16 @@
 package sg.edu.nus.comp.cs4218.impl.util;
 
-import sg.edu.nus.comp.cs4218.EnvironmentHelper;
+import sg.edu.nus.comp.cs4218.ShellContext;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.impl.jfr.FileOpenEvent;
+import sg.edu.nus.comp.cs4218.impl.jfr.ShellEvents;
 
 import java.io.*;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.*;
 
@@ -29,14 +32,17 @@ public final class IOUtils {
         }
         String resolvedFileName = resolveFilePath(fileName).toString();
 
+        FileOpenEvent event = beginOpenEvent();
         FileInputStream fileInputStream;
         try {
             fileInputStream = new FileInputStream(new File(resolvedFileName));
         } catch (FileNotFoundException e) {
+            commitOpenEvent(event, resolvedFileName, FileOpenEvent.MODE_READ, ERR_FILE_NOT_FOUND);
             throw new ShellException(ERR_FILE_NOT_FOUND);
         }
+        commitOpenEvent(event, resolvedFileName, FileOpenEvent.MODE_READ, null);
 
-        return fileInputStream;
+        return ShellEvents.trackClose(fileInputStream, resolvedFileName);
     }
 
     /**
@@ -52,13 +58,37 @@ public final class IOUtils {
         }
         String resolvedFileName = resolveFilePath(fileName).toString();
 
+        FileOpenEvent event = beginOpenEvent();
         FileOutputStream fileOutputStream;
         try {
             fileOutputStream = new FileOutputStream(new File(resolvedFileName));
         } catch (IOException e) {
+            commitOpenEvent(event, resolvedFileName, FileOpenEvent.MODE_WRITE, ERR_FILE_NOT_FOUND);
             throw new ShellException(ERR_FILE_NOT_FOUND);
         }
-        return fileOutputStream;
+        commitOpenEvent(event, resolvedFileName, FileOpenEvent.MODE_WRITE, null);
+        return ShellEvents.trackClose(fileOutputStream, resolvedFileName);
+    }
+
+    private static FileOpenEvent beginOpenEvent() {
+        FileOpenEvent event = ShellEvents.newFileOpenEvent();
+        if (event != null) {
+            event.begin();
+        }
+        return event;
+    }
+
+    private static void commitOpenEvent(FileOpenEvent event, String path, String mode, String error) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.mode = mode;
+            event.error = error;
+            event.commit();
+        }
     }
 
     /**
@@ -97,11 +127,41 @@ public final class IOUtils {
         }
     }
 
+    /**
+     * Resolve a file name against the current directory of the context bound to this thread.
+     *
+     * @param fileName String containing file name.
+     * @return Path of the file.
+     */
     public static Path resolveFilePath(String fileName) {
-        Path currentDirectory = Paths.get(EnvironmentHelper.currentDirectory);
+        return resolveFilePath(ShellContext.current(), fileName);
+    }
+
+    /**
+     * Resolve a file name against the current directory of the given context.
+     *
+     * @param context  ShellContext of the session the file name belongs to.
+     * @param fileName String containing file name.
+     * @return Path of the file.
+     */
+    public static Path resolveFilePath(ShellContext context, String fileName) {
+        Path currentDirectory = Paths.get(context.getCurrentDirectory());
         return currentDirectory.resolve(fileName);
     }
 
+    /**
+     * Stops the current thread cooperatively if it is interrupted, e.g. because the Command it
+     * runs is terminated or timed out. Applications call this in loops that can run for long.
+     * The interrupt status is left set for whoever interrupted the thread to clear.
+     *
+     * @throws CancellationException If the current thread is interrupted.
+     */
+    public static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException(ERR_INTERRUPTED);
+        }
+    }
+
     /**
      * Returns a list of lines based on the given InputStream.
      *
@@ -113,6 +173,7 @@ public final class IOUtils {
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(input))) {
             String line;
             while ((line = reader.readLine()) != null) {
+                checkInterrupted();
                 output.add(line);
             }
         }
@@ -0,0 +1,127 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import sg.edu.nus.comp.cs4218.CommandInterceptor;
+import sg.edu.nus.comp.cs4218.CommandInvocation;
+import sg.edu.nus.comp.cs4218.ShellContext;
+import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+/**
+ * A run of an application passing through the interceptors of an ApplicationRunner, see
+ * CommandInterceptor. Created for every run, so it is only used by one thread.
+ */
+final class InterceptorChain implements CommandInvocation {
+    private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+
+    /**
+     * Runs the application at the end of the chain.
+     */
+    interface Target {
+        void run(String app, String[] argsArray, InputStream inputStream, OutputStream outputStream,
+                 ShellContext context) throws AbstractApplicationException, ShellException;
+    }
+
+    private final CommandInterceptor[] interceptors;
+    private final Target target;
+    private final String app;
+    private final String[] argsArray;
+    private final List<String> redirections;
+    private final CountingInputStream inputStream;
+    private final CountingOutputStream outputStream;
+    private final ShellContext context;
+    private int next;
+    private long wallTimeNanos;
+    private long cpuTimeNanos;
+
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    InterceptorChain(CommandInterceptor[] interceptors, Target target, String app, String[] argsArray,
+                     List<String> redirections, InputStream inputStream, OutputStream outputStream,
+                     ShellContext context) {
+        this.interceptors = interceptors;
+        this.target = target;
+        this.app = app;
+        this.argsArray = argsArray;
+        this.redirections = redirections;
+        this.inputStream = new CountingInputStream(inputStream);
+        this.outputStream = new CountingOutputStream(outputStream);
+        this.context = context;
+    }
+
+    @Override
+    public void proceed() throws AbstractApplicationException, ShellException {
+        if (next < interceptors.length) {
+            interceptors[next++].intercept(this);
+            return;
+        }
+        if (next > interceptors.length) {
+            throw new IllegalStateException("proceed called more than once");
+        }
+        next++;
+        boolean isCpuTimed = THREAD_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_BEAN.isThreadCpuTimeEnabled();
+        long cpuStart = isCpuTimed ? THREAD_BEAN.getCurrentThreadCpuTime() : 0;
+        long wallStart = System.nanoTime();
+        try {
+            target.run(app, argsArray, inputStream, outputStream, context);
+        } finally {
+            wallTimeNanos = System.nanoTime() - wallStart;
+            cpuTimeNanos = isCpuTimed ? THREAD_BEAN.getCurrentThreadCpuTime() - cpuStart : -1;
+        }
+    }
+
+    @Override
+    public String getApp() {
+        return app;
+    }
+
+    @Override
+    @SuppressWarnings("PMD.MethodReturnsInternalArray")
+    public String[] getArgs() {
+        return argsArray;
+    }
+
+    @Override
+    public List<String> getRedirections() {
+        return redirections;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    @Override
+    public ShellContext getContext() {
+        return context;
+    }
+
+    @Override
+    public long getBytesIn() {
+        return inputStream.getCount();
+    }
+
+    @Override
+    public long getBytesOut() {
+        return outputStream.getCount();
+    }
+
+    @Override
+    public long getWallTimeNanos() {
+        return wallTimeNanos;
+    }
+
+    @Override
+    public long getCpuTimeNanos() {
+        return cpuTimeNanos;
+    }
+}
@@ -0,0 +1,42 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+/**
+ * A CharSequence that stops a regular expression match once the current thread is interrupted.
+ * <p>
+ * A match cannot be interrupted otherwise, and a pathological pattern can backtrack for longer
+ * than anyone is willing to wait. Matching against this sequence checks for interruption every
+ * few thousand characters read, see IOUtils.checkInterrupted.
+ */
+public final class InterruptibleCharSequence implements CharSequence {
+    private static final int CHECK_MASK = 0xFFF;
+
+    private final CharSequence chars;
+    private int reads;
+
+    public InterruptibleCharSequence(CharSequence chars) {
+        this.chars = chars;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if ((++reads & CHECK_MASK) == 0) {
+            IOUtils.checkInterrupted();
+        }
+        return chars.charAt(index);
+    }
+
+    @Override
+    public int length() {
+        return chars.length();
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new InterruptibleCharSequence(chars.subSequence(start, end));
+    }
+
+    @Override
+    public String toString() {
+        return chars.toString();
+    }
+}
@@ -0,0 +1,128 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import sg.edu.nus.comp.cs4218.Command;
+import sg.edu.nus.comp.cs4218.ShellContext;
+import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
+import sg.edu.nus.comp.cs4218.exception.ExitException;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.impl.jmx.ShellStatistics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+/**
+ * A Command running in the background, see JobTable.
+ * <p>
+ * The job reads from an empty stdin unless its input is redirected. Its output that is not
+ * redirected to a file is buffered, followed by the error message if the Command fails, until
+ * it is written out by whoever waits for the job.
+ */
+@SuppressWarnings("PMD.AvoidCatchingGenericException")
+public final class Job implements Runnable {
+    /**
+     * State of a job, named as listed by jobs.
+     */
+    public enum Status {
+        RUNNING("Running"), DONE("Done"), FAILED("Failed");
+
+        private final String label;
+
+        Status(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private final int id;
+    private final String commandLine;
+    private final Command command;
+    private final ShellContext context;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile Status status = Status.RUNNING;
+
+    /**
+     * @param id          Job number, unique among the jobs of its JobTable.
+     * @param commandLine Command line of the job as listed by jobs.
+     * @param command     Command to run.
+     * @param context     ShellContext to run the Command in.
+     */
+    Job(int id, String commandLine, Command command, ShellContext context) {
+        this.id = id;
+        this.commandLine = commandLine;
+        this.command = command;
+        this.context = context;
+    }
+
+    @Override
+    public void run() {
+        Status result = Status.DONE;
+        ShellStatistics.getInstance().startJob();
+        try {
+            command.evaluate(new ByteArrayInputStream(new byte[0]), new NonClosingOutputStream(output), context);
+        } catch (ExitException e) {
+            // exit only ends the job itself
+        } catch (AbstractApplicationException | ShellException | RuntimeException e) {
+            writeError(e.getMessage());
+            result = Status.FAILED;
+        } finally {
+            ShellStatistics.getInstance().finishJob();
+            status = result;
+            finished.countDown();
+        }
+    }
+
+    private void writeError(String message) {
+        byte[] bytes = (message + STRING_NEWLINE).getBytes();
+        output.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Blocks until the job is finished.
+     *
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    public void await() throws InterruptedException {
+        finished.await();
+    }
+
+    /**
+     * Writes the output buffered so far to the given stream.
+     */
+    public void writeOutputTo(OutputStream outputStream) throws IOException {
+        output.writeTo(outputStream);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getCommandLine() {
+        return commandLine;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isFinished() {
+        return status != Status.RUNNING;
+    }
+
+    /**
+     * Returns the job as listed by jobs, e.g. {@code [1]  Running    find . -name a.txt}.
+     */
+    @Override
+    public String toString() {
+        return String.format("[%d]  %-10s %s", id, status, commandLine);
+    }
+}
@@ -0,0 +1,93 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import sg.edu.nus.comp.cs4218.Command;
+import sg.edu.nus.comp.cs4218.ShellContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The background jobs of a shell session, numbered from 1 in the order they are started.
+ * <p>
+ * Jobs of all sessions share one work-stealing pool with a thread per processor, so independent
+ * jobs overlap on a multi-core machine while the number of threads stays bounded. Jobs beyond
+ * the parallelism of the pool are queued. A job stays in the table until it is waited for.
+ */
+public class JobTable {
+    /**
+     * System property for the number of jobs that run at the same time across all sessions,
+     * e.g. {@code -Dcs4218.jobs.parallelism=4}. Defaults to the number of processors.
+     */
+    public static final String PROP_PARALLELISM = "cs4218.jobs.parallelism";
+
+    private static final ExecutorService JOB_EXECUTOR = Executors.newWorkStealingPool(
+            Integer.getInteger(PROP_PARALLELISM, Runtime.getRuntime().availableProcessors()));
+
+    private final SortedMap<Integer, Job> jobs = new TreeMap<>();
+
+    /**
+     * Starts running the Command in the background.
+     *
+     * @param command     Command to run.
+     * @param commandLine Command line of the job as listed by jobs.
+     * @param context     ShellContext to run the Command in.
+     * @return The started job, numbered one more than the highest job number in the table.
+     */
+    public Job submit(Command command, String commandLine, ShellContext context) {
+        Job job;
+        synchronized (this) {
+            int id = jobs.isEmpty() ? 1 : jobs.lastKey() + 1;
+            job = new Job(id, commandLine, command, context);
+            jobs.put(id, job);
+        }
+        JOB_EXECUTOR.execute(job);
+        return job;
+    }
+
+    /**
+     * Returns the job with the given number, or null if there is none.
+     */
+    public synchronized Job getJob(int id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * Returns the jobs in the table in the order they were started.
+     */
+    public synchronized List<Job> getJobs() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    /**
+     * Waits for the job to finish, writes its buffered output to the given stream and removes it
+     * from the table.
+     *
+     * @throws InterruptedException If the current thread is interrupted while waiting, in which
+     *                              case the job is left in the table.
+     * @throws IOException          If the output cannot be written.
+     */
+    public void await(Job job, OutputStream outputStream) throws InterruptedException, IOException {
+        job.await();
+        remove(job);
+        job.writeOutputTo(outputStream);
+    }
+
+    /**
+     * Waits for every job in the table, in the order they were started, see await.
+     */
+    public void awaitAll(OutputStream outputStream) throws InterruptedException, IOException {
+        for (Job job : getJobs()) {
+            await(job, outputStream);
+        }
+    }
+
+    private synchronized void remove(Job job) {
+        jobs.remove(job.getId(), job);
+    }
+}
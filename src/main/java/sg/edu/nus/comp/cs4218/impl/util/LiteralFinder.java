@@ -0,0 +1,264 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CancellationException;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INTERRUPTED;
+
+/**
+ * Finds the lines of a file that contain a fixed string, by scanning the bytes of the file with
+ * the Boyer-Moore-Horspool algorithm instead of decoding every line and matching a regular
+ * expression against it.
+ * <p>
+ * Only the line around each hit is found and decoded. Lines end at {@code \n}, {@code \r} or
+ * {@code \r\n}, as for BufferedReader.readLine. Case-insensitive search folds ASCII letters only,
+ * which is what Pattern.CASE_INSENSITIVE does without Pattern.UNICODE_CASE. Files of at least
+ * MAP_THRESHOLD bytes are memory-mapped MAX_REGION_SIZE bytes at a time, smaller files are read.
+ * <p>
+ * Bytes can only be searched for in a charset in which a line terminator is always a single
+ * byte that is not part of any other character, see compile.
+ */
+public final class LiteralFinder {
+    public static final int MAP_THRESHOLD = 64 * 1024;
+    public static final int MAX_REGION_SIZE = 1 << 30;
+
+    private static final String META_CHARS = "\\[](){}.*+?^$|";
+    private static final String QUOTE_START = "\\Q";
+    private static final String QUOTE_END = "\\E";
+    private static final int NUM_OF_BYTES = 256;
+    private static final int CHECK_INTERVAL = 1 << 20;
+    private static final byte[] IDENTITY = new byte[NUM_OF_BYTES];
+    private static final byte[] ASCII_FOLD = new byte[NUM_OF_BYTES];
+
+    static {
+        for (int i = 0; i < NUM_OF_BYTES; i++) {
+            IDENTITY[i] = (byte) i;
+            ASCII_FOLD[i] = (byte) (i >= 'A' && i <= 'Z' ? i + ('a' - 'A') : i);
+        }
+    }
+
+    private final Charset charset;
+    private final byte[] fold;
+    private final byte[] needle;
+    private final int[] shifts = new int[NUM_OF_BYTES];
+
+    private LiteralFinder(byte[] literal, boolean isCaseInsensitive, Charset charset) {
+        this.charset = charset;
+        this.fold = isCaseInsensitive ? ASCII_FOLD : IDENTITY;
+        this.needle = new byte[literal.length];
+        for (int i = 0; i < literal.length; i++) {
+            needle[i] = fold[literal[i] & 0xFF];
+        }
+        int last = needle.length - 1;
+        for (int i = 0; i < NUM_OF_BYTES; i++) {
+            shifts[i] = needle.length;
+        }
+        for (int i = 0; i < last; i++) {
+            shifts[needle[i] & 0xFF] = last - i;
+        }
+    }
+
+    /**
+     * Returns the fixed string a regular expression matches, if it has no metacharacters or is
+     * quoted as a whole with Pattern.quote, or null otherwise.
+     */
+    public static String toLiteral(String regex) {
+        if (regex == null || regex.isEmpty()) {
+            return null;
+        }
+        if (regex.startsWith(QUOTE_START) && regex.endsWith(QUOTE_END)
+                && regex.length() >= QUOTE_START.length() + QUOTE_END.length()) {
+            String literal = regex.substring(QUOTE_START.length(), regex.length() - QUOTE_END.length());
+            return literal.isEmpty() || literal.contains(QUOTE_END) ? null : literal;
+        }
+        for (int i = 0; i < regex.length(); i++) {
+            if (META_CHARS.indexOf(regex.charAt(i)) >= 0) {
+                return null;
+            }
+        }
+        return regex;
+    }
+
+    /**
+     * Returns a finder of the lines matched by a regular expression, or null if the regular
+     * expression is not a fixed string, see toLiteral, or its lines cannot be found by their
+     * bytes in the charset.
+     *
+     * @param regex             Regular expression to find.
+     * @param isCaseInsensitive Whether ASCII letters match regardless of case.
+     * @param charset           Charset of the files searched.
+     */
+    public static LiteralFinder compile(String regex, boolean isCaseInsensitive, Charset charset) {
+        String literal = toLiteral(regex);
+        if (literal == null || literal.indexOf('\n') >= 0 || literal.indexOf('\r') >= 0) {
+            return null;
+        }
+        if (!StandardCharsets.UTF_8.equals(charset) && !StandardCharsets.ISO_8859_1.equals(charset)
+                && !StandardCharsets.US_ASCII.equals(charset)) {
+            return null;
+        }
+        if (!charset.newEncoder().canEncode(literal)) {
+            return null;
+        }
+        return new LiteralFinder(literal.getBytes(charset), isCaseInsensitive, charset);
+    }
+
+    /**
+     * Passes every line of the file that contains the fixed string to consumer, in order, and
+     * returns their number.
+     *
+     * @param channel  FileChannel of the file, read from its start.
+     * @param consumer LineConsumer of the lines found without their terminator, or null to only
+     *                 count them.
+     * @throws IOException           If the file cannot be read or consumer fails.
+     * @throws CancellationException If the current thread is interrupted, which also closes channel.
+     */
+    public int findLines(FileChannel channel, LineConsumer consumer) throws IOException {
+        return findLines(channel, Integer.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Passes the first maxLines lines of the file that contain the fixed string to consumer, in
+     * order, and returns their number. The rest of the file is not read.
+     *
+     * @param channel  FileChannel of the file, read from its start.
+     * @param maxLines Number of lines after which to stop.
+     * @param consumer LineConsumer of the lines found without their terminator, or null to only
+     *                 count them.
+     * @throws IOException           If the file cannot be read or consumer fails.
+     * @throws CancellationException If the current thread is interrupted, which also closes channel.
+     */
+    public int findLines(FileChannel channel, int maxLines, LineConsumer consumer) throws IOException {
+        return findLines(channel, maxLines, MAX_REGION_SIZE, consumer);
+    }
+
+    int findLines(FileChannel channel, int maxLines, int maxRegionSize, LineConsumer consumer) throws IOException {
+        try {
+            return findRegions(channel, maxLines, maxRegionSize, consumer);
+        } catch (ClosedByInterruptException e) {
+            throw (CancellationException) new CancellationException(ERR_INTERRUPTED).initCause(e);
+        }
+    }
+
+    private int findRegions(FileChannel channel, int maxLines, int maxRegionSize, LineConsumer consumer)
+            throws IOException {
+        if (maxLines <= 0) {
+            return 0;
+        }
+        long size = channel.size();
+        if (size < MAP_THRESHOLD) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+                IOUtils.checkInterrupted();
+            }
+            return findLines(buffer, buffer.position(), maxLines, consumer);
+        }
+
+        int count = 0;
+        long position = 0;
+        while (position < size && count < maxLines) {
+            IOUtils.checkInterrupted();
+            int regionSize = (int) Math.min(maxRegionSize, size - position);
+            ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize);
+            int limit = regionSize;
+            if (position + regionSize < size) {
+                // the last line of the region continues in the next region, which starts with it
+                int lastEnd = lastLineEnd(region, regionSize);
+                if (lastEnd > 0) {
+                    limit = lastEnd;
+                }
+            }
+            count += findLines(region, limit, maxLines - count, consumer);
+            position += limit;
+        }
+        return count;
+    }
+
+    private int findLines(ByteBuffer buffer, int limit, int maxLines, LineConsumer consumer) throws IOException {
+        int count = 0;
+        int position = 0;
+        while (position < limit && count < maxLines) {
+            IOUtils.checkInterrupted();
+            int searchEnd = (int) Math.min(limit, (long) position + CHECK_INTERVAL + needle.length - 1);
+            int hit = indexOf(buffer, position, searchEnd);
+            if (hit < 0) {
+                if (searchEnd == limit) {
+                    break;
+                }
+                // a hit may start in the last bytes searched and end after them
+                position = searchEnd - needle.length + 1;
+                continue;
+            }
+            int lineStart = hit;
+            while (lineStart > 0 && !isLineTerminator(buffer.get(lineStart - 1))) {
+                lineStart--;
+            }
+            int lineEnd = hit + needle.length;
+            while (lineEnd < limit && !isLineTerminator(buffer.get(lineEnd))) {
+                lineEnd++;
+            }
+            if (consumer != null) {
+                consumer.accept(decode(buffer, lineStart, lineEnd));
+            }
+            count++;
+            position = lineEnd + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the fixed string in buffer between start and
+     * end, or -1 if there is none.
+     */
+    private int indexOf(ByteBuffer buffer, int start, int end) {
+        int last = needle.length - 1;
+        int index = start;
+        while (index + last < end) {
+            int textIndex = index + last;
+            int needleIndex = last;
+            while (fold[buffer.get(textIndex) & 0xFF] == needle[needleIndex]) {
+                if (needleIndex == 0) {
+                    return index;
+                }
+                textIndex--;
+                needleIndex--;
+            }
+            index += shifts[fold[buffer.get(index + last) & 0xFF] & 0xFF];
+        }
+        return -1;
+    }
+
+    private String decode(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        ByteBuffer line = buffer.duplicate();
+        line.position(start);
+        line.get(bytes);
+        return new String(bytes, charset);
+    }
+
+    private static int lastLineEnd(ByteBuffer buffer, int end) {
+        for (int i = end - 1; i >= 0; i--) {
+            if (isLineTerminator(buffer.get(i))) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isLineTerminator(byte value) {
+        return value == '\n' || value == '\r';
+    }
+
+    /**
+     * Receives the lines found by a LiteralFinder.
+     */
+    @FunctionalInterface
+    public interface LineConsumer {
+        void accept(String line) throws IOException;
+    }
+}
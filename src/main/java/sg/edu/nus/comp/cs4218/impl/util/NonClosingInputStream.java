@@ -0,0 +1,21 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import java.io.FilterInputStream;
+import java.io.InputStream;
+
+/**
+ * Passes all reads through to the wrapped stream, but does not close it when closed.
+ * <p>
+ * Commands close the streams they are given, so this keeps a stream shared by several Commands
+ * open for the next one.
+ */
+public class NonClosingInputStream extends FilterInputStream {
+    public NonClosingInputStream(InputStream inputStream) {
+        super(inputStream);
+    }
+
+    @Override
+    public void close() {
+        // Leave the wrapped stream open
+    }
+}
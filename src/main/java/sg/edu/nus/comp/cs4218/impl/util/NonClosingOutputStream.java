@@ -0,0 +1,27 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Passes all writes through to the wrapped stream, but only flushes it when closed.
+ * <p>
+ * Commands close the streams they are given, so this keeps a stream shared by several Commands
+ * open for the next one.
+ */
+public class NonClosingOutputStream extends FilterOutputStream {
+    public NonClosingOutputStream(OutputStream outputStream) {
+        super(outputStream);
+    }
+
+    @Override
+    public void write(byte[] bytes, int off, int len) throws IOException {
+        out.write(bytes, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
@@ -1,6 +1,6 @@
 package sg.edu.nus.comp.cs4218.impl.util;
 
-import sg.edu.nus.comp.cs4218.EnvironmentHelper;
+import sg.edu.nus.comp.cs4218.ShellContext;
 
 import java.io.File;
 import java.nio.file.Paths;
@@ -79,7 +79,7 @@ public final class RegexArgument {
                 dir += tokens[i] + File.separator;
             }
 
-            File currentDir = Paths.get(EnvironmentHelper.currentDirectory + File.separator + dir).toFile();
+            File currentDir = Paths.get(ShellContext.current().getCurrentDirectory() + File.separator + dir).toFile();
 
             if(currentDir.exists()) {
                 for (File candidateFile : currentDir.listFiles()) {
@@ -87,7 +87,7 @@ public final class RegexArgument {
                         continue;
                     }
 
-                    String fileName = Paths.get(EnvironmentHelper.currentDirectory).relativize(candidateFile.toPath()).toString();
+                    String fileName = Paths.get(ShellContext.current().getCurrentDirectory()).relativize(candidateFile.toPath()).toString();
 
                     addGlobbed(globbedFiles, globbedFolders, regexPattern, candidateFile, fileName);
                 }
@@ -154,7 +154,7 @@ public final class RegexArgument {
             File nextNode = new File(node, current);
             String match = isAbsolute
                     ? nextNode.getPath()
-                    : nextNode.getPath().substring(EnvironmentHelper.currentDirectory.length() + 1);
+                    : nextNode.getPath().substring(ShellContext.current().getCurrentDirectory().length() + 1);
             // TODO: Find a better way to handle this.
             if (onlyDirectories && nextNode.isDirectory()) {
                 match += File.separator;
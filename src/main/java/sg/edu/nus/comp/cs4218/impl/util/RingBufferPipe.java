@@ -0,0 +1,278 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INTERRUPTED;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_STREAM_CLOSED;
+
+/**
+ * A bounded, lock-free, single-producer/single-consumer byte pipe backed by a ring buffer.
+ * <p>
+ * Exactly one thread may write to {@link #getOutputStream()} and exactly one thread may read from
+ * {@link #getInputStream()}. A blocked side first spins, then yields, and finally parks until the
+ * other side makes progress or closes its end.
+ * <p>
+ * Closing the output stream signals EOF to the reader once all buffered bytes are read. Closing
+ * the input stream breaks the pipe, so further writes fail with an IOException. Aborting the pipe
+ * makes both sides fail with an IOException.
+ */
+@SuppressWarnings({"PMD.AvoidUsingVolatile", "PMD.AvoidFieldNameMatchingMethodName"})
+public final class RingBufferPipe {
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+    public static final String ERR_BROKEN_PIPE = "Broken pipe";
+    public static final String ERR_PIPE_ABORTED = "Pipe aborted";
+
+    private static final int SPIN_TRIES = 128;
+    private static final int YIELD_TRIES = 16;
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final byte[] buffer;
+    private final int mask;
+
+    // Total number of bytes ever written / read. Only the owning side advances its index.
+    private final AtomicLong writeIndex = new AtomicLong();
+    private final AtomicLong readIndex = new AtomicLong();
+
+    private volatile boolean isWriterClosed;
+    private volatile boolean isReaderClosed;
+    private volatile boolean isBroken;
+    private volatile Throwable abortCause;
+    private volatile Thread parkedReader;
+    private volatile Thread parkedWriter;
+
+    private final InputStream inputStream = new PipeInputStream();
+    private final OutputStream outputStream = new PipeOutputStream();
+
+    public RingBufferPipe() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Minimum number of bytes the pipe can buffer. Rounded up to a power of two.
+     */
+    public RingBufferPipe(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.buffer = new byte[size];
+        this.mask = size - 1;
+    }
+
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    public int getCapacity() {
+        return buffer.length;
+    }
+
+    /**
+     * Returns true if a write was rejected because the reader had already closed the pipe.
+     */
+    public boolean isBroken() {
+        return isBroken;
+    }
+
+    /**
+     * Returns the total number of bytes written to the pipe so far.
+     */
+    public long getNumOfBytesWritten() {
+        return writeIndex.get();
+    }
+
+    /**
+     * Returns true once the writer has closed the pipe, or the pipe was aborted.
+     */
+    public boolean isWriterClosed() {
+        return isWriterClosed;
+    }
+
+    /**
+     * Terminates the pipe abnormally. Blocked and subsequent reads and writes fail with an
+     * IOException carrying the given cause.
+     *
+     * @param cause Reason of the abort, may be null.
+     */
+    public void abort(Throwable cause) {
+        abortCause = cause == null ? new IOException(ERR_PIPE_ABORTED) : cause;
+        isWriterClosed = true;
+        isReaderClosed = true;
+        LockSupport.unpark(parkedReader);
+        LockSupport.unpark(parkedWriter);
+    }
+
+    private void checkAborted() throws IOException {
+        Throwable cause = abortCause;
+        if (cause != null) {
+            throw new IOException(ERR_PIPE_ABORTED, cause);
+        }
+    }
+
+    /**
+     * Backs off for one more round. The caller re-checks its condition after every round.
+     *
+     * @param round Number of rounds the caller has already waited.
+     * @param isReader Whether the caller is the reader side.
+     * @throws InterruptedIOException If the current thread is interrupted while waiting.
+     */
+    private void backOff(int round, boolean isReader) throws InterruptedIOException {
+        if (round < SPIN_TRIES) {
+            return;
+        }
+        if (round < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+            return;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            // parking returns at once while interrupted, so stop waiting instead of spinning
+            throw new InterruptedIOException(ERR_INTERRUPTED);
+        }
+        // Publish ourselves before the caller's next check, so that a wake-up is never lost.
+        if (isReader) {
+            parkedReader = Thread.currentThread();
+            if (writeIndex.get() == readIndex.get() && !isWriterClosed) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+            parkedReader = null;
+        } else {
+            parkedWriter = Thread.currentThread();
+            if (writeIndex.get() - readIndex.get() == buffer.length && !isReaderClosed) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+            parkedWriter = null;
+        }
+    }
+
+    private class PipeInputStream extends InputStream {
+        private final byte[] single = new byte[1];
+
+        @Override
+        public int read() throws IOException {
+            int numRead = read(single, 0, 1);
+            return numRead == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) throws IOException {
+            if (off < 0 || len < 0 || len > bytes.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            if (len == 0) {
+                return 0;
+            }
+            long read = readIndex.get();
+            long written;
+            int round = 0;
+            while (true) {
+                checkAborted();
+                if (isReaderClosed) {
+                    throw new IOException(ERR_STREAM_CLOSED);
+                }
+                written = writeIndex.get();
+                if (written != read) {
+                    break;
+                }
+                if (isWriterClosed) {
+                    // Re-read: the writer may have published bytes right before closing.
+                    written = writeIndex.get();
+                    if (written == read) {
+                        return -1;
+                    }
+                    break;
+                }
+                backOff(round++, true);
+            }
+
+            int numRead = (int) Math.min(len, written - read);
+            int start = (int) (read & mask);
+            int firstPart = Math.min(numRead, buffer.length - start);
+            System.arraycopy(buffer, start, bytes, off, firstPart);
+            System.arraycopy(buffer, 0, bytes, off + firstPart, numRead - firstPart);
+            readIndex.set(read + numRead);
+            LockSupport.unpark(parkedWriter);
+            return numRead;
+        }
+
+        @Override
+        public int available() throws IOException {
+            checkAborted();
+            return (int) (writeIndex.get() - readIndex.get());
+        }
+
+        @Override
+        public void close() {
+            isReaderClosed = true;
+            LockSupport.unpark(parkedWriter);
+        }
+    }
+
+    private class PipeOutputStream extends OutputStream {
+        private final byte[] single = new byte[1];
+
+        @Override
+        public void write(int byteValue) throws IOException {
+            single[0] = (byte) byteValue;
+            write(single, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int off, int len) throws IOException {
+            if (off < 0 || len < 0 || len > bytes.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            long written = writeIndex.get();
+            int offset = off;
+            int remaining = len;
+            while (remaining > 0) {
+                long free;
+                int round = 0;
+                while (true) {
+                    checkAborted();
+                    if (isWriterClosed) {
+                        throw new IOException(ERR_STREAM_CLOSED);
+                    }
+                    if (isReaderClosed) {
+                        isBroken = true;
+                        throw new IOException(ERR_BROKEN_PIPE);
+                    }
+                    free = buffer.length - (written - readIndex.get());
+                    if (free > 0) {
+                        break;
+                    }
+                    backOff(round++, false);
+                }
+
+                int numWritten = (int) Math.min(remaining, free);
+                int start = (int) (written & mask);
+                int firstPart = Math.min(numWritten, buffer.length - start);
+                System.arraycopy(bytes, offset, buffer, start, firstPart);
+                System.arraycopy(bytes, offset + firstPart, buffer, 0, numWritten - firstPart);
+                written += numWritten;
+                writeIndex.set(written);
+                LockSupport.unpark(parkedReader);
+                offset += numWritten;
+                remaining -= numWritten;
+            }
+        }
+
+        @Override
+        public void close() {
+            isWriterClosed = true;
+            LockSupport.unpark(parkedReader);
+        }
+    }
+}
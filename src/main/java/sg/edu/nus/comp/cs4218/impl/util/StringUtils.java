@@ -18,9 +18,14 @@ public final class StringUtils {
     public static final char CHAR_REDIR_OUTPUT = '>';
     public static final char CHAR_PIPE = '|';
     public static final char CHAR_SEMICOLON = ';';
+    public static final char CHAR_AMPERSAND = '&';
     public static final char CHAR_ASTERISK = '*';
     public static final char CHAR_FLAG_PREFIX = '-';
 
+    private static final String SPECIAL_CHARS = new String(new char[]{CHAR_DOUBLE_QUOTE, CHAR_SINGLE_QUOTE,
+            CHAR_BACK_QUOTE, CHAR_REDIR_INPUT, CHAR_REDIR_OUTPUT, CHAR_PIPE, CHAR_SEMICOLON, CHAR_AMPERSAND,
+            CHAR_ASTERISK});
+
     private StringUtils() {
     }
 
@@ -88,6 +93,23 @@ public final class StringUtils {
         return str.trim().split("\\s+");
     }
 
+    /**
+     * Quotes an argument so that ArgumentResolver resolves it back to itself, e.g. {@code a b} to
+     * {@code 'a b'} and {@code it's} to {@code 'it'"'"'s'}. An argument without whitespace or
+     * characters special to the shell is returned as it is.
+     *
+     * @param arg String of an argument that is already resolved
+     * @return String of the argument as it is written in a command line
+     */
+    public static String quote(String arg) {
+        if (!arg.isEmpty() && arg.chars().noneMatch(chr -> Character.isWhitespace(chr)
+                || SPECIAL_CHARS.indexOf(chr) >= 0)) {
+            return arg;
+        }
+        // single quotes keep every character but themselves, which are kept in double quotes
+        return CHAR_SINGLE_QUOTE + arg.replace(String.valueOf(CHAR_SINGLE_QUOTE), "'\"'\"'") + CHAR_SINGLE_QUOTE;
+    }
+
     /**
      * Checks if a string can be represented as a number.
      *
@@ -0,0 +1,106 @@
+package sg.edu.nus.comp.cs4218;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sg.edu.nus.comp.cs4218.impl.ShellImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+class ShellContextTest {
+    private static final int NUM_SESSIONS = 8;
+    private static final int NUM_ITERATIONS = 50;
+
+    private final String originalDirectory = EnvironmentHelper.currentDirectory;
+
+    @AfterEach
+    void tearDown() {
+        EnvironmentHelper.currentDirectory = originalDirectory;
+    }
+
+    @Test
+    void testCurrentWithoutBoundContextShouldReturnGlobalContext() {
+        assertSame(ShellContext.global(), ShellContext.current());
+    }
+
+    @Test
+    void testGlobalContextShouldReadAndChangeEnvironmentHelper(@TempDir Path tempDir) {
+        ShellContext.global().setCurrentDirectory(tempDir.toString());
+        assertEquals(tempDir.toString(), EnvironmentHelper.currentDirectory);
+
+        EnvironmentHelper.currentDirectory = originalDirectory;
+        assertEquals(originalDirectory, ShellContext.global().getCurrentDirectory());
+    }
+
+    @Test
+    void testBindWhenScopeClosedShouldRestorePreviousContext() {
+        ShellContext outer = new ShellContext("outer");
+        ShellContext inner = new ShellContext("inner");
+        try (ShellContext.Scope ignored = outer.bind()) {
+            try (ShellContext.Scope ignored2 = inner.bind()) {
+                assertSame(inner, ShellContext.current());
+            }
+            assertSame(outer, ShellContext.current());
+        }
+        assertSame(ShellContext.global(), ShellContext.current());
+    }
+
+    @Test
+    void testParseAndEvaluateWithOwnContextShouldNotChangeGlobalDirectory(@TempDir Path tempDir) throws Exception {
+        Files.createDirectory(tempDir.resolve("sub"));
+        Files.createFile(tempDir.resolve("sub").resolve("file.txt"));
+        ShellContext context = new ShellContext(tempDir.toString());
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        new ShellImpl(context).parseAndEvaluate("cd sub; ls", stdout);
+
+        assertEquals("file.txt" + STRING_NEWLINE, stdout.toString());
+        assertEquals(tempDir.resolve("sub").toString(), context.getCurrentDirectory());
+        assertEquals(originalDirectory, EnvironmentHelper.currentDirectory);
+    }
+
+    @Test
+    void testParseAndEvaluateInParallelSessionsShouldUseOwnDirectories(@TempDir Path tempDir) throws Exception {
+        for (int i = 0; i < NUM_SESSIONS; i++) {
+            Path directory = Files.createDirectory(tempDir.resolve("dir" + i));
+            Files.write(directory.resolve("file" + i + ".txt"), ("content" + i + STRING_NEWLINE).getBytes());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_SESSIONS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < NUM_SESSIONS; i++) {
+                final int session = i;
+                results.add(executor.submit(() -> {
+                    ShellImpl shell = new ShellImpl(new ShellContext(tempDir.toString()));
+                    ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+                    shell.parseAndEvaluate("cd dir" + session, stdout);
+                    for (int j = 0; j < NUM_ITERATIONS; j++) {
+                        stdout.reset();
+                        shell.parseAndEvaluate("ls | grep file; grep content *.txt > out.log",
+                                new ByteArrayInputStream(new byte[0]), stdout);
+                    }
+                    return new String(Files.readAllBytes(tempDir.resolve("dir" + session).resolve("out.log")))
+                            + stdout.toString();
+                }));
+            }
+            for (int i = 0; i < NUM_SESSIONS; i++) {
+                assertEquals("content" + i + STRING_NEWLINE + "file" + i + ".txt" + STRING_NEWLINE, results.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(originalDirectory, EnvironmentHelper.currentDirectory);
+    }
+}
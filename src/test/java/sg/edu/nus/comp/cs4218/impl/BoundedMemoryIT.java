@@ -0,0 +1,212 @@
+package sg.edu.nus.comp.cs4218.impl;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+/**
+ * Runs applications and pipelines on a file several times larger than the heap, each in a
+ * forked shell with a small -Xmx, so that a path reading its whole input into memory fails with
+ * an OutOfMemoryError.
+ * <p>
+ * The file is 256 MB by default and the heap 64 MB. Run with e.g.
+ * {@code -Dcs4218.test.heap.sizeMb=4096} for a multi-GB file.
+ * <p>
+ * sort and diff need their whole input by design and are not covered. The disabled tests are
+ * paths that still collect their whole output in a String.
+ */
+class BoundedMemoryIT {
+    private static final String PROP_SIZE_MB = "cs4218.test.heap.sizeMb";
+    private static final String MAX_HEAP = "-Xmx64m";
+    private static final String STREAMING = "-Dcs4218.pipe.streaming=true";
+    private static final String GREP_THREADS = "-Dcs4218.grep.threads=4";
+    private static final String FILE_NAME = "big.txt";
+    private static final String DIRECTORY_NAME = "tree";
+    private static final String NEEDLE = "needle";
+    private static final int NEEDLE_INTERVAL = 1000;
+    private static final int BLOCK_SIZE = 1024 * 1024;
+    private static final long TIMEOUT_MINUTES = 10;
+    private static final String[] WORDS = {"alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf"};
+
+    @TempDir
+    static Path tempDir;
+
+    private static long numOfLines;
+    private static long numOfNeedles;
+    private static long numOfBytes;
+
+    /**
+     * Writes the same block of lines until the file reaches its size, one line in every
+     * NEEDLE_INTERVAL lines of the block containing the needle.
+     */
+    @BeforeAll
+    static void setUpFile() throws IOException {
+        StringBuilder block = new StringBuilder(BLOCK_SIZE + 128);
+        int blockLines = 0;
+        int blockNeedles = 0;
+        while (block.length() < BLOCK_SIZE) {
+            block.append(blockLines);
+            for (int i = 0; i <= blockLines % WORDS.length; i++) {
+                block.append(' ').append(WORDS[(blockLines + i) % WORDS.length]);
+            }
+            if (blockLines % NEEDLE_INTERVAL == 0) {
+                block.append(' ').append(NEEDLE);
+                blockNeedles++;
+            }
+            block.append(STRING_NEWLINE);
+            blockLines++;
+        }
+        byte[] bytes = block.toString().getBytes(StandardCharsets.US_ASCII);
+
+        long numOfBlocks = Integer.getInteger(PROP_SIZE_MB, 256) * 1024L * 1024L / bytes.length;
+        try (OutputStream output = Files.newOutputStream(tempDir.resolve(FILE_NAME))) {
+            for (long i = 0; i < numOfBlocks; i++) {
+                output.write(bytes);
+            }
+        }
+        numOfLines = numOfBlocks * blockLines;
+        numOfNeedles = numOfBlocks * blockNeedles;
+        numOfBytes = numOfBlocks * bytes.length;
+    }
+
+    /**
+     * Runs the command line in a new shell with a small heap and returns its output.
+     *
+     * @param commandLine Command line to run in the directory of the file.
+     * @param jvmOptions  Options of the JVM besides the heap size.
+     */
+    private static String runShell(String commandLine, String... jvmOptions) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add(MAX_HEAP);
+        command.add("-XX:+ExitOnOutOfMemoryError");
+        command.addAll(Arrays.asList(jvmOptions));
+        command.add("-cp");
+        command.add(System.getProperty("surefire.test.class.path", System.getProperty("java.class.path")));
+        command.add(ShellImpl.class.getName());
+        command.add(ShellImpl.OPTION_COMMAND);
+        command.add(commandLine);
+
+        File output = tempDir.resolve("out.txt").toFile();
+        File errors = tempDir.resolve("err.txt").toFile();
+        Process process = new ProcessBuilder(command).directory(tempDir.toFile())
+                .redirectOutput(output).redirectError(errors).start();
+        assertTrue(process.waitFor(TIMEOUT_MINUTES, TimeUnit.MINUTES), commandLine + " timed out");
+        String error = new String(Files.readAllBytes(errors.toPath()));
+        assertEquals(0, process.exitValue(), commandLine + " failed: " + error);
+        assertFalse(error.contains("OutOfMemoryError"), error);
+        return new String(Files.readAllBytes(output.toPath()));
+    }
+
+    private static long countLines(String output) {
+        return output.isEmpty() ? 0 : output.split(STRING_NEWLINE).length;
+    }
+
+    @Test
+    void testWcWithFileLargerThanHeapShouldCountIt() throws Exception {
+        String output = runShell("wc " + FILE_NAME);
+
+        List<String> counts = Arrays.asList(output.trim().split("\\s+"));
+        assertEquals(String.valueOf(numOfLines), counts.get(0));
+        assertEquals(String.valueOf(numOfBytes), counts.get(2));
+    }
+
+    @Test
+    void testWcWithRedirectedInputLargerThanHeapShouldCountIt() throws Exception {
+        String output = runShell("wc -l < " + FILE_NAME);
+
+        assertEquals(String.valueOf(numOfLines), output.trim());
+    }
+
+    @Test
+    void testGrepWithSparseMatchesShouldWriteOnlyMatches() throws Exception {
+        String output = runShell("grep " + NEEDLE + " " + FILE_NAME);
+
+        assertEquals(numOfNeedles, countLines(output));
+    }
+
+    @Test
+    void testGrepCountCaseInsensitiveShouldCountMatches() throws Exception {
+        String output = runShell("grep -c -i NEEDLE " + FILE_NAME);
+
+        assertEquals(String.valueOf(numOfNeedles), output.trim());
+    }
+
+    @Test
+    void testStreamingPipelineWithSparseMatchesShouldCountThem() throws Exception {
+        String output = runShell("grep " + NEEDLE + " " + FILE_NAME + " | wc -l", STREAMING);
+
+        assertEquals(String.valueOf(numOfNeedles), output.trim());
+    }
+
+    @Test
+    void testStreamingPipelineFromRedirectedInputShouldCountMatches() throws Exception {
+        String output = runShell("grep " + NEEDLE + " < " + FILE_NAME + " | grep -c " + NEEDLE, STREAMING);
+
+        assertEquals(String.valueOf(numOfNeedles), output.trim());
+    }
+
+    @Test
+    void testStreamingPipelineWithDenseMatchesShouldCountThem() throws Exception {
+        String output = runShell("grep a " + FILE_NAME + " | wc -l", STREAMING);
+
+        assertEquals(String.valueOf(numOfLines), output.trim());
+    }
+
+    @Test
+    void testStreamingPipelineWithDenseMatchesInSeveralFilesShouldCountThem() throws Exception {
+        String output = runShell("grep a " + FILE_NAME + " " + FILE_NAME + " " + FILE_NAME + " | wc -l",
+                STREAMING, GREP_THREADS);
+
+        assertEquals(String.valueOf(3 * numOfLines), output.trim());
+    }
+
+    @Test
+    void testStreamingPipelineWithDenseMatchesInDirectoryShouldCountThem() throws Exception {
+        // links rather than copies, so that a multi-GB file does not take several times its disk space
+        Path directory = Files.createDirectories(tempDir.resolve(DIRECTORY_NAME).resolve("sub"));
+        for (Path link : new Path[]{directory.getParent().resolve("a.txt"), directory.resolve("b.txt")}) {
+            try {
+                Files.createLink(link, tempDir.resolve(FILE_NAME));
+            } catch (IOException | UnsupportedOperationException e) {
+                Files.copy(tempDir.resolve(FILE_NAME), link);
+            }
+        }
+
+        String output = runShell("grep -r a " + DIRECTORY_NAME + " | wc -l", STREAMING, GREP_THREADS);
+
+        assertEquals(String.valueOf(2 * numOfLines), output.trim());
+    }
+
+    @Test
+    @Disabled("cut collects its output in a String before writing it")
+    void testStreamingPipelineWithCutShouldCountLines() throws Exception {
+        String output = runShell("cut -c 1-3 " + FILE_NAME + " | wc -l", STREAMING);
+
+        assertEquals(String.valueOf(numOfLines), output.trim());
+    }
+
+    @Test
+    @Disabled("sed collects its output in a String before writing it")
+    void testStreamingPipelineWithSedShouldCountLines() throws Exception {
+        String output = runShell("sed s/alpha/omega/ " + FILE_NAME + " | wc -l", STREAMING);
+
+        assertEquals(String.valueOf(numOfLines), output.trim());
+    }
+}
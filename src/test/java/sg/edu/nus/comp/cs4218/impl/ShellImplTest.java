@@ -0,0 +1,133 @@
+package sg.edu.nus.comp.cs4218.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sg.edu.nus.comp.cs4218.impl.ShellImpl.*;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+class ShellImplTest {
+    private final InputStream originalIn = System.in;
+    private final PrintStream originalOut = System.out;
+    private final PrintStream originalErr = System.err;
+    private ByteArrayOutputStream stdout;
+    private ByteArrayOutputStream stderr;
+
+    @BeforeEach
+    void setUp() {
+        stdout = new ByteArrayOutputStream();
+        stderr = new ByteArrayOutputStream();
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setIn(originalIn);
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+    }
+
+    private ScriptResult runScript(String script, String input) {
+        return new ShellImpl().runScript(new BufferedReader(new StringReader(script)),
+                new ByteArrayInputStream(input.getBytes()), stdout, new PrintStream(stderr, true));
+    }
+
+    @Test
+    void testRunScriptWithMultipleLinesShouldRunEachLineSkippingBlankAndCommentLines() {
+        ScriptResult result = runScript("#!/bin/shell" + STRING_NEWLINE + "echo a; echo b"
+                + STRING_NEWLINE + STRING_NEWLINE + "  # comment" + STRING_NEWLINE + "echo c", "");
+        assertEquals("a" + STRING_NEWLINE + "b" + STRING_NEWLINE + "c" + STRING_NEWLINE, stdout.toString());
+        assertEquals(EXIT_SUCCESS, result.getStatus());
+        assertEquals(2, result.getCommandCount());
+    }
+
+    @Test
+    void testRunScriptShouldStreamStdinIntoFirstCommand() {
+        ScriptResult result = runScript("grep b", "abc" + STRING_NEWLINE + "def" + STRING_NEWLINE);
+        assertEquals("abc" + STRING_NEWLINE, stdout.toString());
+        assertEquals(EXIT_SUCCESS, result.getStatus());
+    }
+
+    @Test
+    void testRunScriptWhenLastCommandFailsShouldContinueAndReturnFailure() {
+        ScriptResult result = runScript("invalidapp" + STRING_NEWLINE + "echo a" + STRING_NEWLINE + "echo 'b", "");
+        assertEquals("a" + STRING_NEWLINE, stdout.toString());
+        assertTrue(stderr.toString().contains("invalidapp"));
+        assertEquals(EXIT_FAILURE, result.getStatus());
+        assertEquals(3, result.getCommandCount());
+    }
+
+    @Test
+    void testRunScriptWhenExitShouldStopWithExitStatus() {
+        ScriptResult result = runScript("invalidapp" + STRING_NEWLINE + "exit" + STRING_NEWLINE + "echo a", "");
+        assertEquals("", stdout.toString());
+        assertEquals(EXIT_SUCCESS, result.getStatus());
+        assertEquals(2, result.getCommandCount());
+    }
+
+    @Test
+    void testRunScriptWithBackgroundJobsShouldWriteTheirOutputWhenWaitedFor() {
+        ScriptResult result = runScript("echo a & echo b &" + STRING_NEWLINE + "echo c" + STRING_NEWLINE
+                + "wait %2" + STRING_NEWLINE + "echo d & echo e", "");
+        assertEquals("c" + STRING_NEWLINE + "b" + STRING_NEWLINE + "e" + STRING_NEWLINE + "a" + STRING_NEWLINE
+                + "d" + STRING_NEWLINE, stdout.toString());
+        assertEquals(EXIT_SUCCESS, result.getStatus());
+    }
+
+    @Test
+    void testRunWithCommandOptionShouldRunCommandLine() {
+        System.setOut(new PrintStream(stdout, true));
+        assertEquals(EXIT_SUCCESS, ShellImpl.run(OPTION_COMMAND, "echo a | grep a"));
+        assertEquals("a" + STRING_NEWLINE, stdout.toString());
+    }
+
+    @Test
+    void testRunWithStatsOptionShouldPrintCountersToStderr(@TempDir Path tempDir) throws IOException {
+        Path script = tempDir.resolve("script.sh");
+        Files.write(script, ("echo a" + STRING_NEWLINE + "echo b").getBytes());
+        System.setOut(new PrintStream(stdout, true));
+        System.setErr(new PrintStream(stderr, true));
+
+        assertEquals(EXIT_SUCCESS, ShellImpl.run(OPTION_STATS, script.toString()));
+        assertEquals("a" + STRING_NEWLINE + "b" + STRING_NEWLINE, stdout.toString());
+        assertTrue(stderr.toString().startsWith("shell: 2 commands in "));
+        assertTrue(stderr.toString().contains("wrote " + stdout.size() + " bytes"));
+    }
+
+    @Test
+    void testRunWithStatsOptionShouldRestoreProcessStreams(@TempDir Path tempDir) {
+        InputStream processStdin = new ByteArrayInputStream(new byte[0]);
+        PrintStream processStdout = new PrintStream(stdout, true);
+        System.setIn(processStdin);
+        System.setOut(processStdout);
+        System.setErr(new PrintStream(stderr, true));
+
+        assertEquals(EXIT_SUCCESS, ShellImpl.run(OPTION_STATS, OPTION_COMMAND, "echo a"));
+        assertSame(processStdin, System.in);
+        assertSame(processStdout, System.out);
+
+        assertEquals(EXIT_NOT_FOUND, ShellImpl.run(OPTION_STATS, tempDir.resolve("missing.sh").toString()));
+        assertSame(processStdin, System.in);
+        assertSame(processStdout, System.out);
+    }
+
+    @Test
+    void testRunWithMissingScriptFileShouldReturnNotFound(@TempDir Path tempDir) {
+        System.setErr(new PrintStream(stderr, true));
+        assertEquals(EXIT_NOT_FOUND, ShellImpl.run(tempDir.resolve("missing.sh").toString()));
+    }
+
+    @Test
+    void testRunWithInvalidArgumentsShouldReturnUsageError() {
+        System.setErr(new PrintStream(stderr, true));
+        assertEquals(EXIT_USAGE, ShellImpl.run(OPTION_COMMAND));
+        assertEquals(EXIT_USAGE, ShellImpl.run("-x"));
+        assertEquals(EXIT_USAGE, ShellImpl.run("a.sh", "b.sh"));
+    }
+}
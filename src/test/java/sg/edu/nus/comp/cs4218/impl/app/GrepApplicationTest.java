@@ -1,12 +1,18 @@
 package sg.edu.nus.comp.cs4218.impl.app;
 
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import sg.edu.nus.comp.cs4218.ShellContext;
 import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
 import sg.edu.nus.comp.cs4218.exception.GrepException;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
 
 class GrepApplicationTest {
     private static final String FILE_ONE_NAME = "fileOne";
@@ -273,4 +279,336 @@ class GrepApplicationTest {
             e.getMessage();
         }
     }
+
+    // Test streaming grepFromFiles and grepFromStdin Methods
+
+    /**
+     * Test streaming grepFromFiles method with multiple file names.
+     * Expected: write the same lines as the String version, leaving the stream open.
+     */
+    @Test
+    void grepFromFilesToStreamWithMultipleFilesShouldWriteSameAsStringVersion() throws Exception {
+        String[] fileNames = {fileOne.getName(), INVALID, fileTwo.getName()};
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        try (ShellContext.Scope scope = new ShellContext(fileOne.getParent()).bind()) {
+            grepApplication.grepFromFiles(LOWER_LINE, false, false, stdout, fileNames);
+            stdout.write('x');
+
+            assertEquals(grepApplication.grepFromFiles(LOWER_LINE, false, false, fileNames) + "x", stdout.toString());
+        }
+        assertTrue(stdout.toString().startsWith(fileOne.getName() + ": " + LINE_ONE), stdout.toString());
+    }
+
+    /**
+     * Test streaming grepFromFiles method with isCountLines true.
+     * Expected: write the number of lines matched in each file.
+     */
+    @Test
+    void grepFromFilesToStreamWithIsCountLinesTrueShouldWriteCounts() throws Exception {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        try (ShellContext.Scope scope = new ShellContext(fileOne.getParent()).bind()) {
+            grepApplication.grepFromFiles(LOWER_LINE, false, true, stdout, fileOne.getName(), fileTwo.getName());
+        }
+
+        assertEquals(fileOne.getName() + ": 3" + System.lineSeparator() + fileTwo.getName() + ": 1"
+                + System.lineSeparator(), stdout.toString());
+    }
+
+    /**
+     * Test streaming grepFromFiles method with more files than are searched at the same time,
+     * some of them missing or directories.
+     * Expected: write the lines matched in each file, and the errors, in the order of the files.
+     */
+    @Test
+    void grepFromFilesToStreamWithManyFilesShouldWriteResultsInOrderOfFiles(@TempDir Path tempDir) throws Exception {
+        Files.createDirectory(tempDir.resolve("dir"));
+        String[] fileNames = new String[100];
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < fileNames.length; i++) {
+            if (i % 10 == 3) {
+                fileNames[i] = INVALID + i;
+                expected.append(fileNames[i]).append(": ").append(ERR_FILE_NOT_FOUND).append(System.lineSeparator());
+                continue;
+            }
+            if (i % 10 == 7) {
+                fileNames[i] = "dir";
+                expected.append("dir: Is a directory").append(System.lineSeparator());
+                continue;
+            }
+            fileNames[i] = "file" + i + FILE_FORMAT;
+            StringBuilder text = new StringBuilder();
+            for (int j = 0; j < i * 10; j++) {
+                text.append(j % 2 == 0 ? LOWER_LINE : "other").append(i).append(System.lineSeparator());
+            }
+            Files.write(tempDir.resolve(fileNames[i]), text.toString().getBytes());
+            for (int j = 0; j < i * 10; j += 2) {
+                expected.append(fileNames[i]).append(": ").append(LOWER_LINE).append(i).append(System.lineSeparator());
+            }
+        }
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        try (ShellContext.Scope scope = new ShellContext(tempDir.toString()).bind()) {
+            grepApplication.grepFromFiles(LOWER_LINE, false, false, stdout, fileNames);
+        }
+
+        assertEquals(expected.toString(), stdout.toString());
+    }
+
+    /**
+     * Test streaming grepFromFiles method with files whose results are too large to keep while
+     * the files before them are written.
+     * Expected: write every matching line of the files in the order of the files.
+     */
+    @Test
+    void grepFromFilesToStreamWithLargeResultsShouldWriteResultsInOrderOfFiles(@TempDir Path tempDir)
+            throws Exception {
+        String[] fileNames = new String[8];
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < fileNames.length; i++) {
+            fileNames[i] = "file" + i + FILE_FORMAT;
+            int numOfLines = i % 2 == 0 ? GrepApplication.MAX_PENDING_CHARS / 10 : 3;
+            StringBuilder text = new StringBuilder();
+            for (int j = 0; j < numOfLines; j++) {
+                text.append(LOWER_LINE).append(i).append(System.lineSeparator());
+                expected.append(fileNames[i]).append(": ").append(LOWER_LINE).append(i).append(System.lineSeparator());
+            }
+            Files.write(tempDir.resolve(fileNames[i]), text.toString().getBytes());
+        }
+
+        for (String pattern : new String[]{LOWER_LINE, LOWER_LINE + "[0-9]"}) {
+            ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+            try (ShellContext.Scope scope = new ShellContext(tempDir.toString()).bind()) {
+                grepApplication.grepFromFiles(pattern, false, false, stdout, fileNames);
+            }
+            assertEquals(expected.toString(), stdout.toString());
+        }
+    }
+
+    /**
+     * Test streaming grepFromFiles method with isCountLines true and many files, some of them missing.
+     * Expected: write the number of lines matched in each file, and the errors, in the order of the files.
+     */
+    @Test
+    void grepFromFilesToStreamWithManyFilesAndIsCountLinesTrueShouldWriteCountsInOrderOfFiles(@TempDir Path tempDir)
+            throws Exception {
+        String[] fileNames = new String[50];
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < fileNames.length; i++) {
+            fileNames[i] = "file" + i + FILE_FORMAT;
+            if (i % 5 == 0) {
+                expected.append(fileNames[i]).append(": ").append(ERR_FILE_NOT_FOUND).append(System.lineSeparator());
+                continue;
+            }
+            StringBuilder text = new StringBuilder();
+            for (int j = 0; j < i; j++) {
+                text.append(UPPER_LINE).append(System.lineSeparator()).append(INVALID).append(System.lineSeparator());
+            }
+            Files.write(tempDir.resolve(fileNames[i]), text.toString().getBytes());
+            expected.append(fileNames[i]).append(": ").append(i).append(System.lineSeparator());
+        }
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        try (ShellContext.Scope scope = new ShellContext(tempDir.toString()).bind()) {
+            grepApplication.grepFromFiles(LOWER_LINE, true, true, stdout, fileNames);
+        }
+
+        assertEquals(expected.toString(), stdout.toString());
+    }
+
+    /**
+     * Test run method with -F and a pattern with metacharacters.
+     * Expected: write the lines that contain the pattern as a fixed string.
+     */
+    @Test
+    void runWithFixedStringFlagShouldMatchMetacharactersLiterally(@TempDir Path tempDir) throws Exception {
+        Files.write(tempDir.resolve("fixed.txt"), ("a.b" + System.lineSeparator() + "axb" + System.lineSeparator()
+                + "A.B" + System.lineSeparator()).getBytes());
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        try (ShellContext.Scope scope = new ShellContext(tempDir.toString()).bind()) {
+            grepApplication.run(new String[]{"-Fi", "a.b", "fixed.txt"}, System.in, stdout);
+        }
+
+        assertEquals("a.b" + System.lineSeparator() + "A.B" + System.lineSeparator(), stdout.toString());
+    }
+
+    /**
+     * Test run method with -r and a directory tree with hidden and binary files.
+     * Expected: write the lines matched in every other file of the tree, in order of their paths.
+     */
+    @Test
+    void runWithRecursiveFlagShouldSearchFilesInTreeInOrderOfPaths(@TempDir Path tempDir) throws Exception {
+        Path tree = Files.createDirectories(tempDir.resolve("tree").resolve("b"));
+        Files.createDirectories(tempDir.resolve("tree").resolve(".hidden"));
+        Files.write(tree.resolve("z.txt"), LINE_ONE.getBytes());
+        Files.write(tree.resolve("a.txt"), (LINE_ONE + System.lineSeparator() + INVALID).getBytes());
+        Files.write(tree.resolve(".a.txt"), LINE_ONE.getBytes());
+        Files.write(tree.resolve("bin.dat"), ("line\0one").getBytes());
+        Files.write(tempDir.resolve("tree").resolve("c.txt"), LINE_ONE.getBytes());
+        Files.write(tempDir.resolve("tree").resolve(".hidden").resolve("a.txt"), LINE_ONE.getBytes());
+        Files.write(tempDir.resolve("top.txt"), LINE_ONE.getBytes());
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        try (ShellContext.Scope scope = new ShellContext(tempDir.toString()).bind()) {
+            grepApplication.run(new String[]{"-r", LOWER_LINE, "tree", "top.txt", INVALID}, System.in, stdout);
+        }
+
+        String treeB = "tree" + File.separator + "b" + File.separator;
+        assertEquals(treeB + "a.txt: " + LINE_ONE + System.lineSeparator()
+                + treeB + "z.txt: " + LINE_ONE + System.lineSeparator()
+                + "tree" + File.separator + "c.txt: " + LINE_ONE + System.lineSeparator()
+                + "top.txt: " + LINE_ONE + System.lineSeparator()
+                + INVALID + ": " + ERR_FILE_NOT_FOUND + System.lineSeparator(), stdout.toString());
+    }
+
+    /**
+     * Test grepFromFilesRecursively method with isCountLines true and a directory with one file.
+     * Expected: write the number of lines matched prefixed with the path of the file.
+     */
+    @Test
+    void grepFromFilesRecursivelyWithIsCountLinesTrueShouldWriteCountsPrefixedWithPaths(@TempDir Path tempDir)
+            throws Exception {
+        Files.write(Files.createDirectory(tempDir.resolve("dir")).resolve("one.txt"), FILE_ONE_TEXT.getBytes());
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        try (ShellContext.Scope scope = new ShellContext(tempDir.toString()).bind()) {
+            grepApplication.grepFromFilesRecursively(LOWER_LINE, false, true, stdout, "dir");
+        }
+
+        assertEquals("dir" + File.separator + "one.txt: 3" + System.lineSeparator(), stdout.toString());
+    }
+
+    /**
+     * Test run method with -l and files of which some match.
+     * Expected: write the names of the files with a matching line, in order.
+     */
+    @Test
+    void runWithListFlagShouldWriteNamesOfMatchingFiles() throws Exception {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        try (ShellContext.Scope scope = new ShellContext(fileOne.getParent()).bind()) {
+            grepApplication.run(new String[]{"-l", "two", fileOne.getName(), fileTwo.getName(), fileOne.getName()},
+                    System.in, stdout);
+        }
+
+        assertEquals(fileOne.getName() + System.lineSeparator() + fileOne.getName() + System.lineSeparator(),
+                stdout.toString());
+    }
+
+    /**
+     * Test run method with -q and an endless stdin with a matching line.
+     * Expected: write nothing and return once the matching line is read.
+     */
+    @Test
+    void runWithQuietFlagAndMatchingLineShouldStopReadingAndWriteNothing() throws Exception {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+                grepApplication.run(new String[]{"-q", LOWER_LINE}, new EndlessInputStream(), stdout));
+
+        assertEquals("", stdout.toString());
+    }
+
+    /**
+     * Test run method with -q and no matching line.
+     * Expected: write nothing and throw GrepException.
+     */
+    @Test
+    void runWithQuietFlagAndNoMatchingLineShouldThrowGrepException() {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        try (ShellContext.Scope scope = new ShellContext(fileOne.getParent()).bind()) {
+            assertThrows(GrepException.class, () -> grepApplication.run(new String[]{"-q", UPPER_LINE,
+                    fileOne.getName(), INVALID}, System.in, stdout));
+        }
+        assertEquals("", stdout.toString());
+    }
+
+    /**
+     * Test run method with -m and an endless stdin.
+     * Expected: write the first NUM matching lines and return.
+     */
+    @Test
+    void runWithMaxCountFlagShouldStopReadingAfterMaxCountLines() throws Exception {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+                grepApplication.run(new String[]{"-m", "2", LOWER_LINE}, new EndlessInputStream(), stdout));
+
+        assertEquals(LOWER_LINE + System.lineSeparator() + LOWER_LINE + System.lineSeparator(), stdout.toString());
+    }
+
+    /**
+     * Test run method with -c and -m given in one argument with its number.
+     * Expected: write the number of matching lines of each file, at most NUM.
+     */
+    @Test
+    void runWithCountAndMaxCountFlagsShouldWriteCountsOfAtMostMaxCount() throws Exception {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        try (ShellContext.Scope scope = new ShellContext(fileOne.getParent()).bind()) {
+            grepApplication.run(new String[]{"-cm2", LOWER_LINE, fileOne.getName(), fileTwo.getName()},
+                    System.in, stdout);
+        }
+
+        assertEquals(fileOne.getName() + ": 2" + System.lineSeparator() + fileTwo.getName() + ": 1"
+                + System.lineSeparator(), stdout.toString());
+    }
+
+    /**
+     * Test run method with -m and no number, or a negative number.
+     * Expected: throw GrepException.
+     */
+    @Test
+    void runWithInvalidMaxCountShouldThrowGrepException() {
+        assertThrows(GrepException.class, () ->
+                grepApplication.run(new String[]{"-m"}, System.in, outputStream));
+        assertThrows(GrepException.class, () ->
+                grepApplication.run(new String[]{"-m", "-1", LOWER_LINE}, System.in, outputStream));
+    }
+
+    /**
+     * Test streaming grepFromFiles method with null output stream.
+     * Expected: throw GrepException.
+     */
+    @Test
+    void grepFromFilesToStreamWithNullStdoutShouldThrowGrepException() {
+        assertThrows(GrepException.class, () ->
+                grepApplication.grepFromFiles(LOWER_LINE, false, false, (OutputStream) null, fileOne.getPath()));
+    }
+
+    /**
+     * Test streaming grepFromStdin method with more lines than fit in the output buffer.
+     * Expected: write every line matched.
+     */
+    @Test
+    void grepFromStdinToStreamWithManyMatchesShouldWriteEveryLine() throws Exception {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            input.append(LOWER_LINE).append(i).append(System.lineSeparator());
+        }
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        grepApplication.grepFromStdin(LOWER_LINE, false, false,
+                new ByteArrayInputStream(input.toString().getBytes()), stdout);
+
+        assertEquals(input.toString(), stdout.toString());
+    }
+
+    /**
+     * An InputStream of the line "line" repeated without end.
+     */
+    private static final class EndlessInputStream extends InputStream {
+        private final byte[] line = (LOWER_LINE + System.lineSeparator()).getBytes();
+        private int position;
+
+        @Override
+        public int read() {
+            int value = line[position];
+            position = (position + 1) % line.length;
+            return value;
+        }
+    }
 }
@@ -0,0 +1,85 @@
+package sg.edu.nus.comp.cs4218.impl.app;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sg.edu.nus.comp.cs4218.Command;
+import sg.edu.nus.comp.cs4218.ShellContext;
+import sg.edu.nus.comp.cs4218.exception.JobsException;
+import sg.edu.nus.comp.cs4218.impl.util.Job;
+import sg.edu.nus.comp.cs4218.impl.util.JobTable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_TOO_MANY_ARGS;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+class JobsApplicationTest {
+    private JobsApplication jobsApplication;
+    private ShellContext context;
+    private ShellContext.Scope scope;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        jobsApplication = new JobsApplication();
+        context = new ShellContext(System.getProperty("user.dir"));
+        scope = context.bind();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        scope.close();
+    }
+
+    /**
+     * Command that runs until the test is over.
+     */
+    private final Command blockingCommand = new Command() {
+        @Override
+        public void evaluate(InputStream stdin, OutputStream stdout) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void terminate() {
+            release.countDown();
+        }
+    };
+
+    @Test
+    void testListJobsWithoutJobsShouldReturnEmptyString() {
+        assertEquals("", jobsApplication.listJobs());
+    }
+
+    @Test
+    void testRunShouldListJobsWithStatusInOrder() throws Exception {
+        JobTable jobTable = context.getJobTable();
+        Job finishedJob = jobTable.submit(mock(Command.class), "echo a", context);
+        finishedJob.await();
+        jobTable.submit(blockingCommand, "find . -name a", context);
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        jobsApplication.run(new String[0], mock(InputStream.class), stdout);
+
+        assertEquals("[1]  Done       echo a" + STRING_NEWLINE
+                + "[2]  Running    find . -name a" + STRING_NEWLINE, stdout.toString());
+    }
+
+    @Test
+    void testRunWithArgsShouldThrowJobsException() {
+        JobsException exception = assertThrows(JobsException.class,
+                () -> jobsApplication.run(new String[]{"1"}, mock(InputStream.class), new ByteArrayOutputStream()));
+        assertEquals("jobs: " + ERR_TOO_MANY_ARGS, exception.getMessage());
+    }
+}
@@ -0,0 +1,87 @@
+package sg.edu.nus.comp.cs4218.impl.app;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sg.edu.nus.comp.cs4218.exception.GrepException;
+import sg.edu.nus.comp.cs4218.exception.ProfileException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.*;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+class ProfileApplicationTest {
+    private ProfileApplication profileApplication;
+    private ByteArrayOutputStream stdout;
+    private InputStream stdin;
+
+    @BeforeEach
+    void setUp() {
+        profileApplication = new ProfileApplication();
+        stdout = new ByteArrayOutputStream();
+        stdin = new ByteArrayInputStream(new byte[0]);
+    }
+
+    @Test
+    void testRunWithCommandShouldWriteItsOutputFollowedBySummary() throws Exception {
+        profileApplication.run(new String[]{"echo", "a", "b"}, stdin, stdout);
+
+        String output = stdout.toString();
+        assertTrue(output.startsWith("a b" + STRING_NEWLINE + "Wall time: "), output);
+        assertTrue(output.contains("Top stages:" + STRING_NEWLINE), output);
+        assertTrue(output.contains(" ms  echo a b (in 0 B, out " + ("a b" + STRING_NEWLINE).length() + " B)"), output);
+        assertTrue(output.contains("Allocated: "), output);
+        assertTrue(output.contains("I/O wait: "), output);
+    }
+
+    @Test
+    void testRunWithQuotedPipelineShouldListEveryStage() throws Exception {
+        profileApplication.run(new String[]{"echo hello | grep hell"}, stdin, stdout);
+
+        String output = stdout.toString();
+        assertTrue(output.startsWith("hello" + STRING_NEWLINE), output);
+        assertTrue(output.contains(" ms  echo hello "), output);
+        assertTrue(output.contains(" ms  grep hell "), output);
+    }
+
+    @Test
+    void testRunWithSemicolonsInArgumentShouldNotSplitCommand() throws Exception {
+        profileApplication.run(new String[]{"echo", "a b;  c"}, stdin, stdout);
+
+        assertTrue(stdout.toString().startsWith("a b;  c" + STRING_NEWLINE + "Wall time: "), stdout.toString());
+    }
+
+    @Test
+    void testRunWithBackQuotesInArgumentShouldNotSubstituteCommand() throws Exception {
+        profileApplication.run(new String[]{"echo", "`echo SUB`"}, stdin, stdout);
+
+        assertTrue(stdout.toString().startsWith("`echo SUB`" + STRING_NEWLINE), stdout.toString());
+    }
+
+    @Test
+    void testRunWhenCommandFailsShouldWriteSummaryAndThrowItsException() {
+        GrepException exception = assertThrows(GrepException.class, () ->
+                profileApplication.run(new String[]{"grep"}, stdin, stdout));
+
+        assertEquals(new GrepException(ERR_EMPTY_REGEX).getMessage(), exception.getMessage());
+        assertTrue(stdout.toString().contains(" ms  grep (in 0 B, out 0 B) failed: "), stdout.toString());
+    }
+
+    @Test
+    void testRunWithInvalidSyntaxShouldThrowProfileException() {
+        ProfileException exception = assertThrows(ProfileException.class, () ->
+                profileApplication.run(new String[]{"echo a |"}, stdin, stdout));
+        assertTrue(exception.getMessage().startsWith("profile: "));
+        assertEquals("", stdout.toString());
+    }
+
+    @Test
+    void testRunWithoutArgsShouldThrowProfileException() {
+        ProfileException exception = assertThrows(ProfileException.class, () ->
+                profileApplication.run(new String[0], stdin, stdout));
+        assertEquals(new ProfileException(ERR_NO_ARGS).getMessage(), exception.getMessage());
+    }
+}
@@ -0,0 +1,110 @@
+package sg.edu.nus.comp.cs4218.impl.app;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sg.edu.nus.comp.cs4218.ShellContext;
+import sg.edu.nus.comp.cs4218.exception.GrepException;
+import sg.edu.nus.comp.cs4218.exception.TimeException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.*;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+class TimeApplicationTest {
+    private static final String HEADER = "real ms       cpu ms      alloc B         in B        out B  command";
+
+    private TimeApplication timeApplication;
+    private ByteArrayOutputStream stdout;
+    private InputStream stdin;
+
+    @BeforeEach
+    void setUp() {
+        timeApplication = new TimeApplication();
+        stdout = new ByteArrayOutputStream();
+        stdin = new ByteArrayInputStream(new byte[0]);
+    }
+
+    @Test
+    void testRunWithCommandShouldWriteItsOutputFollowedByMeasurements() throws Exception {
+        timeApplication.run(new String[]{"echo", "a", "b"}, stdin, stdout);
+
+        String[] lines = stdout.toString().split(STRING_NEWLINE);
+        assertEquals(4, lines.length);
+        assertEquals("a b", lines[0]);
+        assertEquals(HEADER, lines[1].trim());
+        assertTrue(lines[2].endsWith(" 4  echo a b"), lines[2]);
+        assertTrue(lines[3].endsWith(" 0            4    echo a b"), lines[3]);
+    }
+
+    @Test
+    void testRunWithQuotedPipelineShouldMeasureEveryStage() throws Exception {
+        timeApplication.run(new String[]{"echo hello; echo abc | grep b"}, stdin, stdout);
+
+        String[] lines = stdout.toString().split(STRING_NEWLINE);
+        assertEquals(7, lines.length);
+        assertEquals("hello", lines[0]);
+        assertEquals("abc", lines[1]);
+        assertTrue(lines[3].endsWith(" 10  echo hello; echo abc | grep b"), lines[3]);
+        assertTrue(lines[4].endsWith(" 0            6    echo hello"), lines[4]);
+        assertTrue(lines[5].endsWith(" 0            4    echo abc"), lines[5]);
+        assertTrue(lines[6].endsWith(" 4            4    | grep b"), lines[6]);
+    }
+
+    @Test
+    void testRunWithQuotedArgumentShouldPassItAsOneArgument(@TempDir Path tempDir) throws Exception {
+        Files.write(tempDir.resolve("f.txt"), ("a b" + STRING_NEWLINE + "a" + STRING_NEWLINE).getBytes());
+
+        try (ShellContext.Scope scope = new ShellContext(tempDir.toString()).bind()) {
+            timeApplication.run(new String[]{"grep", "a b", "f.txt"}, stdin, stdout);
+        }
+
+        String[] lines = stdout.toString().split(STRING_NEWLINE);
+        assertEquals("a b", lines[0]);
+        assertTrue(lines[2].endsWith("  grep 'a b' f.txt"), lines[2]);
+    }
+
+    @Test
+    void testRunWithSemicolonInArgumentShouldNotSplitCommand() throws Exception {
+        timeApplication.run(new String[]{"echo", "x;y"}, stdin, stdout);
+
+        assertEquals("x;y", stdout.toString().split(STRING_NEWLINE)[0]);
+    }
+
+    @Test
+    void testRunWithBackQuotesInArgumentShouldNotSubstituteCommand() throws Exception {
+        timeApplication.run(new String[]{"echo", "literal `echo SUB`"}, stdin, stdout);
+
+        assertEquals("literal `echo SUB`", stdout.toString().split(STRING_NEWLINE)[0]);
+    }
+
+    @Test
+    void testRunWhenCommandFailsShouldWriteMeasurementsAndThrowItsException() {
+        GrepException exception = assertThrows(GrepException.class, () ->
+                timeApplication.run(new String[]{"grep"}, stdin, stdout));
+
+        assertEquals(new GrepException(ERR_EMPTY_REGEX).getMessage(), exception.getMessage());
+        assertTrue(stdout.toString().trim().endsWith("  grep"), stdout.toString());
+    }
+
+    @Test
+    void testRunWithInvalidSyntaxShouldThrowTimeException() {
+        TimeException exception = assertThrows(TimeException.class, () ->
+                timeApplication.run(new String[]{"echo a |"}, stdin, stdout));
+        assertTrue(exception.getMessage().startsWith("time: "));
+        assertEquals("", stdout.toString());
+    }
+
+    @Test
+    void testRunWithoutArgsShouldThrowTimeException() {
+        TimeException exception = assertThrows(TimeException.class, () ->
+                timeApplication.run(new String[0], stdin, stdout));
+        assertEquals(new TimeException(ERR_NO_ARGS).getMessage(), exception.getMessage());
+    }
+}
@@ -0,0 +1,89 @@
+package sg.edu.nus.comp.cs4218.impl.app;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sg.edu.nus.comp.cs4218.exception.TimeoutException;
+import sg.edu.nus.comp.cs4218.impl.util.RingBufferPipe;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.*;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+class TimeoutApplicationTest {
+    private static final long MAX_STOP_MILLIS = 5000;
+
+    private TimeoutApplication timeoutApplication;
+    private ByteArrayOutputStream stdout;
+
+    @BeforeEach
+    void setUp() {
+        timeoutApplication = new TimeoutApplication();
+        stdout = new ByteArrayOutputStream();
+    }
+
+    @Test
+    void testRunWhenApplicationFinishesInTimeShouldWriteItsOutput() throws Exception {
+        timeoutApplication.run(new String[]{"10", "echo", "a", "b"}, mock(InputStream.class), stdout);
+        assertEquals("a b" + STRING_NEWLINE, stdout.toString());
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    void testRunWhenApplicationBlocksShouldStopItAfterDuration() throws Exception {
+        RingBufferPipe pipe = new RingBufferPipe(RingBufferPipe.DEFAULT_CAPACITY);
+        pipe.getOutputStream().write(("a" + STRING_NEWLINE).getBytes());
+        long start = System.currentTimeMillis();
+
+        TimeoutException exception = assertThrows(TimeoutException.class,
+                () -> timeoutApplication.run(new String[]{"0.2", "grep", "a"}, pipe.getInputStream(), stdout));
+
+        assertEquals("timeout: grep: " + ERR_TIMED_OUT, exception.getMessage());
+        assertTrue(System.currentTimeMillis() - start < MAX_STOP_MILLIS);
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    void testRunWhenRegexBacktracksCatastrophicallyShouldStopItAfterDuration() {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < 64; i++) {
+            line.append('a');
+        }
+        InputStream stdin = new ByteArrayInputStream((line + STRING_NEWLINE).getBytes());
+        long start = System.currentTimeMillis();
+
+        // the backreference turns off the memoization of loops that makes (a+)+b fast on JDK 9+
+        TimeoutException exception = assertThrows(TimeoutException.class,
+                () -> timeoutApplication.run(new String[]{"0.2", "grep", "(a+)+\\1b"}, stdin, stdout));
+
+        assertEquals("timeout: grep: " + ERR_TIMED_OUT, exception.getMessage());
+        assertTrue(System.currentTimeMillis() - start < MAX_STOP_MILLIS);
+    }
+
+    @Test
+    void testRunWithInvalidDurationShouldThrowTimeoutException() {
+        for (String duration : new String[]{"x", "-1", "NaN", "Infinity"}) {
+            TimeoutException exception = assertThrows(TimeoutException.class,
+                    () -> timeoutApplication.run(new String[]{duration, "echo"}, mock(InputStream.class), stdout));
+            assertEquals("timeout: " + duration + ": " + ERR_INVALID_DURATION, exception.getMessage());
+        }
+    }
+
+    @Test
+    void testRunWithUnknownApplicationShouldThrowTimeoutException() {
+        TimeoutException exception = assertThrows(TimeoutException.class,
+                () -> timeoutApplication.run(new String[]{"1", "invalidapp"}, mock(InputStream.class), stdout));
+        assertEquals("timeout: invalidapp: " + ERR_INVALID_APP, exception.getMessage());
+    }
+
+    @Test
+    void testRunWithoutApplicationShouldThrowTimeoutException() {
+        TimeoutException exception = assertThrows(TimeoutException.class,
+                () -> timeoutApplication.run(new String[]{"1"}, mock(InputStream.class), stdout));
+        assertEquals("timeout: " + ERR_NO_ARGS, exception.getMessage());
+    }
+}
@@ -0,0 +1,103 @@
+package sg.edu.nus.comp.cs4218.impl.app;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sg.edu.nus.comp.cs4218.ShellContext;
+import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.exception.WaitException;
+import sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner;
+import sg.edu.nus.comp.cs4218.impl.util.JobTable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static sg.edu.nus.comp.cs4218.impl.util.CommandBuilder.parseCommand;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.*;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+class WaitApplicationTest {
+    private WaitApplication waitApplication;
+    private ShellContext context;
+    private ShellContext.Scope scope;
+    private ByteArrayOutputStream stdout;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) {
+        waitApplication = new WaitApplication();
+        context = new ShellContext(tempDir.toString());
+        scope = context.bind();
+        stdout = new ByteArrayOutputStream();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scope.close();
+    }
+
+    private void startJob(String commandLine) throws AbstractApplicationException, ShellException {
+        parseCommand(commandLine + " &", new ApplicationRunner()).evaluate(mock(InputStream.class), stdout);
+    }
+
+    @Test
+    void testRunWithoutArgsShouldWriteOutputOfEveryJobInOrderAndRemoveThem() throws Exception {
+        startJob("echo a");
+        startJob("echo b");
+        startJob("invalidapp");
+
+        waitApplication.run(new String[0], mock(InputStream.class), stdout);
+
+        assertEquals("a" + STRING_NEWLINE + "b" + STRING_NEWLINE + "shell: invalidapp: " + ERR_INVALID_APP
+                + STRING_NEWLINE, stdout.toString());
+        assertTrue(context.getJobTable().getJobs().isEmpty());
+    }
+
+    @Test
+    void testRunWithJobNumbersShouldWaitOnlyForThoseJobs() throws Exception {
+        startJob("echo a");
+        startJob("echo b");
+        startJob("echo c");
+
+        waitApplication.run(new String[]{"%3", "1"}, mock(InputStream.class), stdout);
+
+        assertEquals("c" + STRING_NEWLINE + "a" + STRING_NEWLINE, stdout.toString());
+        JobTable jobTable = context.getJobTable();
+        assertEquals(1, jobTable.getJobs().size());
+        assertNotNull(jobTable.getJob(2));
+    }
+
+    @Test
+    void testRunWithRedirectedJobShouldWriteFileInJobDirectory(@TempDir Path tempDir) throws Exception {
+        context.setCurrentDirectory(tempDir.toString());
+        startJob("echo a > out.txt");
+
+        waitApplication.run(new String[0], mock(InputStream.class), stdout);
+
+        assertEquals("", stdout.toString());
+        assertEquals("a" + STRING_NEWLINE, new String(Files.readAllBytes(tempDir.resolve("out.txt"))));
+    }
+
+    @Test
+    void testRunWithUnknownJobShouldThrowWaitExceptionWithoutWaiting() throws Exception {
+        startJob("echo a");
+
+        WaitException exception = assertThrows(WaitException.class,
+                () -> waitApplication.run(new String[]{"1", "%x"}, mock(InputStream.class), stdout));
+
+        assertEquals("wait: %x: " + ERR_NO_SUCH_JOB, exception.getMessage());
+        assertEquals(1, context.getJobTable().getJobs().size());
+    }
+
+    @Test
+    void testRunWithNullArgsShouldThrowWaitException() {
+        WaitException exception = assertThrows(WaitException.class,
+                () -> waitApplication.run(null, mock(InputStream.class), stdout));
+        assertEquals("wait: " + ERR_NULL_ARGS, exception.getMessage());
+    }
+}
@@ -8,17 +8,22 @@ import org.junit.jupiter.api.Test;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
 import sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner;
 import sg.edu.nus.comp.cs4218.impl.util.ArgumentResolver;
+import sg.edu.nus.comp.cs4218.impl.util.RingBufferPipe;
 
 import java.io.*;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_SYNTAX;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_TERMINATED;
 
 /**
  * In this unit test, it is important to note that call command encapsulates objects (e.g. application runner)
@@ -73,6 +78,47 @@ class CallCommandTest {
     }
 
 
+    /**
+     * Test terminate method before evaluate.
+     * Expected: evaluate throws Shell Exception without running the application.
+     */
+    @Test
+    void runEvaluateMethodWhenTerminatedShouldThrowShellException() {
+        callCommand = new CallCommand(new ArrayList<>(Arrays.asList("echo", "hello")), mockAppRunner, mockArgResolver);
+        callCommand.terminate();
+        Exception thrown = assertThrows(ShellException.class, () -> {
+            callCommand.evaluate(System.in, outputStream);
+        });
+        assertEquals(SHELL_EXCEPTION + ERR_TERMINATED, thrown.getMessage());
+        assertEquals("", outputStream.toString());
+    }
+
+    /**
+     * Test terminate method while the application waits for input that never comes.
+     * Expected: evaluate stops with Shell Exception and leaves the thread not interrupted.
+     */
+    @Test
+    void runTerminateMethodWhileApplicationBlockedShouldStopEvaluate() throws Exception {
+        RingBufferPipe pipe = new RingBufferPipe(RingBufferPipe.DEFAULT_CAPACITY);
+        callCommand = new CallCommand(new ArrayList<>(Arrays.asList("grep", "a")), new ApplicationRunner(),
+                new ArgumentResolver());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> result = executor.submit(() -> {
+                Exception thrown = assertThrows(ShellException.class, () -> {
+                    callCommand.evaluate(pipe.getInputStream(), outputStream);
+                });
+                assertEquals(SHELL_EXCEPTION + ERR_TERMINATED, thrown.getMessage());
+                return Thread.currentThread().isInterrupted();
+            });
+            Thread.sleep(100);
+            callCommand.terminate();
+            assertFalse(result.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Test getter of argsList in Call Command.
      * Expected: No changes should be made to argsList.
@@ -0,0 +1,94 @@
+package sg.edu.nus.comp.cs4218.impl.cmd;
+
+import org.junit.jupiter.api.Test;
+import sg.edu.nus.comp.cs4218.Command;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner;
+import sg.edu.nus.comp.cs4218.impl.util.CommandBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+class CommandTimerTest {
+    private static final String LINES = "b" + STRING_NEWLINE + "a" + STRING_NEWLINE + "c" + STRING_NEWLINE;
+
+    private final CommandTimer timer = new CommandTimer();
+
+    private Command instrument(String commandLine, boolean isStreaming) throws ShellException {
+        Command command = CommandBuilder.parseCommand(commandLine, new ApplicationRunner());
+        if (command instanceof PipeCommand) {
+            command = new PipeCommand(((PipeCommand) command).getCallCommands(), isStreaming);
+        }
+        return timer.instrument(command);
+    }
+
+    @Test
+    void testInstrumentWithBufferedPipeShouldMeasureBytesBetweenStages() throws Exception {
+        assertPipeMeasured(instrument("sort | grep -i A", false));
+    }
+
+    @Test
+    void testInstrumentWithStreamingPipeShouldMeasureEachStageOnItsThread() throws Exception {
+        assertPipeMeasured(instrument("sort | grep -i A", true));
+    }
+
+    private void assertPipeMeasured(Command command) throws Exception {
+        assertTrue(command instanceof PipeCommand);
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        command.evaluate(new ByteArrayInputStream(LINES.getBytes()), stdout);
+
+        assertEquals("a" + STRING_NEWLINE, stdout.toString());
+        List<CommandTimer.Stage> stages = timer.getStages();
+        assertEquals(2, stages.size());
+        CommandTimer.Stage sort = stages.get(0);
+        assertEquals("sort", sort.getCommand());
+        assertEquals(0, sort.getIndex());
+        assertTrue(sort.isRun());
+        assertEquals(LINES.length(), sort.getBytesIn());
+        assertEquals(LINES.length(), sort.getBytesOut());
+        assertTrue(sort.getWallNanos() > 0);
+        assertNotEquals(0, sort.getCpuNanos());
+        assertNotEquals(0, sort.getAllocatedBytes());
+        CommandTimer.Stage grep = stages.get(1);
+        assertEquals("grep -i A", grep.getCommand());
+        assertEquals(1, grep.getIndex());
+        assertEquals(LINES.length(), grep.getBytesIn());
+        assertEquals(stdout.size(), grep.getBytesOut());
+    }
+
+    @Test
+    void testInstrumentWithSequenceShouldMeasureEachPart() throws Exception {
+        Command command = instrument("echo a; echo b | wc -c", false);
+        assertTrue(command instanceof SequenceCommand);
+
+        command.evaluate(System.in, new ByteArrayOutputStream());
+
+        List<CommandTimer.Stage> stages = timer.getStages();
+        assertEquals(3, stages.size());
+        assertEquals("echo a", stages.get(0).getCommand());
+        assertEquals(0, stages.get(0).getIndex());
+        assertEquals("echo b", stages.get(1).getCommand());
+        assertEquals(0, stages.get(1).getIndex());
+        assertEquals("wc -c", stages.get(2).getCommand());
+        assertEquals(1, stages.get(2).getIndex());
+        assertTrue(stages.get(2).isRun());
+    }
+
+    @Test
+    void testFormatWithStageNotRunShouldShowDashes() throws Exception {
+        Command command = instrument("lsa | echo a", false);
+
+        assertThrows(ShellException.class, () -> command.evaluate(System.in, new ByteArrayOutputStream()));
+
+        String[] lines = timer.format("lsa | echo a", 1_500_000).split(STRING_NEWLINE);
+        assertEquals(4, lines.length);
+        assertTrue(lines[1].trim().startsWith("1.500 "), lines[1]);
+        assertTrue(lines[2].endsWith("  lsa"), lines[2]);
+        assertEquals("-            -            -            -            -    | echo a", lines[3].trim());
+    }
+}
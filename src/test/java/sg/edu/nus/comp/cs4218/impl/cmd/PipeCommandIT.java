@@ -11,10 +11,12 @@ import sg.edu.nus.comp.cs4218.exception.SedException;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
 import sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner;
 import sg.edu.nus.comp.cs4218.impl.util.ArgumentResolver;
+import sg.edu.nus.comp.cs4218.impl.util.RingBufferPipe;
 
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -515,4 +517,131 @@ class PipeCommandIT {
         pipeCommand.evaluate(System.in, outputStream);
         assertEquals("> < " + FILE_CONTENT_1 + System.lineSeparator() + "> > " + FILE_CONTENT_2 + System.lineSeparator(), outputStream.toString());
     }
-}
\ No newline at end of file
+
+    // Streaming mode test cases
+
+    /**
+     * Tests evaluate method in streaming mode for a valid <Call> | <Call> format
+     * For example: echo hello world | grep "world"
+     * Expected: Outputs hello world terminated with a new line character.
+     */
+    @Test
+    void testEvaluateStreamingPipeCommandWithValidCallCommandAndCallCommandFormatShouldOutputCorrectly() throws AbstractApplicationException, ShellException {
+        callCommands.add(new CallCommand(Arrays.asList(ECHO_APP, "hello", "world"), new ApplicationRunner(), new ArgumentResolver()));
+        callCommands.add(new CallCommand(Arrays.asList(GREP_APP, "world"), new ApplicationRunner(), new ArgumentResolver()));
+        PipeCommand pipeCommand = new PipeCommand(callCommands, true);
+        pipeCommand.evaluate(System.in, outputStream);
+        assertEquals("hello world" + System.lineSeparator(), outputStream.toString());
+    }
+
+    /**
+     * Tests evaluate method in streaming mode when the output passed between stages is larger than the pipe buffer.
+     * For example: grep "line" 1.txt | wc -l
+     * Where 1.txt contains many more bytes than PIPE_BUFFER_SIZE.
+     * Expected: Outputs the number of lines without blocking.
+     */
+    @Test
+    void testEvaluateStreamingPipeCommandWithOutputLargerThanPipeBufferShouldOutputCorrectly(@TempDir Path tempDir) throws Exception {
+        int numOfLines = PipeCommand.PIPE_BUFFER_SIZE / 4;
+        List<String> lines = new LinkedList<>();
+        for (int i = 0; i < numOfLines; i++) {
+            lines.add("line " + i);
+        }
+        Files.write(tempDir.resolve(FILE_NAME_4), lines);
+        EnvironmentHelper.currentDirectory = tempDir.toString();
+        callCommands.add(new CallCommand(Arrays.asList(GREP_APP, "line", FILE_NAME_4), new ApplicationRunner(), new ArgumentResolver()));
+        callCommands.add(new CallCommand(Arrays.asList(SED_APP, REGEX_EXPR_2), new ApplicationRunner(), new ArgumentResolver()));
+        callCommands.add(new CallCommand(Arrays.asList(WC_APP, "-l"), new ApplicationRunner(), new ArgumentResolver()));
+        PipeCommand pipeCommand = new PipeCommand(callCommands, true);
+        pipeCommand.evaluate(System.in, outputStream);
+        assertEquals(String.format(" %7d", numOfLines) + STRING_NEWLINE, outputStream.toString());
+    }
+
+    /**
+     * Tests evaluate method in streaming mode when a ShellException occurs in the first stage.
+     * For example: lsa | echo How are you
+     * Expected: Throws the ShellException of the first stage.
+     */
+    @Test
+    void testEvaluateStreamingPipeCommandWithACommandThrowingAShellExceptionShouldThrowException() {
+        callCommands.add(new CallCommand(Collections.singletonList(INVALID_APP), new ApplicationRunner(), new ArgumentResolver()));
+        callCommands.add(new CallCommand(Arrays.asList(ECHO_APP, "How", "are", "you"), new ApplicationRunner(), new ArgumentResolver()));
+        PipeCommand pipeCommand = new PipeCommand(callCommands, true);
+        ShellException exception = assertThrows(ShellException.class, () -> {
+            pipeCommand.evaluate(System.in, outputStream);
+        });
+        assertEquals(new ShellException("lsa: " + ERR_INVALID_APP).getMessage(), exception.getMessage());
+    }
+
+    /**
+     * Tests evaluate method in streaming mode when an AbstractApplicationException occurs in the last stage.
+     * For example: echo Welcome | grep
+     * Expected: Throws GrepException, a subclass of AbstractApplicationException
+     */
+    @Test
+    void testEvaluateStreamingPipeCommandWithLastCommandThrowingAbstractApplicationExceptionShouldThrowGrepException() {
+        callCommands.add(new CallCommand(Arrays.asList(ECHO_APP, "Welcome"), new ApplicationRunner(), new ArgumentResolver()));
+        callCommands.add(new CallCommand(Arrays.asList(GREP_APP), new ApplicationRunner(), new ArgumentResolver()));
+        PipeCommand pipeCommand = new PipeCommand(callCommands, true);
+        AbstractApplicationException exception = assertThrows(AbstractApplicationException.class, () -> {
+            pipeCommand.evaluate(System.in, outputStream);
+        });
+        assertEquals(new GrepException(ERR_EMPTY_REGEX).getMessage(), exception.getMessage());
+    }
+
+    /**
+     * Tests evaluate method in streaming mode when a stage does not read its input.
+     * For example: grep "line" 1.txt | echo done
+     * Where 1.txt contains many more bytes than PIPE_BUFFER_SIZE.
+     * Expected: Outputs done without blocking and without reporting the broken pipe of grep.
+     */
+    @Test
+    void testEvaluateStreamingPipeCommandWithStageNotReadingInputShouldNotThrowException(@TempDir Path tempDir) throws Exception {
+        List<String> lines = new LinkedList<>();
+        for (int i = 0; i < PipeCommand.PIPE_BUFFER_SIZE; i++) {
+            lines.add("line " + i);
+        }
+        Files.write(tempDir.resolve(FILE_NAME_4), lines);
+        EnvironmentHelper.currentDirectory = tempDir.toString();
+        callCommands.add(new CallCommand(Arrays.asList(GREP_APP, "line", FILE_NAME_4), new ApplicationRunner(), new ArgumentResolver()));
+        callCommands.add(new CallCommand(Arrays.asList(ECHO_APP, "done"), new ApplicationRunner(), new ArgumentResolver()));
+        PipeCommand pipeCommand = new PipeCommand(callCommands, true);
+        pipeCommand.evaluate(System.in, outputStream);
+        assertEquals("done" + STRING_NEWLINE, outputStream.toString());
+    }
+
+    /**
+     * Tests evaluate method in streaming mode when the last stage stops reading before its producers finish.
+     * For example: grep line | sed s/^/1/ | echo done
+     * Where stdin never reaches its end.
+     * Expected: Outputs done, interrupting sed and grep instead of waiting for the end of stdin, and does not
+     * report their interruption.
+     */
+    @Test
+    void testEvaluateStreamingPipeCommandWithLastStageStoppingEarlyShouldStopPrecedingStages() throws Exception {
+        RingBufferPipe stdin = new RingBufferPipe();
+        stdin.getOutputStream().write(("line 1" + STRING_NEWLINE).getBytes());
+        callCommands.add(new CallCommand(Arrays.asList(GREP_APP, "line"), new ApplicationRunner(), new ArgumentResolver()));
+        callCommands.add(new CallCommand(Arrays.asList(SED_APP, REGEX_EXPR_2), new ApplicationRunner(), new ArgumentResolver()));
+        callCommands.add(new CallCommand(Arrays.asList(ECHO_APP, "done"), new ApplicationRunner(), new ArgumentResolver()));
+        PipeCommand pipeCommand = new PipeCommand(callCommands, true);
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> pipeCommand.evaluate(stdin.getInputStream(), outputStream));
+        assertEquals("done" + STRING_NEWLINE, outputStream.toString());
+    }
+
+    /**
+     * Tests evaluate method in streaming mode when a stage that is stopped by the next stage fails for another reason.
+     * For example: lsa | grep
+     * Expected: Throws the ShellException of lsa even though grep fails without reading its input.
+     */
+    @Test
+    void testEvaluateStreamingPipeCommandWithStoppedStageFailingOnItsOwnShouldThrowItsException() {
+        callCommands.add(new CallCommand(Collections.singletonList(INVALID_APP), new ApplicationRunner(), new ArgumentResolver()));
+        callCommands.add(new CallCommand(Collections.singletonList(GREP_APP), new ApplicationRunner(), new ArgumentResolver()));
+        PipeCommand pipeCommand = new PipeCommand(callCommands, true);
+        ShellException exception = assertThrows(ShellException.class, () -> {
+            pipeCommand.evaluate(System.in, outputStream);
+        });
+        assertEquals(new ShellException("lsa: " + ERR_INVALID_APP).getMessage(), exception.getMessage());
+    }
+}
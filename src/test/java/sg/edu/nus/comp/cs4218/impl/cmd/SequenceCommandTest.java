@@ -18,6 +18,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_GENERAL;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_TERMINATED;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
 
 class SequenceCommandTest {
@@ -128,4 +129,79 @@ class SequenceCommandTest {
 
         assertEquals(expected, sequenceCommand.getCommands());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests evaluate method when the first command writes output and the second command fails.
+     * Expected: The output of the first command is already written to stdout when the second command starts,
+     * and the error message of the second command is written after it.
+     */
+    @Test
+    void testEvaluateWhenFirstCommandWritesOutputShouldWriteThroughBeforeNextCommand() throws AbstractApplicationException, ShellException {
+        Command mockCommand1 = mock(Command.class);
+        Command mockCommand2 = mock(Command.class);
+        spyCommandsList.add(mockCommand1);
+        spyCommandsList.add(mockCommand2);
+        sequenceCommand = new SequenceCommand(spyCommandsList);
+
+        doAnswer(invocation -> {
+            OutputStream stdout = invocation.getArgument(1);
+            stdout.write(("first" + STRING_NEWLINE).getBytes());
+            stdout.close();
+            return null;
+        }).when(mockCommand1).evaluate(any(), any());
+        doAnswer(invocation -> {
+            assertEquals("first" + STRING_NEWLINE, outputStream.toString());
+            throw new RmException(ERR_GENERAL);
+        }).when(mockCommand2).evaluate(any(), any());
+
+        sequenceCommand.evaluate(mock(InputStream.class), outputStream);
+
+        assertEquals("first" + STRING_NEWLINE + new RmException(ERR_GENERAL).getMessage() + STRING_NEWLINE, outputStream.toString());
+    }
+
+    /**
+     * Tests evaluate method when the sequence is terminated while a command runs.
+     * Expected: Throws ShellException and the next command is not run.
+     */
+    @Test
+    void testEvaluateWhenTerminatedShouldNotRunNextCommand() throws Exception {
+        Command firstCommand = mock(Command.class);
+        Command secondCommand = mock(Command.class);
+        spyCommandsList.add(firstCommand);
+        spyCommandsList.add(secondCommand);
+        sequenceCommand = new SequenceCommand(spyCommandsList);
+
+        doAnswer(invocation -> {
+            sequenceCommand.terminate();
+            throw new ShellException(ERR_TERMINATED);
+        }).when(firstCommand).evaluate(any(), any());
+
+        ShellException exception = assertThrows(ShellException.class,
+                () -> sequenceCommand.evaluate(mock(InputStream.class), outputStream));
+        assertEquals(new ShellException(ERR_TERMINATED).getMessage(), exception.getMessage());
+        verify(secondCommand).terminate();
+        verify(secondCommand, never()).evaluate(any(), any());
+        assertEquals("", outputStream.toString());
+    }
+
+    /**
+     * Tests evaluate method when a command closes the stream it writes to.
+     * Expected: stdout is never closed, so that the next command can still write to it.
+     */
+    @Test
+    void testEvaluateWhenCommandClosesOutputStreamShouldNotCloseStdout() throws Exception {
+        Command mockCommand = mock(Command.class);
+        spyCommandsList.add(mockCommand);
+        sequenceCommand = new SequenceCommand(spyCommandsList);
+        OutputStream mockStdout = mock(OutputStream.class);
+
+        doAnswer(invocation -> {
+            ((OutputStream) invocation.getArgument(1)).close();
+            return null;
+        }).when(mockCommand).evaluate(any(), any());
+
+        sequenceCommand.evaluate(mock(InputStream.class), mockStdout);
+
+        verify(mockStdout, never()).close();
+    }
+}
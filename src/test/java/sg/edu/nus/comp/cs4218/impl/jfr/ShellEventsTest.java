@@ -0,0 +1,134 @@
+package sg.edu.nus.comp.cs4218.impl.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sg.edu.nus.comp.cs4218.ShellContext;
+import sg.edu.nus.comp.cs4218.impl.ShellImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+class ShellEventsTest {
+    private static final String COMMAND_LINE = "grep a *.txt > out.log; echo abc | grep b";
+    private static final String FILE_CONTENT = "a" + STRING_NEWLINE;
+
+    @Test
+    void testParseAndEvaluateWhileRecordingShouldEmitShellEvents(@TempDir Path tempDir) throws Exception {
+        Path file = Files.write(tempDir.resolve("1.txt"), FILE_CONTENT.getBytes());
+        Path output = tempDir.resolve("out.log");
+        ShellImpl shell = new ShellImpl(new ShellContext(tempDir.toString()));
+        List<RecordedEvent> events = new ArrayList<>();
+
+        try (Recording recording = new Recording()) {
+            for (String name : new String[]{ParseEvent.NAME, ArgumentResolutionEvent.NAME, GlobEvent.NAME,
+                    AppRunEvent.NAME, PipelineStageEvent.NAME, FileOpenEvent.NAME, FileCloseEvent.NAME}) {
+                recording.enable(name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            shell.parseAndEvaluate(COMMAND_LINE, new ByteArrayInputStream(new byte[0]), new ByteArrayOutputStream());
+            recording.stop();
+            Path dump = tempDir.resolve("recording.jfr");
+            recording.dump(dump);
+            for (RecordedEvent event : RecordingFile.readAllEvents(dump)) {
+                if (event.getEventType().getName().startsWith("cs4218.")) {
+                    events.add(event);
+                }
+            }
+        }
+
+        RecordedEvent parse = single(events, ParseEvent.NAME);
+        assertEquals(COMMAND_LINE, parse.getString("commandLine"));
+
+        RecordedEvent glob = single(events, GlobEvent.NAME);
+        assertEquals("*.txt", glob.getString("pattern"));
+        assertEquals(1, glob.getInt("numOfMatches"));
+
+        List<String> resolutions = named(events, ArgumentResolutionEvent.NAME).stream()
+                .map(event -> event.getString("arguments")).collect(Collectors.toList());
+        assertTrue(resolutions.contains("grep a *.txt"), resolutions.toString());
+
+        List<RecordedEvent> appRuns = named(events, AppRunEvent.NAME);
+        assertEquals(3, appRuns.size());
+        RecordedEvent grepFile = appRuns.stream()
+                .filter(event -> "grep a 1.txt".equals(event.getString("command"))).findFirst().get();
+        assertEquals(FILE_CONTENT.length(), grepFile.getLong("bytesOut"));
+
+        List<RecordedEvent> stages = named(events, PipelineStageEvent.NAME);
+        assertEquals(2, stages.size());
+        RecordedEvent echoStage = stages.stream().filter(event -> event.getInt("stage") == 0).findFirst().get();
+        assertEquals("echo abc", echoStage.getString("command"));
+        assertEquals(("abc" + STRING_NEWLINE).length(), echoStage.getLong("bytesOut"));
+
+        RecordedEvent open = single(events, FileOpenEvent.NAME);
+        assertEquals(output.toString(), open.getString("path"));
+        assertEquals(FileOpenEvent.MODE_WRITE, open.getString("mode"));
+        RecordedEvent close = single(events, FileCloseEvent.NAME);
+        assertEquals(output.toString(), close.getString("path"));
+        assertEquals(FILE_CONTENT.length(), close.getLong("bytes"));
+        assertTrue(Files.exists(file));
+    }
+
+    @Test
+    void testParseAndEvaluateWithoutFlightRecorderShouldRunCommands(@TempDir Path tempDir) throws Exception {
+        URL classes = ShellEvents.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader loader = new RecorderHidingClassLoader(classes)) {
+            Class<?> contextClass = loader.loadClass(ShellContext.class.getName());
+            Class<?> shellClass = loader.loadClass(ShellImpl.class.getName());
+            Object shell = shellClass.getConstructor(contextClass)
+                    .newInstance(contextClass.getConstructor(String.class).newInstance(tempDir.toString()));
+            ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+            shellClass.getMethod("parseAndEvaluate", String.class, InputStream.class, OutputStream.class)
+                    .invoke(shell, "echo abc > a.txt; grep a *.txt | grep b", new ByteArrayInputStream(new byte[0]),
+                            stdout);
+
+            assertEquals("abc" + STRING_NEWLINE, stdout.toString());
+            assertThrows(ClassNotFoundException.class, () -> loader.loadClass("jdk.jfr.Event"));
+        }
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = named(events, name);
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+
+    /**
+     * Loads the classes of the shell itself, as a Java 8 runtime without Flight Recorder would,
+     * failing to load any class of jdk.jfr.
+     */
+    private static final class RecorderHidingClassLoader extends URLClassLoader {
+        private RecorderHidingClassLoader(URL classes) {
+            super(new URL[]{classes}, ClassLoader.getSystemClassLoader().getParent());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (name.startsWith("jdk.jfr.")) {
+                throw new ClassNotFoundException(name);
+            }
+            return super.loadClass(name, resolve);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package sg.edu.nus.comp.cs4218.impl.jmx;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sg.edu.nus.comp.cs4218.Application;
+import sg.edu.nus.comp.cs4218.ApplicationProvider;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.exception.WcException;
+import sg.edu.nus.comp.cs4218.impl.util.ApplicationRegistry;
+import sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShellStatisticsTest {
+    private static final String APP_COPY = "copy";
+    private static final String APP_FAIL = "fail";
+    private static final String INPUT = "hello world";
+
+    private ShellStatistics statistics;
+    private ApplicationRunner appRunner;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationRegistry registry = new ApplicationRegistry();
+        registry.register(new TestProvider(APP_COPY, (args, stdin, stdout) -> {
+            try {
+                byte[] bytes = new byte[INPUT.length()];
+                int numRead = stdin.read(bytes);
+                stdout.write(bytes, 0, numRead);
+                stdout.write(bytes, 0, numRead);
+            } catch (IOException e) {
+                throw new WcException(e.getMessage());
+            }
+        }));
+        registry.register(new TestProvider(APP_FAIL, (args, stdin, stdout) -> {
+            throw new WcException("failed");
+        }));
+        statistics = new ShellStatistics();
+        appRunner = new ApplicationRunner(registry);
+        appRunner.addInterceptor(statistics.createInterceptor(registry));
+    }
+
+    @Test
+    void testGetPercentileShouldBeWithinOneEighthOfRecordedValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(500_000, histogram.getPercentile(0.5), 500_000 / 8.0);
+        assertEquals(990_000, histogram.getPercentile(0.99), 990_000 / 8.0);
+        assertEquals(1_000_000, histogram.getPercentile(1));
+        histogram.reset();
+        assertEquals(0, histogram.getPercentile(0.5));
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    void testGetPercentileWithSmallValuesShouldBeExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(5);
+        histogram.record(7);
+
+        assertEquals(5, histogram.getPercentile(0.5));
+        assertEquals(7, histogram.getPercentile(0.99));
+    }
+
+    @Test
+    void testInterceptorShouldCountInvocationsBytesAndErrors() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            appRunner.runApp(APP_COPY, new String[0], new ByteArrayInputStream(INPUT.getBytes()),
+                    new ByteArrayOutputStream());
+        }
+        assertThrows(WcException.class, () ->
+                appRunner.runApp(APP_FAIL, new String[0], System.in, new ByteArrayOutputStream()));
+        assertThrows(ShellException.class, () ->
+                appRunner.runApp("invalid", new String[0], System.in, new ByteArrayOutputStream()));
+
+        Map<String, ApplicationStatistics> applications = statistics.getApplications();
+        assertEquals(2, applications.size());
+        ApplicationStatistics copy = applications.get(APP_COPY);
+        assertEquals(3, copy.getInvocations());
+        assertEquals(0, copy.getErrors());
+        assertEquals(3L * INPUT.length(), copy.getBytesRead());
+        assertEquals(6L * INPUT.length(), copy.getBytesWritten());
+        assertTrue(copy.getLatencyP50Nanos() > 0);
+        assertTrue(copy.getLatencyP50Nanos() <= copy.getLatencyP99Nanos());
+        assertTrue(copy.getLatencyP99Nanos() <= copy.getLatencyMaxNanos());
+        ApplicationStatistics fail = applications.get(APP_FAIL);
+        assertEquals(1, fail.getInvocations());
+        assertEquals(1, fail.getErrors());
+
+        statistics.reset();
+        assertTrue(statistics.getApplications().isEmpty());
+    }
+
+    @Test
+    void testPipelinesAndJobsShouldBeCountedWhileActive() {
+        statistics.startPipeline(3);
+        statistics.startPipeline(2);
+        statistics.startJob();
+
+        assertEquals(2, statistics.getActivePipelines());
+        assertEquals(5, statistics.getActivePipelineStages());
+        assertEquals(3, statistics.getMaxPipelineDepth());
+        assertEquals(1, statistics.getActiveJobs());
+
+        statistics.finishPipeline(3);
+        statistics.finishPipeline(2);
+        statistics.finishJob();
+
+        assertEquals(0, statistics.getActivePipelines());
+        assertEquals(0, statistics.getActivePipelineStages());
+        assertEquals(3, statistics.getMaxPipelineDepth());
+        assertEquals(0, statistics.getActiveJobs());
+    }
+
+    @Test
+    void testRegisterShouldExposeAttributesOnPlatformServer() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(ShellStatistics.OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+        try {
+            assertTrue(statistics.register());
+            assertFalse(new ShellStatistics().register());
+            appRunner.runApp(APP_COPY, new String[0], new ByteArrayInputStream(INPUT.getBytes()),
+                    new ByteArrayOutputStream());
+            statistics.startPipeline(4);
+
+            assertEquals(4L, server.getAttribute(name, "MaxPipelineDepth"));
+            TabularData applications = (TabularData) server.getAttribute(name, "Applications");
+            CompositeData copy = (CompositeData) applications.get(new Object[]{APP_COPY}).get("value");
+            assertEquals(1L, copy.get("invocations"));
+            assertEquals((long) INPUT.length(), copy.get("bytesRead"));
+
+            server.invoke(name, "reset", new Object[0], new String[0]);
+            assertTrue(statistics.getApplications().isEmpty());
+        } finally {
+            statistics.finishPipeline(4);
+            server.unregisterMBean(name);
+        }
+    }
+
+    private static final class TestProvider implements ApplicationProvider {
+        private final String name;
+        private final Application application;
+
+        private TestProvider(String name, Application application) {
+            this.name = name;
+            this.application = application;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Application createApplication() {
+            return application;
+        }
+
+        @Override
+        public boolean isStateless() {
+            return true;
+        }
+    }
+}
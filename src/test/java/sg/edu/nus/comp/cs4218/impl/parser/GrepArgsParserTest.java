@@ -2,6 +2,7 @@ package sg.edu.nus.comp.cs4218.impl.parser;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
 
 import java.util.Arrays;
 
@@ -10,6 +11,7 @@ import static org.junit.jupiter.api.Assertions.*;
 class GrepArgsParserTest {
     private GrepArgsParser grepArgsParser;
     private static final char FLAG_IS_INVERT = 'v';
+    private static final char FLAG_IS_RECURSIVE = 'r';
     private static final String VALID_NON_FLAG_1 = "hello";
     private static final String VALID_NON_FLAG_2 = "hello2";
 
@@ -23,6 +25,51 @@ class GrepArgsParserTest {
         grepArgsParser.flags.add(FLAG_IS_INVERT);
         assertTrue(grepArgsParser.isInvert());
     }
+
+    @Test
+    void testIsRecursiveWhenFlagsContainRFlagShouldReturnTrue() throws Exception {
+        grepArgsParser.parse("-r", VALID_NON_FLAG_1);
+        assertTrue(grepArgsParser.isRecursive());
+        assertFalse(grepArgsParser.isInvert());
+    }
+
+    @Test
+    void testParseWhenFlagsContainFlqShouldReturnTrue() throws Exception {
+        grepArgsParser.parse("-F", "-lq", VALID_NON_FLAG_1);
+        assertTrue(grepArgsParser.isFixedString());
+        assertTrue(grepArgsParser.isListFiles());
+        assertTrue(grepArgsParser.isQuiet());
+        assertFalse(grepArgsParser.isRecursive());
+        assertEquals(Integer.MAX_VALUE, grepArgsParser.getMaxCount());
+    }
+
+    @Test
+    void testParseWhenMaxCountIsNextArgumentShouldReturnIt() throws Exception {
+        grepArgsParser.parse("-m", "3", VALID_NON_FLAG_1, VALID_NON_FLAG_2);
+        assertEquals(3, grepArgsParser.getMaxCount());
+        assertArrayEquals(new String[]{VALID_NON_FLAG_2}, grepArgsParser.getFileNames());
+    }
+
+    @Test
+    void testParseWhenMaxCountFollowsOtherFlagsShouldReturnItAndTheFlags() throws Exception {
+        grepArgsParser.parse("-lm0", VALID_NON_FLAG_1);
+        assertEquals(0, grepArgsParser.getMaxCount());
+        assertTrue(grepArgsParser.isListFiles());
+        assertNull(grepArgsParser.getFileNames());
+    }
+
+    @Test
+    void testParseWhenMaxCountIsMissingOrInvalidShouldThrow() {
+        assertThrows(InvalidArgsException.class, () -> new GrepArgsParser().parse("-m"));
+        assertThrows(InvalidArgsException.class, () -> new GrepArgsParser().parse("-m", "x", VALID_NON_FLAG_1));
+        assertThrows(InvalidArgsException.class, () -> new GrepArgsParser().parse("-m-1", VALID_NON_FLAG_1));
+    }
+
+    @Test
+    void testParseWhenFlagIsIllegalShouldThrow() {
+        assertThrows(InvalidArgsException.class, () -> grepArgsParser.parse("-x", VALID_NON_FLAG_1));
+    }
+
     @Test
     void testGetFileNamesWhenNonFlagArgsIsEmptyShouldReturnNull() {
         assertTrue(grepArgsParser.nonFlagArgs.isEmpty());
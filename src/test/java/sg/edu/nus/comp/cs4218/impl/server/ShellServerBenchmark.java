@@ -0,0 +1,94 @@
+package sg.edu.nus.comp.cs4218.impl.server;
+
+import sg.edu.nus.comp.cs4218.impl.ShellImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares the latency of running a command line in a new JVM with running it on a warm
+ * ShellServer, from a new client JVM, from scripts/shell-client.sh, which starts no JVM, and from
+ * a client in this JVM.
+ * <p>
+ * Run from the project directory after mvn test-compile with:
+ * java -cp target/classes:target/test-classes sg.edu.nus.comp.cs4218.impl.server.ShellServerBenchmark
+ */
+public final class ShellServerBenchmark {
+    private static final String COMMAND_LINE = "echo hello world | grep hello";
+    private static final String CLIENT_SCRIPT = "scripts" + File.separator + "shell-client.sh";
+    private static final int PROCESS_RUNS = 20;
+    private static final int WARMUP_RUNS = 500;
+    private static final int IN_PROCESS_RUNS = 2000;
+    private static final int BUFFER_SIZE = 8192;
+
+    private ShellServerBenchmark() {
+    }
+
+    public static void main(String... args) throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        String classPath = System.getProperty("java.class.path");
+        String directory = System.getProperty("user.dir");
+
+        try (ShellServer server = new ShellServer(0, ShellServer.DEFAULT_MAX_SESSIONS).start()) {
+            String port = String.valueOf(server.getPort());
+            List<Long> cold = new ArrayList<>();
+            List<Long> client = new ArrayList<>();
+            List<Long> script = new ArrayList<>();
+            for (int i = 0; i < PROCESS_RUNS; i++) {
+                cold.add(runProcess(java, "-cp", classPath, ShellImpl.class.getName(),
+                        ShellImpl.OPTION_COMMAND, COMMAND_LINE));
+                client.add(runProcess(java, "-cp", classPath, ShellClient.class.getName(),
+                        ShellServer.OPTION_PORT, port, ShellImpl.OPTION_COMMAND, COMMAND_LINE));
+                script.add(runProcess("bash", CLIENT_SCRIPT, ShellServer.OPTION_PORT, port,
+                        ShellImpl.OPTION_COMMAND, COMMAND_LINE));
+            }
+
+            List<Long> warm = new ArrayList<>();
+            for (int i = 0; i < WARMUP_RUNS + IN_PROCESS_RUNS; i++) {
+                long start = System.nanoTime();
+                ShellClient.run(server.getPort(), server.getToken(), directory, COMMAND_LINE, null,
+                        new ByteArrayOutputStream(), new ByteArrayOutputStream());
+                if (i >= WARMUP_RUNS) {
+                    warm.add(System.nanoTime() - start);
+                }
+            }
+
+            System.out.printf("%-28s %10s %10s %10s%n", "", "p50 (ms)", "p99 (ms)", "max (ms)");
+            print("cold JVM", cold);
+            print("client JVM + warm server", client);
+            print("client script + warm server", script);
+            print("in-process client", warm);
+        }
+    }
+
+    private static long runProcess(String... command) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(Arrays.asList(command)).redirectErrorStream(true).start();
+        process.getOutputStream().close();
+        try (InputStream output = process.getInputStream()) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (output.read(buffer) != -1) {
+                // discard the output
+            }
+        }
+        process.waitFor();
+        return System.nanoTime() - start;
+    }
+
+    private static void print(String name, List<Long> latencies) {
+        Collections.sort(latencies);
+        System.out.printf("%-28s %10.2f %10.2f %10.2f%n", name, percentile(latencies, 50),
+                percentile(latencies, 99), latencies.get(latencies.size() - 1) / 1e6);
+    }
+
+    private static double percentile(List<Long> sortedLatencies, int percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sortedLatencies.size()) - 1;
+        return sortedLatencies.get(Math.max(index, 0)) / 1e6;
+    }
+}
@@ -0,0 +1,137 @@
+package sg.edu.nus.comp.cs4218.impl.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sg.edu.nus.comp.cs4218.EnvironmentHelper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sg.edu.nus.comp.cs4218.impl.ShellImpl.EXIT_FAILURE;
+import static sg.edu.nus.comp.cs4218.impl.ShellImpl.EXIT_SUCCESS;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+class ShellServerTest {
+    private static final int TIMEOUT_SECONDS = 10;
+    private static final String TOKEN_FILE = ".shell.token";
+
+    @TempDir
+    Path tokenDirectory;
+
+    private ShellServer server;
+    private ByteArrayOutputStream stdout;
+    private ByteArrayOutputStream stderr;
+    private String serverDirectory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverDirectory = EnvironmentHelper.currentDirectory;
+        server = new ShellServer(0, 1, tokenDirectory.resolve(TOKEN_FILE)).start();
+        stdout = new ByteArrayOutputStream();
+        stderr = new ByteArrayOutputStream();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    private int run(String directory, String commandLine, InputStream stdin) throws IOException {
+        return ShellClient.run(server.getPort(), server.getToken(), directory, commandLine, stdin, stdout, stderr);
+    }
+
+    @Test
+    void testRunShouldReturnOutputAndExitStatus() throws IOException {
+        assertEquals(EXIT_SUCCESS, run(serverDirectory, "echo hello | grep hell", null));
+        assertEquals("hello" + STRING_NEWLINE, stdout.toString());
+    }
+
+    @Test
+    void testRunWithStdinShouldStreamStdinIntoFirstCommand() throws IOException {
+        InputStream stdin = new ByteArrayInputStream(("abc" + STRING_NEWLINE + "def" + STRING_NEWLINE).getBytes());
+        assertEquals(EXIT_SUCCESS, run(serverDirectory, "grep e", stdin));
+        assertEquals("def" + STRING_NEWLINE, stdout.toString());
+    }
+
+    @Test
+    void testRunWhenCommandFailsShouldWriteErrorToStderrAndReturnFailure() throws IOException {
+        assertEquals(EXIT_FAILURE, run(serverDirectory, "echo a" + STRING_NEWLINE + "invalidapp", null));
+        assertEquals("a" + STRING_NEWLINE, stdout.toString());
+        assertTrue(stderr.toString().contains("invalidapp"));
+    }
+
+    @Test
+    void testRunInDifferentDirectoriesShouldUseDirectoryOfSession(@TempDir Path tempDir) throws IOException {
+        Path first = Files.createDirectory(tempDir.resolve("first"));
+        Path second = Files.createDirectory(tempDir.resolve("second"));
+        Files.createFile(first.resolve("a.txt"));
+        Files.createFile(second.resolve("b.txt"));
+
+        run(first.toString(), "ls", null);
+        run(second.toString(), "cd ..; ls", null);
+        assertEquals("a.txt" + STRING_NEWLINE + "first" + STRING_NEWLINE + "second" + STRING_NEWLINE,
+                stdout.toString());
+        assertEquals(serverDirectory, EnvironmentHelper.currentDirectory);
+    }
+
+    @Test
+    void testRunWhenSessionLimitReachedShouldWaitForRunningSession() throws Exception {
+        PipedOutputStream stdinWriter = new PipedOutputStream();
+        PipedInputStream stdin = new PipedInputStream(stdinWriter);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(() -> ShellClient.run(server.getPort(), server.getToken(),
+                    serverDirectory, "grep a", stdin, new ByteArrayOutputStream(), new ByteArrayOutputStream()));
+            stdinWriter.write(("a" + STRING_NEWLINE).getBytes());
+            stdinWriter.flush();
+            Thread.sleep(200);
+            Future<Integer> second = executor.submit(() -> run(serverDirectory, "echo second", null));
+
+            assertThrows(TimeoutException.class, () -> second.get(500, TimeUnit.MILLISECONDS));
+            stdinWriter.close();
+            assertEquals(EXIT_SUCCESS, first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertEquals(EXIT_SUCCESS, second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertEquals("second" + STRING_NEWLINE, stdout.toString());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testStartShouldWriteTokenFileReadableByOwnerOnly() throws IOException {
+        Path tokenFile = tokenDirectory.resolve(TOKEN_FILE);
+        assertEquals(server.getToken(), new String(Files.readAllBytes(tokenFile), StandardCharsets.UTF_8));
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(tokenFile)));
+        }
+
+        server.close();
+        assertFalse(Files.exists(tokenFile));
+    }
+
+    @Test
+    void testRunWithWrongTokenShouldRejectSessionWithoutRunningCommand(@TempDir Path tempDir) throws IOException {
+        String commandLine = "echo hello > " + tempDir.resolve("a.txt");
+        assertEquals(EXIT_FAILURE, ShellClient.run(server.getPort(), "wrong", serverDirectory, commandLine, null,
+                stdout, stderr));
+        assertEquals("", stdout.toString());
+        assertTrue(stderr.toString().contains("Invalid token"));
+        assertFalse(Files.exists(tempDir.resolve("a.txt")));
+    }
+
+    @Test
+    void testRunInNonExistentDirectoryShouldRejectSession(@TempDir Path tempDir) throws IOException {
+        String directory = tempDir.resolve("missing").toString();
+        assertEquals(EXIT_FAILURE, run(directory, "echo hello", null));
+        assertEquals("", stdout.toString());
+        assertTrue(stderr.toString().contains(directory + ": No such directory"));
+    }
+}
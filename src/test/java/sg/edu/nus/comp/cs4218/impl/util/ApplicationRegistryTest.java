@@ -0,0 +1,131 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sg.edu.nus.comp.cs4218.Application;
+import sg.edu.nus.comp.cs4218.ApplicationProvider;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.impl.app.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner.*;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_APP;
+
+class ApplicationRegistryTest {
+    private static final String APP_NAME = "app";
+    private static final String ECHO_CLASS = EchoApplication.class.getName();
+
+    private ApplicationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ApplicationRegistry();
+    }
+
+    @Test
+    void testGetApplicationWhenStatelessShouldReuseInstance() throws ShellException {
+        registry.register(APP_NAME, ECHO_CLASS, true);
+        Application application = registry.getApplication(APP_NAME);
+        assertTrue(application instanceof EchoApplication);
+        assertSame(application, registry.getApplication(APP_NAME));
+    }
+
+    @Test
+    void testGetApplicationWhenNotStatelessShouldCreateNewInstances() throws ShellException {
+        registry.register(APP_NAME, ECHO_CLASS, false);
+        assertNotSame(registry.getApplication(APP_NAME), registry.getApplication(APP_NAME));
+    }
+
+    @Test
+    void testGetApplicationWhenNotRegisteredShouldReturnNull() throws ShellException {
+        assertNull(registry.getApplication(APP_NAME));
+    }
+
+    @Test
+    void testGetApplicationWhenClassCannotBeLoadedShouldThrowShellException() {
+        registry.register(APP_NAME, "sg.edu.nus.comp.cs4218.impl.app.MissingApplication", true);
+        assertThrows(ShellException.class, () -> registry.getApplication(APP_NAME));
+        registry.register(APP_ECHO, String.class.getName(), true);
+        assertThrows(ShellException.class, () -> registry.getApplication(APP_ECHO));
+    }
+
+    @Test
+    void testRegisterWhenNameTakenShouldKeepExistingApplication() throws ShellException {
+        assertTrue(registry.register(APP_NAME, ECHO_CLASS, true));
+        assertFalse(registry.register(APP_NAME, WcApplication.class.getName(), true));
+        assertTrue(registry.getApplication(APP_NAME) instanceof EchoApplication);
+    }
+
+    @Test
+    void testRegisterAllShouldRegisterEveryProvider() throws ShellException {
+        Application application = (args, stdin, stdout) -> { };
+        ApplicationProvider provider = new ApplicationProvider() {
+            @Override
+            public String getName() {
+                return APP_NAME;
+            }
+
+            @Override
+            public Application createApplication() {
+                return application;
+            }
+        };
+        registry.registerAll(Collections.singletonList(provider));
+
+        assertTrue(registry.isRegistered(APP_NAME));
+        assertSame(application, registry.getApplication(APP_NAME));
+    }
+
+    @Test
+    void testCreateDefaultRegistryShouldMapEveryBuiltInApplication() throws ShellException {
+        Map<String, Class<?>> expected = new LinkedHashMap<>();
+        expected.put(APP_LS, LsApplication.class);
+        expected.put(APP_FIND, FindApplication.class);
+        expected.put(APP_WC, WcApplication.class);
+        expected.put(APP_ECHO, EchoApplication.class);
+        expected.put(APP_EXIT, ExitApplication.class);
+        expected.put(APP_GREP, GrepApplication.class);
+        expected.put(APP_SORT, SortApplication.class);
+        expected.put(APP_CD, CdApplication.class);
+        expected.put("cp", CpApplication.class);
+        expected.put(APP_SED, SedApplication.class);
+        expected.put(APP_RM, RmApplication.class);
+        expected.put(APP_CUT, CutApplication.class);
+        expected.put(APP_MV, MvApplication.class);
+        expected.put(APP_DIFF, DiffApplication.class);
+        expected.put(APP_PASTE, PasteApplication.class);
+        expected.put(APP_JOBS, JobsApplication.class);
+        expected.put(APP_WAIT, WaitApplication.class);
+        expected.put(APP_TIMEOUT, TimeoutApplication.class);
+        expected.put(APP_PROFILE, ProfileApplication.class);
+        expected.put(APP_TIME, TimeApplication.class);
+
+        ApplicationRegistry defaultRegistry = createDefaultRegistry();
+        for (Map.Entry<String, Class<?>> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), defaultRegistry.getApplication(entry.getKey()).getClass());
+        }
+        assertTrue(defaultRegistry.getNames().containsAll(expected.keySet()));
+    }
+
+    @Test
+    void testRunAppWhenNotRegisteredShouldThrowShellException() {
+        ApplicationRunner appRunner = new ApplicationRunner(registry);
+        ShellException exception = assertThrows(ShellException.class, () -> appRunner.runApp(APP_ECHO,
+                new String[0], System.in, new ByteArrayOutputStream()));
+        assertEquals("shell: " + APP_ECHO + ": " + ERR_INVALID_APP, exception.getMessage());
+    }
+
+    @Test
+    void testGetNamesShouldReturnSortedNames() {
+        registry.register(APP_WC, WcApplication.class.getName(), true);
+        registry.register(APP_ECHO, ECHO_CLASS, true);
+        assertEquals(Arrays.asList(APP_ECHO, APP_WC), new ArrayList<>(registry.getNames()));
+    }
+}
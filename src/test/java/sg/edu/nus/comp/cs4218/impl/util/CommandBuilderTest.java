@@ -2,13 +2,17 @@ package sg.edu.nus.comp.cs4218.impl.util;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import sg.edu.nus.comp.cs4218.Command;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.impl.cmd.BackgroundCommand;
+import sg.edu.nus.comp.cs4218.impl.cmd.CallCommand;
+import sg.edu.nus.comp.cs4218.impl.cmd.PipeCommand;
+import sg.edu.nus.comp.cs4218.impl.cmd.SequenceCommand;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 import static sg.edu.nus.comp.cs4218.impl.util.CommandBuilder.parseCommand;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_SYNTAX;
@@ -57,4 +61,61 @@ public class CommandBuilderTest {
                 () -> parseCommand("; echo \"Hello'", appRunner));
         assertEquals(thrown.getMessage(), "shell: " + ERR_SYNTAX);
     }
+
+    @Test
+    void testParseCommandWithPipeFollowedBySemicolonShouldKeepCallCommandsSeparate() throws ShellException {
+        Command command = parseCommand("echo a | grep a ; echo b", appRunner);
+
+        SequenceCommand sequenceCommand = (SequenceCommand) command;
+        PipeCommand pipeCommand = (PipeCommand) sequenceCommand.getCommands().get(0);
+        CallCommand lastCommand = (CallCommand) sequenceCommand.getCommands().get(1);
+        assertEquals("[echo, a]", pipeCommand.getCallCommands().get(0).getArgsList().toString());
+        assertEquals("[grep, a]", pipeCommand.getCallCommands().get(1).getArgsList().toString());
+        assertEquals("[echo, b]", lastCommand.getArgsList().toString());
+    }
+
+    @Test
+    void testParseCommandWithAmpersandShouldRunPrecedingPipelineInBackground() throws ShellException {
+        Command command = parseCommand("find . -name a | grep a & echo b", appRunner);
+
+        SequenceCommand sequenceCommand = (SequenceCommand) command;
+        BackgroundCommand backgroundCommand = (BackgroundCommand) sequenceCommand.getCommands().get(0);
+        assertEquals("find . -name a | grep a", backgroundCommand.getCommandLine());
+        assertTrue(backgroundCommand.getCommand() instanceof PipeCommand);
+        assertEquals("[echo, b]", ((CallCommand) sequenceCommand.getCommands().get(1)).getArgsList().toString());
+    }
+
+    @Test
+    void testParseCommandWithAmpersandAtTheEndShouldReturnBackgroundCommand() throws ShellException {
+        Command command = parseCommand("echo a > out.txt &", appRunner);
+
+        BackgroundCommand backgroundCommand = (BackgroundCommand) command;
+        assertEquals("echo a > out.txt", backgroundCommand.getCommandLine());
+        assertEquals("[echo, a, >, out.txt]", ((CallCommand) backgroundCommand.getCommand()).getArgsList().toString());
+    }
+
+    @Test
+    void testParseCommandWithMisplacedAmpersandShouldThrowShellException() {
+        String[] commandStrings = {"& echo a", "echo a && echo b", "echo a & ; echo b", "echo a | & echo b"};
+        for (String commandString : commandStrings) {
+            Throwable thrown = assertThrows(ShellException.class, () -> parseCommand(commandString, appRunner));
+            assertEquals("shell: " + ERR_SYNTAX, thrown.getMessage());
+        }
+    }
+
+    @Test
+    void testParseCommandWithSameCommandStringTwiceShouldReuseTemplateAndReturnFreshCommands() throws ShellException {
+        String commandString = "echo cached | grep cached";
+        CommandBuilder.parseTemplate(commandString);
+        long hitsBefore = CommandBuilder.getCommandCache().getHitCount();
+
+        Command command1 = parseCommand(commandString, appRunner);
+        Command command2 = parseCommand(commandString, appRunner);
+
+        assertEquals(hitsBefore + 2, CommandBuilder.getCommandCache().getHitCount());
+        assertSame(CommandBuilder.parseTemplate(commandString), CommandBuilder.parseTemplate(commandString));
+        assertNotSame(command1, command2);
+        assertNotSame(((PipeCommand) command1).getCallCommands().get(0).getArgsList(),
+                ((PipeCommand) command2).getCallCommands().get(0).getArgsList());
+    }
 }
@@ -0,0 +1,93 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandCacheTest {
+    private static final String COMMAND_1 = "echo 1";
+    private static final String COMMAND_2 = "echo 2";
+    private static final String COMMAND_3 = "echo 3";
+
+    private CommandTemplate makeTemplate(String... tokens) {
+        List<List<String>> pipeline = Collections.singletonList(Arrays.asList(tokens));
+        return new CommandTemplate(Collections.singletonList(pipeline));
+    }
+
+    @Test
+    void testGetWithCachedCommandShouldReturnTemplateAndCountHit() {
+        CommandCache cache = new CommandCache(2);
+        CommandTemplate template = makeTemplate("echo", "1");
+        cache.put(COMMAND_1, template);
+
+        assertSame(template, cache.get(COMMAND_1));
+        assertNull(cache.get(COMMAND_2));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void testPutWhenCacheIsFullShouldEvictLeastRecentlyUsedTemplate() {
+        CommandCache cache = new CommandCache(2);
+        cache.put(COMMAND_1, makeTemplate("echo", "1"));
+        cache.put(COMMAND_2, makeTemplate("echo", "2"));
+        cache.get(COMMAND_1);
+        cache.put(COMMAND_3, makeTemplate("echo", "3"));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(COMMAND_1));
+        assertNull(cache.get(COMMAND_2));
+        assertNotNull(cache.get(COMMAND_3));
+    }
+
+    @Test
+    void testPutWhenMaxSizeIsZeroShouldNotCacheTemplate() {
+        CommandCache cache = new CommandCache(0);
+        cache.put(COMMAND_1, makeTemplate("echo", "1"));
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get(COMMAND_1));
+    }
+
+    @Test
+    void testSetMaxSizeSmallerThanSizeShouldEvictLeastRecentlyUsedTemplates() {
+        CommandCache cache = new CommandCache(3);
+        cache.put(COMMAND_1, makeTemplate("echo", "1"));
+        cache.put(COMMAND_2, makeTemplate("echo", "2"));
+        cache.put(COMMAND_3, makeTemplate("echo", "3"));
+        cache.setMaxSize(1);
+
+        assertEquals(1, cache.getMaxSize());
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get(COMMAND_3));
+    }
+
+    @Test
+    void testSetMaxSizeWithNegativeSizeShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new CommandCache(-1));
+    }
+
+    @Test
+    void testClearShouldRemoveTemplatesAndResetCounters() {
+        CommandCache cache = new CommandCache(2);
+        cache.put(COMMAND_1, makeTemplate("echo", "1"));
+        cache.get(COMMAND_1);
+        cache.get(COMMAND_2);
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    void testTemplateListsShouldBeImmutable() {
+        CommandTemplate template = makeTemplate("echo", "1");
+
+        assertThrows(UnsupportedOperationException.class, () -> template.getPipelines().get(0).get(0).add("2"));
+    }
+}
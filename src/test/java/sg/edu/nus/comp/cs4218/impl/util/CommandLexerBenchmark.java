@@ -0,0 +1,75 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares CommandLexer with the regular expression based tokenizer on 10 KB command lines.
+ * <p>
+ * Run after mvn test-compile with:
+ * java -cp target/classes:target/test-classes sg.edu.nus.comp.cs4218.impl.util.CommandLexerBenchmark
+ */
+public final class CommandLexerBenchmark {
+    private static final int LINE_LENGTH = 10 * 1024;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 1000;
+
+    private CommandLexerBenchmark() {
+    }
+
+    public static void main(String... args) throws ShellException {
+        Map<String, String> commandLines = new LinkedHashMap<>();
+        commandLines.put("words", repeat("echo abc def.txt ghi*.java "));
+        commandLines.put("quotes", repeat("echo 'a b' \"c d\" `echo e` "));
+        commandLines.put("operators", repeat("cat < a.txt | grep b > c.txt ; echo d "));
+        commandLines.put("nested", repeat("echo \"a `echo \"b\"` c\" "));
+        commandLines.put("long argument", "echo " + repeat("a'b'\"c\"`d`"));
+
+        System.out.printf("%-14s %14s %14s%n", "command line", "lexer (us/op)", "regex (us/op)");
+        for (Map.Entry<String, String> entry : commandLines.entrySet()) {
+            double lexerTime = measure(() -> CommandLexer.tokenize(entry.getValue()));
+            String regexTime;
+            try {
+                regexTime = String.format("%14.1f", measure(() -> RegexCommandTokenizer.tokenize(entry.getValue())));
+            } catch (StackOverflowError e) {
+                regexTime = String.format("%14s", "stack overflow");
+            }
+            System.out.printf("%-14s %14.1f %s%n", entry.getKey(), lexerTime, regexTime);
+        }
+    }
+
+    private static String repeat(String part) {
+        StringBuilder builder = new StringBuilder(LINE_LENGTH + part.length());
+        while (builder.length() < LINE_LENGTH) {
+            builder.append(part);
+        }
+        return builder.toString().trim();
+    }
+
+    /**
+     * Returns the average time per run in microseconds.
+     */
+    private static double measure(Tokenizer tokenizer) throws ShellException {
+        int tokens = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            tokens += tokenizer.run().size();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            tokens += tokenizer.run().size();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (tokens < 0) {
+            throw new IllegalStateException();
+        }
+        return elapsed / 1000.0 / MEASURED_ROUNDS;
+    }
+
+    @FunctionalInterface
+    private interface Tokenizer {
+        List<String> run() throws ShellException;
+    }
+}
@@ -0,0 +1,92 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import org.junit.jupiter.api.Test;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_SYNTAX;
+
+class CommandLexerTest {
+    private static final String SHELL_EXCEPTION = "shell: ";
+    private static final char[] ALPHABET = {'a', 'b', ' ', ' ', '\t', '\'', '"', '"', '`', '`',
+            '|', '<', '>', ';', '*', '-', '\r', '\u2028', '\u0001'};
+    private static final int RANDOM_COMMANDS = 200_000;
+
+    @Test
+    void testTokenizeWithArgumentsAndOperatorsShouldReturnOperatorsAsSeparateTokens() throws ShellException {
+        List<String> expected = Arrays.asList("paste", "<", "a.txt", "|", "grep", "\"a b\"", ";",
+                "echo", "'x'y`echo z`", ">", "out.txt");
+        assertEquals(expected, CommandLexer.tokenize(
+                "  paste<a.txt|grep \"a b\" ;echo 'x'y`echo z` > out.txt  "));
+    }
+
+    @Test
+    void testTokenizeWithBackQuoteInDoubleQuoteShouldReturnSingleToken() throws ShellException {
+        assertEquals(Arrays.asList("echo", "\"a `echo \"b\"` c\""),
+                CommandLexer.tokenize("echo \"a `echo \"b\"` c\""));
+    }
+
+    @Test
+    void testTokenizeWithAmpersandShouldReturnOperatorEvenAtTheEnd() throws ShellException {
+        assertEquals(Arrays.asList("find", ".", "&", "echo", "'a&b'", "&"),
+                CommandLexer.tokenize("find .&echo 'a&b' &  "));
+    }
+
+    @Test
+    void testTokenizeWithInvalidSyntaxShouldThrowShellException() {
+        String[] commandStrings = {"echo 'a", "echo \"a", "echo `a", "echo a ;", "echo a |", "<", "echo a'b"};
+        for (String commandString : commandStrings) {
+            ShellException exception = assertThrows(ShellException.class,
+                    () -> CommandLexer.tokenize(commandString), commandString);
+            assertEquals(SHELL_EXCEPTION + ERR_SYNTAX, exception.getMessage());
+        }
+    }
+
+    @Test
+    void testTokenizeWithVeryLongArgumentShouldNotBacktrack() throws ShellException {
+        StringBuilder builder = new StringBuilder("echo ");
+        for (int i = 0; i < 100_000; i++) {
+            builder.append("a'b'\"`c`\"");
+        }
+        List<String> tokens = CommandLexer.tokenize(builder.toString());
+        assertEquals(2, tokens.size());
+        assertEquals(builder.length() - 5, tokens.get(1).length());
+    }
+
+    @Test
+    void testTokenizeWithRandomCommandsShouldMatchRegexTokenizer() {
+        Random random = new Random(4218);
+        for (int i = 0; i < RANDOM_COMMANDS; i++) {
+            char[] chars = new char[1 + random.nextInt(24)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = ALPHABET[random.nextInt(ALPHABET.length)];
+            }
+            assertSameTokens(new String(chars));
+        }
+    }
+
+    @Test
+    void testTokenizeWithNestedBackQuoteEdgeCasesShouldMatchRegexTokenizer() {
+        String[] commandStrings = {"\"`a``b`\"c`d`\"", "\"a`\"`b\"", "\"`\"`\"`\"", "\"`a`\"`\"",
+                "\"``\"``\"", "\"`a\r`\"", "\"`a`\r\"", "\"` `\"`\"", "\"`\"\"`b`\"", "x\"`\"`\"`'"};
+        for (String commandString : commandStrings) {
+            assertSameTokens(commandString);
+        }
+    }
+
+    private static void assertSameTokens(String commandString) {
+        List<String> expected;
+        try {
+            expected = RegexCommandTokenizer.tokenize(commandString);
+        } catch (ShellException e) {
+            assertThrows(ShellException.class, () -> CommandLexer.tokenize(commandString), commandString);
+            return;
+        }
+        assertDoesNotThrow(() -> assertEquals(expected, CommandLexer.tokenize(commandString), commandString),
+                commandString);
+    }
+}
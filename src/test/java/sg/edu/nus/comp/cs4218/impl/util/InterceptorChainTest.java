@@ -0,0 +1,252 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sg.edu.nus.comp.cs4218.Application;
+import sg.edu.nus.comp.cs4218.ApplicationProvider;
+import sg.edu.nus.comp.cs4218.CommandInterceptor;
+import sg.edu.nus.comp.cs4218.CommandInvocation;
+import sg.edu.nus.comp.cs4218.ShellContext;
+import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.exception.TimeoutException;
+import sg.edu.nus.comp.cs4218.exception.WcException;
+import sg.edu.nus.comp.cs4218.impl.ShellImpl;
+import sg.edu.nus.comp.cs4218.impl.app.TimeApplication;
+import sg.edu.nus.comp.cs4218.impl.app.TimeoutApplication;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+class InterceptorChainTest {
+    private static final String APP_UPPER = "upper";
+    private static final String APP_FAIL = "fail";
+    private static final String INPUT = "hello world";
+
+    private final AtomicInteger numOfRuns = new AtomicInteger();
+    private ApplicationRunner appRunner;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationRegistry registry = new ApplicationRegistry();
+        registry.register(new TestProvider(APP_UPPER, (args, stdin, stdout) -> {
+            numOfRuns.incrementAndGet();
+            try {
+                byte[] bytes = new byte[INPUT.length()];
+                int numRead = stdin.read(bytes);
+                stdout.write(new String(bytes, 0, numRead).toUpperCase().getBytes());
+            } catch (IOException e) {
+                throw new WcException(e.getMessage());
+            }
+        }));
+        registry.register(new TestProvider(APP_FAIL, (args, stdin, stdout) -> {
+            throw new WcException("failed");
+        }));
+        appRunner = new ApplicationRunner(registry);
+    }
+
+    @Test
+    void testHasInterceptorsWithoutInterceptorsShouldReturnFalse() {
+        assertFalse(appRunner.hasInterceptors());
+    }
+
+    @Test
+    void testRunAppWithInterceptorsShouldCallThemInOrderOfRegistration() throws Exception {
+        List<String> calls = new ArrayList<>();
+        appRunner.addInterceptor(invocation -> {
+            calls.add("first");
+            invocation.proceed();
+            calls.add("first done");
+        });
+        appRunner.addInterceptor(invocation -> {
+            calls.add("second");
+            invocation.proceed();
+            calls.add("second done");
+        });
+
+        runUpper(new ByteArrayOutputStream());
+
+        assertEquals(Arrays.asList("first", "second", "second done", "first done"), calls);
+    }
+
+    @Test
+    void testRunAppWithInterceptorShouldSeeInvocationAndMeasurements() throws Exception {
+        List<CommandInvocation> invocations = new ArrayList<>();
+        appRunner.addInterceptor(invocation -> {
+            invocation.proceed();
+            invocations.add(invocation);
+        });
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        appRunner.runApp(APP_UPPER, new String[]{"-x"}, new ByteArrayInputStream(INPUT.getBytes()), stdout);
+
+        assertEquals("HELLO WORLD", stdout.toString());
+        CommandInvocation invocation = invocations.get(0);
+        assertEquals(APP_UPPER, invocation.getApp());
+        assertArrayEquals(new String[]{"-x"}, invocation.getArgs());
+        assertTrue(invocation.getRedirections().isEmpty());
+        assertSame(ShellContext.current(), invocation.getContext());
+        assertEquals(INPUT.length(), invocation.getBytesIn());
+        assertEquals(INPUT.length(), invocation.getBytesOut());
+        assertTrue(invocation.getWallTimeNanos() > 0);
+        assertNotEquals(0, invocation.getCpuTimeNanos());
+    }
+
+    @Test
+    void testRunAppWithShortCircuitingInterceptorShouldNotRunApplication() throws Exception {
+        appRunner.addInterceptor(invocation -> {
+            try {
+                invocation.getOutputStream().write("cached".getBytes());
+            } catch (IOException e) {
+                throw new ShellException(e.getMessage());
+            }
+        });
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        runUpper(stdout);
+
+        assertEquals("cached", stdout.toString());
+        assertEquals(0, numOfRuns.get());
+    }
+
+    @Test
+    void testRunAppWithFailingApplicationShouldShowExceptionToInterceptor() {
+        List<Exception> exceptions = new ArrayList<>();
+        appRunner.addInterceptor(invocation -> {
+            try {
+                invocation.proceed();
+            } catch (AbstractApplicationException | ShellException e) {
+                exceptions.add(e);
+                throw e;
+            }
+        });
+
+        WcException exception = assertThrows(WcException.class, () ->
+                appRunner.runApp(APP_FAIL, new String[0], System.in, new ByteArrayOutputStream()));
+        assertEquals(Arrays.asList(exception), exceptions);
+        assertThrows(ShellException.class, () ->
+                appRunner.runApp("invalid", new String[0], System.in, new ByteArrayOutputStream()));
+        assertEquals(2, exceptions.size());
+    }
+
+    @Test
+    void testRemoveInterceptorShouldStopCallingIt() throws Exception {
+        AtomicInteger numOfCalls = new AtomicInteger();
+        CommandInterceptor interceptor = invocation -> {
+            numOfCalls.incrementAndGet();
+            invocation.proceed();
+        };
+        appRunner.addInterceptor(interceptor);
+        runUpper(new ByteArrayOutputStream());
+
+        assertTrue(appRunner.removeInterceptor(interceptor));
+        assertFalse(appRunner.removeInterceptor(interceptor));
+        assertFalse(appRunner.hasInterceptors());
+        runUpper(new ByteArrayOutputStream());
+
+        assertEquals(1, numOfCalls.get());
+        assertEquals(2, numOfRuns.get());
+    }
+
+    @Test
+    void testParseAndEvaluateWithInterceptorShouldSeeResolvedRedirections(@TempDir Path tempDir) throws Exception {
+        Files.write(tempDir.resolve("in.txt"), ("a" + STRING_NEWLINE + "b" + STRING_NEWLINE).getBytes());
+        ShellImpl shell = new ShellImpl(new ShellContext(tempDir.toString()));
+        List<CommandInvocation> invocations = new ArrayList<>();
+        shell.getApplicationRunner().addInterceptor(invocation -> {
+            invocation.proceed();
+            invocations.add(invocation);
+        });
+
+        shell.parseAndEvaluate("grep a < in.txt > `echo out.txt`", new ByteArrayOutputStream());
+
+        assertEquals(2, invocations.size());
+        CommandInvocation echo = invocations.get(0);
+        assertEquals("echo", echo.getApp());
+        CommandInvocation grep = invocations.get(1);
+        assertEquals("grep", grep.getApp());
+        assertEquals(Arrays.asList("<", "in.txt", ">", "out.txt"), grep.getRedirections());
+        assertEquals(4, grep.getBytesIn());
+        assertEquals(2, grep.getBytesOut());
+        assertEquals("a" + STRING_NEWLINE, new String(Files.readAllBytes(tempDir.resolve("out.txt"))));
+    }
+
+    private void runUpper(OutputStream stdout) throws AbstractApplicationException, ShellException {
+        appRunner.runApp(APP_UPPER, new String[0], new ByteArrayInputStream(INPUT.getBytes()), stdout);
+    }
+
+    @Test
+    void testRunAppOfApplicationRunningOthersShouldRunThemWithSameRunner() throws Exception {
+        ApplicationRegistry registry = appRunner.getRegistry();
+        registry.register(new TestProvider(ApplicationRunner.APP_TIMEOUT, new TimeoutApplication()));
+        registry.register(new TestProvider(ApplicationRunner.APP_TIME, new TimeApplication()));
+        List<String> apps = new ArrayList<>();
+        appRunner.addInterceptor(invocation -> {
+            apps.add(invocation.getApp());
+            invocation.proceed();
+        });
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        appRunner.runApp(ApplicationRunner.APP_TIMEOUT, new String[]{"10", APP_UPPER},
+                new ByteArrayInputStream(INPUT.getBytes()), stdout);
+        appRunner.runApp(ApplicationRunner.APP_TIME, new String[]{APP_UPPER, "-x"},
+                new ByteArrayInputStream(INPUT.getBytes()), new ByteArrayOutputStream());
+
+        assertEquals("HELLO WORLD", stdout.toString());
+        assertEquals(Arrays.asList(ApplicationRunner.APP_TIMEOUT, APP_UPPER, ApplicationRunner.APP_TIME, APP_UPPER),
+                apps);
+    }
+
+    @Test
+    void testRunAppOfTimeoutWhenInterceptorFailsShouldKeepItsMessage() {
+        appRunner.getRegistry().register(new TestProvider(ApplicationRunner.APP_TIMEOUT, new TimeoutApplication()));
+        appRunner.addInterceptor(invocation -> {
+            if (APP_UPPER.equals(invocation.getApp())) {
+                throw new ShellException("blocked");
+            }
+            invocation.proceed();
+        });
+
+        TimeoutException exception = assertThrows(TimeoutException.class, () -> appRunner.runApp(
+                ApplicationRunner.APP_TIMEOUT, new String[]{"10", APP_UPPER}, System.in, new ByteArrayOutputStream()));
+        assertEquals(new TimeoutException(new ShellException("blocked").getMessage()).getMessage(),
+                exception.getMessage());
+    }
+
+    private static final class TestProvider implements ApplicationProvider {
+        private final String name;
+        private final Application application;
+
+        private TestProvider(String name, Application application) {
+            this.name = name;
+            this.application = application;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Application createApplication() {
+            return application;
+        }
+
+        @Override
+        public boolean isStateless() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiteralFinderTest {
+    private static final String NEEDLE = "needle";
+    private static final String CAFE_ACUTE = "caf\u00e9";
+
+    @Test
+    void testToLiteralWithoutMetacharactersShouldReturnPattern() {
+        assertEquals("needle in a haystack", LiteralFinder.toLiteral("needle in a haystack"));
+    }
+
+    @Test
+    void testToLiteralWithMetacharactersShouldReturnNull() {
+        assertNull(LiteralFinder.toLiteral("a.b"));
+        assertNull(LiteralFinder.toLiteral("a\\sb"));
+        assertNull(LiteralFinder.toLiteral("^a"));
+        assertNull(LiteralFinder.toLiteral(""));
+    }
+
+    @Test
+    void testToLiteralWithQuotedPatternShouldReturnQuotedString() {
+        assertEquals("a.b*", LiteralFinder.toLiteral(Pattern.quote("a.b*")));
+        assertNull(LiteralFinder.toLiteral(Pattern.quote("a\\Eb")));
+    }
+
+    @Test
+    void testCompileWithCharsetOfMultiByteTerminatorsShouldReturnNull() {
+        assertNull(LiteralFinder.compile(NEEDLE, false, StandardCharsets.UTF_16));
+        assertNull(LiteralFinder.compile(CAFE_ACUTE, false, StandardCharsets.US_ASCII));
+        assertNotNull(LiteralFinder.compile(CAFE_ACUTE, false, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testFindLinesWithMixedLineTerminatorsShouldFindLinesAsReadLineDoes(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("mixed.txt");
+        Files.write(file, "a needle\r\nno\rneedle b\nneedleneedle\n\nlast needle".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(Arrays.asList("a needle", "needle b", "needleneedle", "last needle"),
+                findLines(LiteralFinder.compile(NEEDLE, false, StandardCharsets.UTF_8), file, LiteralFinder.MAX_REGION_SIZE));
+    }
+
+    @Test
+    void testFindLinesWithCaseInsensitiveShouldFoldAsciiLettersOnly(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("case.txt");
+        Files.write(file, ("NEEDLE caf\u00c9\nNeEdLe caf\u00e9\nneedle\n").getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(Arrays.asList("NeEdLe caf\u00e9"), findLines(LiteralFinder.compile("needle CAF\u00e9", true,
+                StandardCharsets.UTF_8), file, LiteralFinder.MAX_REGION_SIZE));
+    }
+
+    @Test
+    void testFindLinesWithMappedRegionsShouldFindSameLinesAsRegex(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("large.txt");
+        StringBuilder text = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; text.length() < 4 * LiteralFinder.MAP_THRESHOLD; i++) {
+            String line = i % 7 == 0 ? i + " hay " + NEEDLE + " hay" : i + " hay needl";
+            text.append(line).append(i % 3 == 0 ? "\r\n" : "\n");
+            if (line.contains(NEEDLE)) {
+                expected.add(line);
+            }
+        }
+        Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+        LiteralFinder finder = LiteralFinder.compile(NEEDLE, false, StandardCharsets.UTF_8);
+
+        assertEquals(expected, findLines(finder, file, LiteralFinder.MAX_REGION_SIZE));
+        assertEquals(expected, findLines(finder, file, 1000));
+        try (FileChannel channel = FileChannel.open(file)) {
+            assertEquals(expected.size(), finder.findLines(channel, null));
+        }
+    }
+
+    @Test
+    void testFindLinesWithMaxLinesShouldStopAfterMaxLines(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("max.txt");
+        Files.write(file, "needle 1\nhay\nneedle 2\nneedle 3\n".getBytes(StandardCharsets.UTF_8));
+        LiteralFinder finder = LiteralFinder.compile(NEEDLE, false, StandardCharsets.UTF_8);
+        List<String> lines = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            assertEquals(2, finder.findLines(channel, 2, lines::add));
+            assertEquals(0, finder.findLines(channel, 0, lines::add));
+        }
+        assertEquals(Arrays.asList("needle 1", "needle 2"), lines);
+    }
+
+    private List<String> findLines(LiteralFinder finder, Path file, int maxRegionSize) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file)) {
+            assertEquals(finder.findLines(channel, Integer.MAX_VALUE, maxRegionSize, lines::add), lines.size());
+        }
+        return lines;
+    }
+}
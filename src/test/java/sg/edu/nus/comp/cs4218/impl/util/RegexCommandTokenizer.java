@@ -0,0 +1,61 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_SYNTAX;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.*;
+
+/**
+ * The regular expression based tokenizer that CommandBuilder used before CommandLexer, kept as
+ * the reference implementation for CommandLexerTest and CommandLexerBenchmark.
+ */
+final class RegexCommandTokenizer {
+    private static final Pattern ARGUMENT_REGEX = Pattern
+            .compile("([^'\"`|<>;\\s]+|'[^']*'|\"([^\"`]*`.*?`[^\"`]*)+\"|\"[^\"]*\"|`[^`]*`)+");
+
+    private RegexCommandTokenizer() {
+    }
+
+    static List<String> tokenize(String commandString) throws ShellException {
+        List<String> tokens = new LinkedList<>();
+        String commandSubstring = commandString;
+        while (!commandSubstring.isEmpty()) {
+            commandSubstring = commandSubstring.trim();
+            Matcher matcher = ARGUMENT_REGEX.matcher(commandSubstring);
+
+            // no valid arguments found
+            if (!matcher.find()) {
+                throw new ShellException(ERR_SYNTAX);
+            }
+
+            // found a valid argument at the start of the command substring
+            if (matcher.start() == 0) {
+                tokens.add(matcher.group());
+                commandSubstring = commandSubstring.substring(matcher.end());
+                continue;
+            }
+
+            // found a valid argument but not at the start of the command substring
+            char firstChar = commandSubstring.charAt(0);
+            commandSubstring = commandSubstring.substring(1);
+
+            switch (firstChar) {
+                case CHAR_REDIR_INPUT:
+                case CHAR_REDIR_OUTPUT:
+                case CHAR_PIPE:
+                case CHAR_SEMICOLON:
+                    tokens.add(String.valueOf(firstChar));
+                    break;
+                default:
+                    // encountered a mismatched quote
+                    throw new ShellException(ERR_SYNTAX);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,136 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferPipeTest {
+    private static final int SMALL_CAPACITY = 16;
+
+    @Test
+    void testConstructorWithCapacityNotPowerOfTwoShouldRoundUpCapacity() {
+        assertEquals(16, new RingBufferPipe(10).getCapacity());
+        assertEquals(16, new RingBufferPipe(16).getCapacity());
+    }
+
+    @Test
+    void testConstructorWithNonPositiveCapacityShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBufferPipe(0));
+    }
+
+    @Test
+    void testReadAfterWriterClosedShouldReturnWrittenBytesThenEof() throws IOException {
+        RingBufferPipe pipe = new RingBufferPipe(SMALL_CAPACITY);
+        pipe.getOutputStream().write("abc".getBytes());
+        pipe.getOutputStream().write('d');
+        pipe.getOutputStream().close();
+
+        byte[] bytes = new byte[SMALL_CAPACITY];
+        InputStream inputStream = pipe.getInputStream();
+        assertEquals(4, inputStream.read(bytes));
+        assertEquals("abcd", new String(bytes, 0, 4));
+        assertEquals(-1, inputStream.read());
+        assertEquals(-1, inputStream.read(bytes));
+    }
+
+    @Test
+    void testReadAndWriteAcrossBufferBoundaryShouldWrapAround() throws IOException {
+        RingBufferPipe pipe = new RingBufferPipe(SMALL_CAPACITY);
+        OutputStream outputStream = pipe.getOutputStream();
+        InputStream inputStream = pipe.getInputStream();
+        byte[] bytes = new byte[SMALL_CAPACITY];
+
+        outputStream.write("0123456789".getBytes());
+        assertEquals(10, inputStream.read(bytes));
+        outputStream.write("abcdefghijkl".getBytes());
+        assertEquals(12, inputStream.available());
+        assertEquals(12, inputStream.read(bytes));
+        assertEquals("abcdefghijkl", new String(bytes, 0, 12));
+    }
+
+    @Test
+    void testWriteAfterReaderClosedShouldThrowIOExceptionAndMarkPipeBroken() throws IOException {
+        RingBufferPipe pipe = new RingBufferPipe(SMALL_CAPACITY);
+        pipe.getInputStream().close();
+
+        IOException exception = assertThrows(IOException.class, () -> pipe.getOutputStream().write('a'));
+        assertEquals(RingBufferPipe.ERR_BROKEN_PIPE, exception.getMessage());
+        assertTrue(pipe.isBroken());
+    }
+
+    @Test
+    void testWriteBlockedOnFullPipeWhenReaderClosesShouldThrowIOException() throws Exception {
+        RingBufferPipe pipe = new RingBufferPipe(SMALL_CAPACITY);
+        AtomicReference<Exception> writerException = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                pipe.getOutputStream().write(new byte[SMALL_CAPACITY * 4]);
+            } catch (IOException e) {
+                writerException.set(e);
+            }
+        });
+        writer.start();
+        while (pipe.getInputStream().available() < SMALL_CAPACITY) {
+            Thread.yield();
+        }
+        pipe.getInputStream().close();
+        writer.join();
+
+        assertNotNull(writerException.get());
+        assertTrue(pipe.isBroken());
+    }
+
+    @Test
+    void testReadWhenPipeAbortedShouldThrowIOExceptionWithCause() {
+        RingBufferPipe pipe = new RingBufferPipe(SMALL_CAPACITY);
+        IllegalStateException cause = new IllegalStateException();
+        pipe.abort(cause);
+
+        IOException exception = assertThrows(IOException.class, () -> pipe.getInputStream().read());
+        assertEquals(RingBufferPipe.ERR_PIPE_ABORTED, exception.getMessage());
+        assertSame(cause, exception.getCause());
+        assertThrows(IOException.class, () -> pipe.getOutputStream().write('a'));
+    }
+
+    @Test
+    void testConcurrentTransferLargerThanCapacityShouldPreserveAllBytesInOrder() throws Exception {
+        byte[] expected = new byte[1 << 20];
+        new Random(4218).nextBytes(expected);
+        RingBufferPipe pipe = new RingBufferPipe(SMALL_CAPACITY * 64);
+        AtomicReference<Exception> writerException = new AtomicReference<>();
+
+        Thread writer = new Thread(() -> {
+            try (OutputStream outputStream = pipe.getOutputStream()) {
+                int offset = 0;
+                Random random = new Random(1);
+                while (offset < expected.length) {
+                    int len = Math.min(expected.length - offset, 1 + random.nextInt(3000));
+                    outputStream.write(expected, offset, len);
+                    offset += len;
+                }
+            } catch (IOException e) {
+                writerException.set(e);
+            }
+        });
+        writer.start();
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        byte[] bytes = new byte[777];
+        int numRead;
+        while ((numRead = pipe.getInputStream().read(bytes)) != -1) {
+            actual.write(bytes, 0, numRead);
+        }
+        writer.join();
+
+        assertNull(writerException.get());
+        assertTrue(Arrays.equals(expected, actual.toByteArray()));
+    }
+}
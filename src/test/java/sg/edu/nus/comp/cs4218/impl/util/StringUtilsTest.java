@@ -264,4 +264,31 @@ public class StringUtilsTest {
     void testIsNumberWhenInputHasNoExtraneousCharacterShouldReturnTrue() {
         assertTrue(StringUtils.isNumber("1"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests quote method with an argument without special characters.
+     * Expected: Returns the argument as it is.
+     */
+    @Test
+    void testQuoteWithoutSpecialCharactersShouldReturnArgument() {
+        assertEquals("-c", StringUtils.quote("-c"));
+        assertEquals("''", StringUtils.quote(EMPTY_STRING));
+        assertEquals("'a b'", StringUtils.quote("a b"));
+    }
+
+    /**
+     * Tests quote method with arguments holding quotes, command substitution, globs, redirections,
+     * pipes and semicolons.
+     * Expected: The quoted argument resolves back to the argument.
+     */
+    @Test
+    void testQuoteWithSpecialCharactersShouldResolveToArgument() throws Exception {
+        ArgumentResolver resolver = new ArgumentResolver();
+        String[] args = {"a b", "x;y", "literal `echo SUB`", "it's", "\"a\" 'b'", "*.txt", ">", "a | b & c", "<"};
+        for (String arg : args) {
+            List<String> resolved = resolver.resolveOneArgument(StringUtils.quote(arg));
+            assertEquals(1, resolved.size(), arg);
+            assertEquals(arg, resolved.get(0));
+        }
+    }
+}